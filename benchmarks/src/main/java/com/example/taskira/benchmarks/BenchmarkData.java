@@ -0,0 +1,65 @@
+package com.example.taskira.benchmarks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.taskira.dto.out.PageResponse;
+import com.example.taskira.dto.out.TaskResponse;
+import com.example.taskira.mapper.TaskMapper;
+import com.example.taskira.pagination.TotalMode;
+import com.example.taskira.repository.TaskSortProperty;
+import com.example.taskira.repository.entity.TaskEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Данные бенчмарков, похожие на реальные: заголовки и описания типичной длины, часть Задач просрочена.
+ */
+final class BenchmarkData {
+
+    private static final Instant DUE_DATE = Instant.parse("2024-02-18T18:35:24.123456Z");
+
+    private BenchmarkData() {
+    }
+
+    static List<TaskEntity> entities(int count) {
+        var tasks = new ArrayList<TaskEntity>(count);
+        for (var i = 1; i <= count; i++) {
+            var task = new TaskEntity();
+            task.setId((long) i);
+            task.setTitle("Подготовить отчет по задаче №" + i);
+            task.setDescription("Собрать данные за квартал, сверить с бухгалтерией и отправить руководителю. " + i);
+            task.setDueDate(DUE_DATE.plusSeconds(i * 3600L));
+            task.setCompleted(i % 3 == 0);
+            task.setOverdueAt(i % 5 == 0 ? DUE_DATE : null);
+            task.setVersion(i % 7);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    static PageImpl<TaskEntity> page(int size) {
+        return new PageImpl<>(entities(size), PageRequest.of(3, size, TaskSortProperty.DUE_DATE.sort(Sort.Direction.ASC)),
+                1_000_000);
+    }
+
+    static PageResponse<TaskResponse> pageResponse(int size) {
+        return TaskMapper.INSTANCE.toPageResponse(page(size), TotalMode.EXACT);
+    }
+
+    /**
+     * ObjectMapper с теми же настройками, что Spring Boot задает по умолчанию для MVC.
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+}
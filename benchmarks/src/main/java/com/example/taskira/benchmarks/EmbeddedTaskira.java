@@ -0,0 +1,102 @@
+package com.example.taskira.benchmarks;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.taskira.TaskiraApplication;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Приложение поверх встроенного Postgres, по умолчанию без веб-сервера: схема создается Liquibase при старте,
+ * затем таблица заполняется taskCount Задачами и анализируется, чтобы планы запросов были как на проде.
+ */
+final class EmbeddedTaskira implements AutoCloseable {
+
+    private static final String SEED_SQL = "INSERT INTO task (title, description, due_date, completed) "
+            + "SELECT 'Задача ' || i, 'Описание задачи ' || i, TIMESTAMP '2024-01-01' + i * INTERVAL '1 minute', "
+            + "i % 3 = 0 FROM generate_series(1, ?) i";
+
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedTaskira(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    static EmbeddedTaskira start(int taskCount, Map<String, Object> properties) throws IOException {
+        return start(taskCount, properties, WebApplicationType.NONE);
+    }
+
+    /**
+     * @param webApplicationType SERVLET - с веб-сервером на свободном порту, см. {@link #getPort()}
+     */
+    static EmbeddedTaskira start(int taskCount, Map<String, Object> properties,
+            WebApplicationType webApplicationType) throws IOException {
+        var postgres = EmbeddedPostgres.builder().start();
+        new JdbcTemplate(postgres.getPostgresDatabase()).execute("CREATE SCHEMA taskira");
+
+        var allProperties = new HashMap<String, Object>();
+        allProperties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        allProperties.put("spring.datasource.username", "postgres");
+        allProperties.put("spring.datasource.password", "postgres");
+        allProperties.put("spring.jpa.show-sql", false);
+        allProperties.put("taskira.overdue.enabled", false);
+        allProperties.put("logging.level.root", "WARN");
+        allProperties.put("server.port", 0);
+        allProperties.putAll(properties);
+        // Как аргументы командной строки: properties() билдера задают значения по умолчанию,
+        // которые перекрываются application.yaml
+        var args = allProperties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        var context = new SpringApplicationBuilder(TaskiraApplication.class)
+                .web(webApplicationType)
+                .logStartupInfo(false)
+                .run(args);
+
+        var jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update(SEED_SQL, taskCount);
+        jdbcTemplate.execute("ANALYZE task");
+        return new EmbeddedTaskira(postgres, context);
+    }
+
+    /**
+     * Держит эксклюзивную блокировку таблицы task в отдельной транзакции мимо пулов приложения: запросы к Задачам
+     * ждут ее снятия, удерживая соединения, как при зависании БД.
+     */
+    void lockTasks(Duration duration) throws SQLException, InterruptedException {
+        try (var connection = postgres.getPostgresDatabase().getConnection()) {
+            connection.setAutoCommit(false);
+            try (var statement = connection.createStatement()) {
+                statement.execute("LOCK TABLE taskira.task IN ACCESS EXCLUSIVE MODE");
+            }
+            Thread.sleep(duration.toMillis());
+            connection.rollback();
+        }
+    }
+
+    int getPort() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+}
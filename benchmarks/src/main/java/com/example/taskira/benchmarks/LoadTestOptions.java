@@ -0,0 +1,81 @@
+package com.example.taskira.benchmarks;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Параметры нагрузочного теста в виде {@code --key=value}, повторный ключ перекрывает предыдущий.
+ *
+ * @param baseUrl     адрес уже запущенного приложения; если не задан, приложение и Postgres запускаются встроенными
+ * @param tasks       кол-во Задач, которыми заполняется встроенная база
+ * @param rates       ступени нагрузки, запросов в секунду
+ * @param duration    длительность измерения на каждой ступени
+ * @param warmup      прогрев перед первой ступенью, в результат не входит
+ * @param mix         веса операций
+ * @param maxInFlight предел одновременных запросов; запросы сверх него не отправляются и считаются отброшенными
+ * @param slo         целевой p99 для определения максимальной устойчивой нагрузки
+ * @param output      каталог для гистограмм и summary.csv
+ * @param profiles    профили встроенного приложения через запятую, например virtual-threads
+ * @param stall       сколько посередине каждой ступени держится блокировка таблицы task (имитация зависания БД),
+ *                    PT0S - без блокировки; только для встроенного приложения
+ */
+record LoadTestOptions(@Nullable String baseUrl, int tasks, List<Integer> rates, Duration duration, Duration warmup,
+        Map<TaskLoadTest.Operation, Integer> mix, int maxInFlight, Duration slo, Path output, String profiles,
+        Duration stall) {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "tasks", "100000",
+            "rates", "100,200,400",
+            "duration", "PT30S",
+            "warmup", "PT10S",
+            "mix", "get=70,list=15,create=10,update=3,delete=2",
+            "maxInFlight", "512",
+            "slo", "PT0.1S",
+            "output", "target/load-test",
+            "profiles", "",
+            "stall", "PT0S");
+
+    static LoadTestOptions parse(String... args) {
+        var values = new HashMap<>(DEFAULTS);
+        for (var arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException(String.format("Argument %s is not --key=value", arg));
+            }
+            var key = arg.substring(2, separator);
+            if (!DEFAULTS.containsKey(key) && !key.equals("baseUrl")) {
+                throw new IllegalArgumentException(String.format("Unknown argument %s", key));
+            }
+            values.put(key, arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(
+                values.get("baseUrl"),
+                Integer.parseInt(values.get("tasks")),
+                Arrays.stream(values.get("rates").split(",")).map(Integer::valueOf).toList(),
+                Duration.parse(values.get("duration")),
+                Duration.parse(values.get("warmup")),
+                parseMix(values.get("mix")),
+                Integer.parseInt(values.get("maxInFlight")),
+                Duration.parse(values.get("slo")),
+                Path.of(values.get("output")),
+                values.get("profiles"),
+                Duration.parse(values.get("stall")));
+    }
+
+    private static Map<TaskLoadTest.Operation, Integer> parseMix(String mix) {
+        var weights = new EnumMap<TaskLoadTest.Operation, Integer>(TaskLoadTest.Operation.class);
+        for (var entry : mix.split(",")) {
+            var parts = entry.split("=");
+            weights.put(TaskLoadTest.Operation.valueOf(parts[0].trim().toUpperCase()), Integer.valueOf(parts[1].trim()));
+        }
+        return weights;
+    }
+
+}
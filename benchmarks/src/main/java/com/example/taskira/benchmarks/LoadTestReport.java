@@ -0,0 +1,148 @@
+package com.example.taskira.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Результат одной ступени нагрузки: HDR-гистограммы задержек в микросекундах и счетчики ошибок по операциям.
+ * Задержка считается от запланированного момента отправки, а не от фактического, поэтому очередь
+ * на стороне клиента не скрывает медленные ответы.
+ */
+final class LoadTestReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final String CSV_HEADER = "rate,operation,count,errors,dropped,rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+    private final int rate;
+    private final Duration duration;
+    private final Map<TaskLoadTest.Operation, OperationStats> stats = new EnumMap<>(TaskLoadTest.Operation.class);
+
+    LoadTestReport(int rate, Duration duration) {
+        this.rate = rate;
+        this.duration = duration;
+        for (var operation : TaskLoadTest.Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    void recordResponse(TaskLoadTest.Operation operation, long latencyNanos, int status) {
+        var operationStats = stats.get(operation);
+        operationStats.record(latencyNanos);
+        if (status >= 400) {
+            operationStats.errors.computeIfAbsent("HTTP " + status, key -> new LongAdder()).increment();
+        }
+    }
+
+    void recordFailure(TaskLoadTest.Operation operation, long latencyNanos, Throwable error) {
+        var operationStats = stats.get(operation);
+        operationStats.record(latencyNanos);
+        operationStats.errors.computeIfAbsent(error.getClass().getSimpleName(), key -> new LongAdder()).increment();
+    }
+
+    void recordDropped(TaskLoadTest.Operation operation) {
+        stats.get(operation).dropped.increment();
+    }
+
+    /**
+     * Ступень выдержана, если все запросы отправлены и выполнены без ошибок, а общий p99 не выше slo.
+     */
+    boolean isSustained(Duration slo) {
+        var total = total();
+        return total.errorCount() == 0 && total.dropped.sum() == 0
+                && total.histogram.getValueAtPercentile(99) <= TimeUnit.NANOSECONDS.toMicros(slo.toNanos());
+    }
+
+    void print(PrintStream out) {
+        out.printf("%nRate %d req/s, %s%n", rate, duration);
+        out.printf("%-8s %9s %7s %8s %9s %9s %9s %9s %9s %9s%n",
+                "op", "count", "errors", "dropped", "rps", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        stats.forEach((operation, operationStats) -> printRow(out, operation.name().toLowerCase(), operationStats));
+        var total = total();
+        printRow(out, "total", total);
+        stats.forEach((operation, operationStats) -> operationStats.errors.forEach((error, count) ->
+                out.printf("  %s: %s x %d%n", operation.name().toLowerCase(), error, count.sum())));
+    }
+
+    /**
+     * Пишет гистограммы в формате HdrHistogram (.hgrm, задержки в миллисекундах) и дописывает строки в summary.csv.
+     */
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        var summary = directory.resolve("summary.csv");
+        if (Files.notExists(summary)) {
+            Files.writeString(summary, CSV_HEADER + System.lineSeparator());
+        }
+        var rows = new StringBuilder();
+        var all = new TreeMap<String, OperationStats>();
+        stats.forEach((operation, operationStats) -> all.put(operation.name().toLowerCase(), operationStats));
+        all.put("total", total());
+        for (var entry : all.entrySet()) {
+            var operationStats = entry.getValue();
+            try (var out = new PrintStream(directory.resolve(rate + "-" + entry.getKey() + ".hgrm").toFile())) {
+                operationStats.histogram.outputPercentileDistribution(out, 1000.0);
+            }
+            var histogram = operationStats.histogram;
+            rows.append(String.format("%d,%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f%n", rate, entry.getKey(),
+                    histogram.getTotalCount(), operationStats.errorCount(), operationStats.dropped.sum(),
+                    rps(histogram), millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                    millis(histogram, 99.9), histogram.getMaxValue() / 1000.0));
+        }
+        Files.writeString(summary, rows, StandardOpenOption.APPEND);
+    }
+
+    private OperationStats total() {
+        var total = new OperationStats();
+        stats.values().forEach(operationStats -> {
+            total.histogram.add(operationStats.histogram);
+            total.dropped.add(operationStats.dropped.sum());
+            operationStats.errors.forEach((error, count) ->
+                    total.errors.computeIfAbsent(error, key -> new LongAdder()).add(count.sum()));
+        });
+        return total;
+    }
+
+    private void printRow(PrintStream out, String name, OperationStats operationStats) {
+        var histogram = operationStats.histogram;
+        out.printf("%-8s %9d %7d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(),
+                operationStats.errorCount(), operationStats.dropped.sum(), rps(histogram), millis(histogram, 50),
+                millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+    }
+
+    private double rps(Histogram histogram) {
+        return histogram.getTotalCount() * 1000.0 / duration.toMillis();
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static final class OperationStats {
+
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        private final LongAdder dropped = new LongAdder();
+
+        void record(long latencyNanos) {
+            histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        }
+
+        long errorCount() {
+            return errors.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+    }
+
+}
@@ -0,0 +1,228 @@
+package com.example.taskira.benchmarks;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Время до первого ответа и RSS процесса при старте приложения, собранного {@code mvn -Pfast-startup package}.
+ * Поверх встроенного Postgres схема создается один раз запуском с {@code --migrate}, затем каждый вариант
+ * запускается отдельным процессом runs раз. Время считается от запуска процесса до первого ответа 200
+ * на GET /tasks/{id}, RSS читается из /proc сразу после него (только Linux).
+ * <p>
+ * Варианты: default - как раньше, с Liquibase и проверкой схемы при старте; fast-startup - профиль без них;
+ * aot - то же с кодом Spring AOT; aot-cds - дополнительно с архивом CDS.
+ */
+public final class StartupBenchmark {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "jar", "../target/taskira.jar",
+            "runs", "3",
+            "timeout", "PT2M",
+            "output", "target/startup");
+    private static final String PROFILE = "--spring.profiles.active=fast-startup";
+    private static final String AOT = "-Dspring.aot.enabled=true";
+    private static final int TASK_COUNT = 1000;
+    private static final Pattern STARTED = Pattern.compile("Started TaskiraApplication in ([\\d.]+) seconds");
+    private static final Pattern VM_RSS = Pattern.compile("VmRSS:\\s+(\\d+) kB");
+
+    private final Path jar;
+    private final Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+    private final Duration timeout;
+    private final Path output;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private List<String> datasourceArgs;
+
+    private StartupBenchmark(Path jar, Duration timeout, Path output) {
+        this.jar = jar;
+        this.timeout = timeout;
+        this.output = output;
+    }
+
+    /**
+     * Вариант запуска: аргументы JVM и приложения.
+     */
+    private record Variant(String name, List<String> jvmArgs, List<String> appArgs) {
+    }
+
+    /**
+     * @param ttfrMillis    время до первого ответа
+     * @param startedMillis время старта по логу Spring Boot
+     * @param rssKb         RSS процесса после первого ответа, -1 - не удалось прочитать
+     */
+    private record Run(long ttfrMillis, long startedMillis, long rssKb) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var values = new HashMap<>(DEFAULTS);
+        for (var arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !DEFAULTS.containsKey(arg.substring(2, separator))) {
+                throw new IllegalArgumentException(String.format("Unknown argument %s, expected --key=value with "
+                        + "key in %s", arg, DEFAULTS.keySet()));
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        var jar = Path.of(values.get("jar"));
+        if (Files.notExists(jar)) {
+            throw new IllegalStateException(String.format("%s not found, run mvn -Pfast-startup package first", jar));
+        }
+        new StartupBenchmark(jar, Duration.parse(values.get("timeout")), Path.of(values.get("output")))
+                .run(Integer.parseInt(values.get("runs")));
+    }
+
+    private void run(int runs) throws Exception {
+        Files.createDirectories(output);
+        try (var postgres = EmbeddedPostgres.builder().start()) {
+            var jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+            jdbcTemplate.execute("CREATE SCHEMA taskira");
+            datasourceArgs = List.of("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                    "--spring.datasource.username=postgres", "--spring.datasource.password=postgres");
+
+            long start = System.nanoTime();
+            var migrate = start(List.of(), List.of("--migrate"), output.resolve("migrate.log"));
+            if (!migrate.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS) || migrate.exitValue() != 0) {
+                throw new IllegalStateException("Migration failed, see " + output.resolve("migrate.log"));
+            }
+            System.out.printf("Migration with --migrate: %d ms%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime()
+                    - start));
+            jdbcTemplate.update("INSERT INTO taskira.task (title, description, due_date, completed) "
+                    + "SELECT 'Задача ' || i, 'Описание задачи ' || i, TIMESTAMP '2024-01-01' + i * INTERVAL '1 minute', "
+                    + "i % 3 = 0 "
+                    + "FROM generate_series(1, ?) i", TASK_COUNT);
+            var firstId = jdbcTemplate.queryForObject("SELECT min(id) FROM taskira.task", Long.class);
+
+            var summary = new StringBuilder("variant,run,ttfr_ms,started_ms,rss_mb").append(System.lineSeparator());
+            System.out.printf("%n%-14s %12s %12s %12s%n", "variant", "ttfr ms", "started ms", "rss MB");
+            for (var variant : variants()) {
+                var results = new ArrayList<Run>();
+                for (var i = 0; i < runs; i++) {
+                    var result = measure(variant, i, firstId);
+                    results.add(result);
+                    summary.append(String.format("%s,%d,%d,%d,%.1f%n", variant.name(), i, result.ttfrMillis(),
+                            result.startedMillis(), result.rssKb() / 1024.0));
+                }
+                System.out.printf("%-14s %12d %12d %12.1f%n", variant.name(),
+                        median(results.stream().mapToLong(Run::ttfrMillis)),
+                        median(results.stream().mapToLong(Run::startedMillis)),
+                        median(results.stream().mapToLong(Run::rssKb)) / 1024.0);
+            }
+            Files.writeString(output.resolve("summary.csv"), summary);
+            System.out.printf("%nMedians of %d runs, all runs and logs: %s%n", runs, output.toAbsolutePath());
+        }
+    }
+
+    private List<Variant> variants() {
+        var variants = new ArrayList<>(List.of(
+                new Variant("default", List.of(), List.of()),
+                new Variant("fast-startup", List.of(), List.of(PROFILE)),
+                new Variant("aot", List.of(AOT), List.of(PROFILE))));
+        var archive = jar.resolveSibling(jar.getFileName().toString().replaceFirst("\\.jar$", ".jsa"));
+        if (Files.exists(archive)) {
+            variants.add(new Variant("aot-cds", List.of("-XX:SharedArchiveFile=" + archive, AOT), List.of(PROFILE)));
+        } else {
+            System.out.printf("%s not found, aot-cds is skipped%n", archive);
+        }
+        return variants;
+    }
+
+    private Run measure(Variant variant, int run, long taskId) throws Exception {
+        int port = freePort();
+        var log = output.resolve(variant.name() + "-" + run + ".log");
+        var appArgs = new ArrayList<>(variant.appArgs());
+        appArgs.add("--server.port=" + port);
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tasks/" + taskId))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        var process = start(variant.jvmArgs(), appArgs, log);
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(String.format("%s exited with %d, see %s", variant.name(),
+                            process.exitValue(), log));
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(String.format("%s did not respond within %s, see %s",
+                            variant.name(), timeout, log));
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (IOException e) {
+                    // Веб-сервер еще не запущен
+                }
+                Thread.sleep(5);
+            }
+            long ttfr = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new Run(ttfr, startedMillis(log), rssKb(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private Process start(List<String> jvmArgs, List<String> appArgs, Path log) throws IOException {
+        var command = new ArrayList<String>();
+        command.add(java.toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(datasourceArgs);
+        command.addAll(appArgs);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static long startedMillis(Path log) throws IOException {
+        var matcher = STARTED.matcher(Files.readString(log));
+        return matcher.find() ? Math.round(Double.parseDouble(matcher.group(1)) * 1000) : -1;
+    }
+
+    private static long rssKb(long pid) {
+        try {
+            var matcher = VM_RSS.matcher(Files.readString(Path.of("/proc", Long.toString(pid), "status")));
+            return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static long median(LongStream values) {
+        var sorted = values.sorted().toArray();
+        return sorted[sorted.length / 2];
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
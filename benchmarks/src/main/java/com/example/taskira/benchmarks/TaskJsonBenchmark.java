@@ -0,0 +1,80 @@
+package com.example.taskira.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.out.PageResponse;
+import com.example.taskira.dto.out.TaskResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Сериализация Jackson: страница Задач в JSON и обратно, разбор тела запроса на создание.
+ * Writer и reader создаются заранее, как их кэширует MappingJackson2HttpMessageConverter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    private static final byte[] CREATE_BODY = ("{\"title\":\"Подготовить отчет\",\"description\":\"Собрать данные за "
+            + "квартал\",\"dueDate\":\"2024-02-18T18:35:24.123Z\"}").getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectReader createReader = BenchmarkData.objectMapper().readerFor(TaskCreateParam.class);
+
+    @State(Scope.Benchmark)
+    public static class PageState {
+
+        @Param({"20", "1000"})
+        private int pageSize;
+
+        private PageResponse<TaskResponse> page;
+        private byte[] pageJson;
+        private ObjectWriter pageWriter;
+        private ObjectReader pageReader;
+
+        @Setup
+        public void setUp() throws IOException {
+            var objectMapper = BenchmarkData.objectMapper();
+            page = BenchmarkData.pageResponse(pageSize);
+            pageWriter = objectMapper.writerFor(new TypeReference<PageResponse<TaskResponse>>() { });
+            pageReader = objectMapper.readerFor(new TypeReference<PageResponse<TaskResponse>>() { });
+            pageJson = pageWriter.writeValueAsBytes(page);
+        }
+
+    }
+
+    @Benchmark
+    public byte[] writePage(PageState state) throws IOException {
+        return state.pageWriter.writeValueAsBytes(state.page);
+    }
+
+    @Benchmark
+    public PageResponse<TaskResponse> readPage(PageState state) throws IOException {
+        return state.pageReader.readValue(state.pageJson);
+    }
+
+    @Benchmark
+    public TaskCreateParam readCreateParam() throws IOException {
+        return createReader.readValue(CREATE_BODY);
+    }
+
+}
@@ -0,0 +1,272 @@
+package com.example.taskira.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.lang.Nullable;
+
+import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.in.TaskUpdateParam;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Нагрузочный тест HTTP API по открытой модели: запросы отправляются с заданной частотой независимо от того,
+ * успевает ли приложение отвечать, поэтому при перегрузке растут задержки, а не падает частота.
+ * Ступени нагрузки прогоняются по очереди, по каждой печатаются задержки и ошибки по операциям,
+ * в конце - максимальная выдержанная ступень.
+ * <p>
+ * Без {@code --baseUrl} приложение с веб-сервером запускается поверх встроенного Postgres
+ * (см. {@link EmbeddedTaskira}), и все работает на одной машине без внешних сервисов. Встроенное приложение
+ * можно запустить с профилями ({@code --profiles=virtual-threads}) и посередине каждой ступени заблокировать
+ * таблицу task ({@code --stall=PT8S}), чтобы сравнить поведение при зависании БД.
+ */
+public final class TaskLoadTest {
+
+    /**
+     * Операции смеси нагрузки.
+     */
+    enum Operation {
+        GET, LIST, CREATE, UPDATE, DELETE
+    }
+
+    private static final int LIST_PAGES = 50;
+    private static final int LIST_SIZE = 20;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final URI tasksUri;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = BenchmarkData.objectMapper();
+    private final Operation[] schedule;
+    // Задачи, созданные тестом: удаляются только они, чтобы чтения по id не получали 404
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private final Semaphore inFlight;
+    @Nullable
+    private final EmbeddedTaskira taskira;
+    private long minId;
+    private long maxId;
+
+    private TaskLoadTest(LoadTestOptions options, String baseUrl, @Nullable EmbeddedTaskira taskira) {
+        this.options = options;
+        this.taskira = taskira;
+        this.tasksUri = URI.create(baseUrl + "/tasks");
+        this.schedule = schedule(options.mix());
+        this.inFlight = new Semaphore(options.maxInFlight());
+    }
+
+    public static void main(String[] args) throws Exception {
+        var options = LoadTestOptions.parse(args);
+        if (options.baseUrl() != null) {
+            if (!options.stall().isZero() || !options.profiles().isEmpty()) {
+                throw new IllegalArgumentException("--stall and --profiles apply to the embedded application only");
+            }
+            new TaskLoadTest(options, options.baseUrl(), null).run();
+            return;
+        }
+        System.out.printf("Starting embedded taskira with %d tasks on Java %s, profiles [%s]%n", options.tasks(),
+                Runtime.version(), options.profiles());
+        try (var taskira = EmbeddedTaskira.start(options.tasks(),
+                Map.of("spring.profiles.active", options.profiles()), WebApplicationType.SERVLET)) {
+            new TaskLoadTest(options, "http://localhost:" + taskira.getPort(), taskira).run();
+        }
+    }
+
+    private void run() throws Exception {
+        minId = firstId("ASC");
+        maxId = firstId("DESC");
+        System.out.printf("Task ids %d..%d, mix %s%n", minId, maxId, options.mix());
+
+        var warmupRate = options.rates().get(0);
+        System.out.printf("Warming up at %d req/s for %s%n", warmupRate, options.warmup());
+        runStep(new LoadTestReport(warmupRate, options.warmup()), warmupRate, options.warmup(), Duration.ZERO);
+
+        Integer maxSustained = null;
+        for (var rate : options.rates()) {
+            var report = new LoadTestReport(rate, options.duration());
+            runStep(report, rate, options.duration(), options.stall());
+            report.print(System.out);
+            report.write(options.output());
+            if (report.isSustained(options.slo())) {
+                maxSustained = rate;
+            }
+        }
+        System.out.printf("%nMax sustained rate (p99 <= %s, no errors or drops): %s%n", options.slo(),
+                maxSustained == null ? "none" : maxSustained + " req/s");
+        System.out.printf("Histograms and summary.csv: %s%n", options.output().toAbsolutePath());
+    }
+
+    /**
+     * Отправляет запросы через равные интервалы в течение duration и дожидается ответов на все отправленные.
+     * Если к моменту отправки уже ждут ответа maxInFlight запросов, запрос не отправляется и считается отброшенным.
+     * Блокировка stall приходится на середину ступени.
+     */
+    private void runStep(LoadTestReport report, int rate, Duration duration, Duration stall)
+            throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        var staller = stall.isZero() ? null : startStall(start + (duration.toNanos() - stall.toNanos()) / 2, stall);
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long delay = intended - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            var operation = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+            if (!inFlight.tryAcquire()) {
+                report.recordDropped(operation);
+                continue;
+            }
+            send(report, operation, intended);
+        }
+        if (!inFlight.tryAcquire(options.maxInFlight(), DRAIN_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new IllegalStateException(String.format("Responses not received within %s", DRAIN_TIMEOUT));
+        }
+        inFlight.release(options.maxInFlight());
+        if (staller != null) {
+            staller.join();
+        }
+    }
+
+    private Thread startStall(long at, Duration stall) {
+        var staller = new Thread(() -> {
+            LockSupport.parkNanos(at - System.nanoTime());
+            try {
+                taskira.lockTasks(stall);
+            } catch (SQLException | InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }, "load-test-stall");
+        staller.setDaemon(true);
+        staller.start();
+        return staller;
+    }
+
+    private void send(LoadTestReport report, Operation operation, long intended) {
+        HttpRequest request;
+        Long deletedId = null;
+        if (operation == Operation.DELETE && (deletedId = createdIds.poll()) == null) {
+            // Созданных тестом Задач еще нет, вместо удаления выполняется обновление
+            operation = Operation.UPDATE;
+        }
+        try {
+            request = switch (operation) {
+                case GET -> HttpRequest.newBuilder(taskUri(randomId())).GET().build();
+                case LIST -> HttpRequest.newBuilder(listUri()).GET().build();
+                case CREATE -> jsonRequest(tasksUri).POST(body(createParam())).build();
+                case UPDATE -> jsonRequest(taskUri(randomId())).PUT(body(updateParam())).build();
+                case DELETE -> HttpRequest.newBuilder(taskUri(deletedId)).DELETE().build();
+            };
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        var sent = operation;
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - intended;
+                    try {
+                        if (error != null) {
+                            report.recordFailure(sent, latency, error.getCause() != null ? error.getCause() : error);
+                        } else {
+                            report.recordResponse(sent, latency, response.statusCode());
+                            if (sent == Operation.CREATE && response.statusCode() == 200) {
+                                createdIds.add(readId(response.body()));
+                            }
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+    }
+
+    private long firstId(String direction) throws IOException, InterruptedException {
+        var uri = URI.create(tasksUri + "?page=0&size=1&property=id&totalMode=NONE&direction=" + direction);
+        var response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(String.format("GET %s returned %d", uri, response.statusCode()));
+        }
+        var content = objectMapper.readTree(response.body()).path("content");
+        if (content.isEmpty()) {
+            throw new IllegalStateException("No tasks to load test against");
+        }
+        return content.get(0).get("id").asLong();
+    }
+
+    private long readId(String body) {
+        try {
+            return objectMapper.readTree(body).get("id").asLong();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+    }
+
+    private URI taskUri(long id) {
+        return URI.create(tasksUri + "/" + id);
+    }
+
+    private URI listUri() {
+        int page = ThreadLocalRandom.current().nextInt(LIST_PAGES);
+        return URI.create(tasksUri + "?page=" + page + "&size=" + LIST_SIZE
+                + "&property=dueDate&direction=ASC&totalMode=NONE");
+    }
+
+    private static HttpRequest.Builder jsonRequest(URI uri) {
+        return HttpRequest.newBuilder(uri).header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher body(Object param) throws JsonProcessingException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(param));
+    }
+
+    private static TaskCreateParam createParam() {
+        var param = new TaskCreateParam();
+        fill(param);
+        return param;
+    }
+
+    private static TaskUpdateParam updateParam() {
+        var param = new TaskUpdateParam();
+        fill(param);
+        param.setCompleted(ThreadLocalRandom.current().nextBoolean());
+        return param;
+    }
+
+    private static void fill(TaskCreateParam param) {
+        int n = ThreadLocalRandom.current().nextInt(1_000_000);
+        param.setTitle("Нагрузочная задача " + n);
+        param.setDescription("Описание нагрузочной задачи " + n);
+        param.setDueDate(Instant.now().plus(Duration.ofDays(n % 30)));
+    }
+
+    /**
+     * Раскладывает веса по таблице, из которой операция выбирается одним случайным индексом.
+     */
+    private static Operation[] schedule(Map<Operation, Integer> mix) {
+        return mix.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+    }
+
+}
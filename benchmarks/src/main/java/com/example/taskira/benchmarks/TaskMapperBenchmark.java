@@ -0,0 +1,68 @@
+package com.example.taskira.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+
+import com.example.taskira.dto.out.PageResponse;
+import com.example.taskira.dto.out.TaskResponse;
+import com.example.taskira.mapper.TaskMapper;
+import com.example.taskira.pagination.TotalMode;
+import com.example.taskira.repository.entity.TaskEntity;
+
+/**
+ * Маппинг MapStruct: одна Задача и страница Задач в ответ API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskMapperBenchmark {
+
+    private final TaskEntity task = BenchmarkData.entities(1).get(0);
+
+    @State(Scope.Benchmark)
+    public static class PageState {
+
+        @Param({"20", "1000"})
+        private int pageSize;
+
+        private Page<TaskEntity> page;
+
+        @Setup
+        public void setUp() {
+            page = BenchmarkData.page(pageSize);
+        }
+
+    }
+
+    @Benchmark
+    public TaskResponse toTaskResponse() {
+        return TaskMapper.INSTANCE.toTaskResponse(task);
+    }
+
+    @Benchmark
+    public List<TaskResponse> toTaskResponses(PageState state) {
+        return TaskMapper.INSTANCE.toTaskResponses(state.page.getContent());
+    }
+
+    @Benchmark
+    public PageResponse<TaskResponse> toPageResponse(PageState state) {
+        return TaskMapper.INSTANCE.toPageResponse(state.page, TotalMode.EXACT);
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.example.taskira.benchmarks;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.taskira.dto.in.PageRequestParam;
+import com.example.taskira.dto.in.TaskUpdateParam;
+import com.example.taskira.dto.out.PageResponse;
+import com.example.taskira.dto.out.TaskResponse;
+import com.example.taskira.pagination.TotalMode;
+import com.example.taskira.repository.entity.TaskEntity;
+import com.example.taskira.service.TaskService;
+import com.example.taskira.service.TaskWebFacade;
+
+/**
+ * Цепочка TaskWebFacadeImpl -> TaskServiceImpl с прокси валидации и транзакций поверх встроенного Postgres.
+ * {@code serviceFindById} вызывает сервис напрямую и показывает, сколько стоит слой фасада.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TaskWebFacadeBenchmark {
+
+    @Param({"true", "false"})
+    private boolean cacheEnabled;
+
+    @Param({"100000"})
+    private int taskCount;
+
+    /**
+     * Чтения по id выбирают Задачи из первых hotTasks, чтобы с включенным кэшем измерялся путь попадания.
+     */
+    @Param({"1000"})
+    private int hotTasks;
+
+    private EmbeddedTaskira taskira;
+    private TaskWebFacade webFacade;
+    private TaskService taskService;
+    private long minId;
+    private long maxId;
+    private PageRequestParam pageParam;
+    private TaskUpdateParam updateParam;
+
+    @Setup
+    public void setUp() throws IOException {
+        taskira = EmbeddedTaskira.start(taskCount, Map.of("taskira.cache.enabled", cacheEnabled));
+        webFacade = taskira.getBean(TaskWebFacade.class);
+        taskService = taskira.getBean(TaskService.class);
+        var jdbcTemplate = taskira.getBean(JdbcTemplate.class);
+        minId = jdbcTemplate.queryForObject("SELECT min(id) FROM task", Long.class);
+        maxId = jdbcTemplate.queryForObject("SELECT max(id) FROM task", Long.class);
+
+        pageParam = new PageRequestParam();
+        pageParam.setSize(20);
+        pageParam.setProperty("dueDate");
+        pageParam.setDirection(Sort.Direction.ASC);
+        pageParam.setTotalMode(TotalMode.NONE);
+        pageParam.setCompleted(false);
+
+        updateParam = new TaskUpdateParam();
+        updateParam.setTitle("Обновленная задача");
+        updateParam.setDescription("Обновленное описание");
+        updateParam.setDueDate(Instant.parse("2030-01-01T00:00:00Z"));
+        updateParam.setCompleted(false);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        taskira.close();
+    }
+
+    @Benchmark
+    public TaskResponse findById() {
+        return webFacade.findById(randomHotId());
+    }
+
+    @Benchmark
+    public TaskEntity serviceFindById() {
+        return taskService.findById(randomHotId());
+    }
+
+    @Benchmark
+    public PageResponse<TaskResponse> findTasks() {
+        return webFacade.findTasks(pageParam);
+    }
+
+    @Benchmark
+    public TaskResponse update() {
+        return webFacade.update(randomId(), updateParam, null);
+    }
+
+    private long randomHotId() {
+        return ThreadLocalRandom.current().nextLong(minId, Math.min(minId + hotTasks, maxId + 1));
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.example.taskira.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.taskira.dto.out.PageResponse;
+import com.example.taskira.dto.out.TaskResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Страница Задач в JSON, Smile и CBOR с настройками, как в WireFormatConfig: время записи и чтения,
+ * размер тела печатается при подготовке каждого варианта.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskWireFormatBenchmark {
+
+    /**
+     * Форматы, которые согласовывает TaskController. Двоичные передают даты числом, JSON - строкой ISO-8601.
+     */
+    public enum WireFormat {
+        JSON, SMILE, CBOR;
+
+        ObjectMapper objectMapper() {
+            return switch (this) {
+                case JSON -> BenchmarkData.objectMapper();
+                case SMILE -> Jackson2ObjectMapperBuilder.smile().build();
+                case CBOR -> Jackson2ObjectMapperBuilder.cbor().build();
+            };
+        }
+    }
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private WireFormat format;
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    private PageResponse<TaskResponse> page;
+    private byte[] payload;
+    private ObjectWriter pageWriter;
+    private ObjectReader pageReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        var objectMapper = format.objectMapper();
+        var type = new TypeReference<PageResponse<TaskResponse>>() { };
+        page = BenchmarkData.pageResponse(pageSize);
+        pageWriter = objectMapper.writerFor(type);
+        pageReader = objectMapper.readerFor(type);
+        payload = pageWriter.writeValueAsBytes(page);
+        System.out.printf("%n%s, %d tasks: %d bytes%n", format, pageSize, payload.length);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws IOException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageResponse<TaskResponse> readPage() throws IOException {
+        return pageReader.readValue(payload);
+    }
+
+}
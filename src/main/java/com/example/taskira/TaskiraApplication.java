@@ -1,13 +1,47 @@
 package com.example.taskira;
 
+import java.util.Arrays;
+
+import org.springframework.aot.AotDetector;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.example.taskira.importer.TaskImportRunner;
 
 @SpringBootApplication
+@EnableScheduling
+@ConfigurationPropertiesScan
 public class TaskiraApplication {
 
+	/**
+	 * Режим миграции: {@code java -jar taskira.jar --migrate} обновляет схему Liquibase и завершается,
+	 * см. application-migrate.yaml. Тогда обслуживающие узлы могут стартовать без Liquibase (профиль fast-startup).
+	 */
+	public static final String MIGRATE_ARGUMENT = "--migrate";
+	public static final String MIGRATE_PROFILE = "migrate";
+
 	public static void main(String[] args) {
-		SpringApplication.run(TaskiraApplication.class, args);
+		var application = new SpringApplication(TaskiraApplication.class);
+		// Режим загрузки из файла: без веб-сервера, после загрузки приложение завершается
+		var importMode = Arrays.stream(args).anyMatch(arg -> arg.startsWith(TaskImportRunner.FILE_ARGUMENT));
+		var migrateMode = Arrays.asList(args).contains(MIGRATE_ARGUMENT);
+		if (migrateMode) {
+			// В AOT-сборке набор бинов зафиксирован при сборке без Liquibase, миграция молча бы не выполнилась
+			if (AotDetector.useGeneratedArtifacts()) {
+				throw new IllegalStateException(MIGRATE_ARGUMENT + " is not supported with -Dspring.aot.enabled=true");
+			}
+			application.setAdditionalProfiles(MIGRATE_PROFILE);
+		}
+		if (importMode || migrateMode) {
+			application.setWebApplicationType(WebApplicationType.NONE);
+		}
+		var context = application.run(args);
+		if (importMode || migrateMode) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -0,0 +1,20 @@
+package com.example.taskira.archive;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled   переносить завершенные Задачи в архив на этом узле
+ * @param age       насколько срок завершенной Задачи должен отстать от текущего времени для переноса
+ * @param chunkSize Задач в одной порции и одной транзакции
+ * @param interval  пауза между проходами; проход продолжается, пока порции заполняются целиком
+ */
+@ConfigurationProperties(prefix = "taskira.archive")
+public record ArchiveProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("P90D") Duration age,
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("PT1M") Duration interval) {
+}
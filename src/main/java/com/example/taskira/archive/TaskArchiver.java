@@ -0,0 +1,56 @@
+package com.example.taskira.archive;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.taskira.job.ChunkedTaskJob;
+import com.example.taskira.service.TaskService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Переносит завершенные Задачи со сроком старше age из task в task_archive порциями, каждая порция
+ * в своей транзакции. Так в task и ее индексах остаются в основном открытые и недавние Задачи, и их размер
+ * не растет вместе с историей. Как и {@link com.example.taskira.overdue.OverdueTaskProcessor}, может работать
+ * на нескольких узлах: порции захватываются через {@code SKIP LOCKED}.
+ * <p>
+ * Метрики: {@code taskira.archive.archived} - кол-во перенесенных Задач, {@code taskira.archive.chunk} - время
+ * переноса порции, {@code taskira.archive.lag} - насколько срок самой старой ожидающей переноса Задачи
+ * старше границы архивации.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "taskira.archive", name = "enabled", havingValue = "true")
+public class TaskArchiver {
+
+    private final Duration age;
+    private final ChunkedTaskJob job;
+
+    public TaskArchiver(TaskService taskService, ArchiveProperties properties, MeterRegistry meterRegistry) {
+        this.age = properties.age();
+        this.job = new ChunkedTaskJob("taskira.archive", "archived", properties.chunkSize(),
+                taskService::archiveCompleted, taskService::findOldestArchivableDueDate, meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${taskira.archive.interval:PT1M}")
+    public void archive() {
+        var dueBefore = Instant.now().minus(age).truncatedTo(ChronoUnit.MICROS);
+        var archived = job.run(dueBefore);
+        if (archived > 0) {
+            log.info("Archived {} completed tasks due before {}", archived, dueBefore);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        job.stop();
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.example.taskira.cache;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Держит отдельное соединение с {@code LISTEN} на канал инвалидаций и сбрасывает локальный кэш Задач
+ * по сообщениям других экземпляров. Соединение не берется из пула, чтобы не занимать его постоянно.
+ * <p>
+ * Пока соединения нет, сообщения теряются, поэтому после каждого (пере)подключения кэш сбрасывается целиком.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "taskira.cache.invalidation", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class PgNotifyTaskInvalidationListener implements SmartLifecycle {
+
+    private final TaskCache taskCache;
+    private final TaskCacheProperties properties;
+    private final DataSourceProperties dataSourceProperties;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "task-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeQuietly(connection);
+        thread.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        var invalidation = properties.invalidation();
+        while (running) {
+            try (var listenConnection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                connection = listenConnection;
+                try (var statement = listenConnection.createStatement()) {
+                    statement.execute("LISTEN " + invalidation.channel());
+                }
+                taskCache.clear();
+                log.info("Listening for task cache invalidations on channel {}", invalidation.channel());
+
+                var pgConnection = listenConnection.unwrap(PGConnection.class);
+                while (running) {
+                    apply(pgConnection.getNotifications((int) invalidation.pollTimeout().toMillis()));
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Task cache invalidation listener disconnected, reconnecting in {}",
+                        invalidation.reconnectDelay(), e);
+                taskCache.clear();
+                sleep(invalidation.reconnectDelay().toMillis());
+            }
+        }
+    }
+
+    private void apply(PGNotification[] notifications) {
+        if (notifications == null) {
+            return;
+        }
+        // Все сообщения, накопившиеся за один опрос, применяются пачкой
+        for (var notification : notifications) {
+            TaskInvalidationMessage.apply(notification.getParameter(), taskCache);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close task cache invalidation connection", e);
+        }
+    }
+
+}
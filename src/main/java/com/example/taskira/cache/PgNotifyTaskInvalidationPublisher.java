@@ -0,0 +1,47 @@
+package com.example.taskira.cache;
+
+import java.util.Collection;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Публикует инвалидации через {@code pg_notify} в текущей транзакции: Postgres доставит их слушателям
+ * только после фиксации и не доставит при откате.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "taskira.cache.invalidation", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class PgNotifyTaskInvalidationPublisher implements TaskInvalidationPublisher {
+
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+    private static final ResultSetExtractor<Void> IGNORE_RESULT = rs -> null;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskCacheProperties properties;
+
+    @Override
+    public void publishUpdated(Long id, long version) {
+        notify(TaskInvalidationMessage.updated(id, version));
+    }
+
+    @Override
+    public void publishDeleted(Collection<Long> ids) {
+        TaskInvalidationMessage.deleted(ids).forEach(this::notify);
+    }
+
+    @Override
+    public void publishAll() {
+        notify(TaskInvalidationMessage.ALL);
+    }
+
+    private void notify(String payload) {
+        jdbcTemplate.query(NOTIFY_SQL, IGNORE_RESULT, properties.invalidation().channel(), payload);
+    }
+
+}
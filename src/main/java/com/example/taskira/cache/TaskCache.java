@@ -0,0 +1,216 @@
+package com.example.taskira.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.taskira.datasource.ConsistencyToken;
+import com.example.taskira.datasource.ReplicaRoutingDataSource;
+import com.example.taskira.repository.entity.TaskEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Ограниченный по размеру и времени жизни кэш снимков Задач в памяти процесса.
+ * Метрики попаданий, промахов и вытеснений публикуются как cache.* с тегом cache=task.
+ * <p>
+ * Запись в кэш монотонна по версии: снимок с меньшей версией не заменяет более новый. Когда записи в кэше нет
+ * (Задачу только что удалили или сбросили), сравнивать не с чем: чтение, начатое до фиксации удаления, вернуло бы
+ * удаленную Задачу в кэш до истечения ttl. Поэтому чтение берет {@link #readStamp()} до обращения к БД, а каждый
+ * сброс оставляет надгробие с моментом сброса на tombstone-ttl: снимок, прочитанный раньше сброса, в кэш
+ * не попадает. Надгробие от сообщения другого узла о новой версии отклоняет только более старые снимки.
+ * Чтение дольше tombstone-ttl так проверить нельзя, его результат тоже не кэшируется.
+ * <p>
+ * Снимки, прочитанные с реплики, в кэш не кладутся: реплика может отставать на max-lag, и сброшенная инвалидацией
+ * запись вернулась бы в кэш старой версией на весь ttl. Запросы с {@link ConsistencyToken} читают мимо кэша:
+ * инвалидация от записи на другом узле может прийти позже следующего чтения клиента.
+ * <p>
+ * Изменения, сделанные в транзакции, дополнительно публикуются через {@link TaskInvalidationPublisher},
+ * чтобы другие экземпляры приложения сбросили свои копии.
+ */
+@Component
+public class TaskCache {
+
+    static final String CACHE_NAME = "task";
+
+    private final boolean enabled;
+    private final Cache<Long, TaskSnapshot> cache;
+    private final Cache<Long, Tombstone> tombstones;
+    private final long tombstoneTtlNanos;
+    private final Optional<TaskInvalidationPublisher> invalidationPublisher;
+    private volatile long clearedAt = System.nanoTime();
+
+    public TaskCache(TaskCacheProperties properties, MeterRegistry meterRegistry,
+            Optional<TaskInvalidationPublisher> invalidationPublisher) {
+        this.enabled = properties.enabled();
+        this.invalidationPublisher = invalidationPublisher;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        this.tombstones = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.tombstoneTtl())
+                .build();
+        this.tombstoneTtlNanos = properties.tombstoneTtl().toNanos();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<TaskSnapshot> get(Long id) {
+        if (!enabled || ConsistencyToken.requiredLsn() != 0) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    /**
+     * Отметка начала чтения для {@link #put(TaskEntity, long)}, берется до обращения к БД.
+     */
+    public long readStamp() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Кладет снимок, если он прочитан с основной БД, после readStamp Задача не сбрасывалась и в кэше нет
+     * более новой версии.
+     */
+    public void put(TaskEntity task, long readStamp) {
+        if (!enabled || System.nanoTime() - readStamp > tombstoneTtlNanos || readStamp - clearedAt <= 0
+                || ReplicaRoutingDataSource.isCurrentTransactionOnReplica()) {
+            return;
+        }
+        var snapshot = TaskSnapshot.of(task);
+        // Надгробие ставится и проверяется под блокировкой ключа, поэтому сброс не может вклиниться между ними
+        cache.asMap().compute(snapshot.id(), (id, current) -> {
+            var tombstone = tombstones.getIfPresent(id);
+            if (tombstone != null && tombstone.rejects(snapshot.version(), readStamp)) {
+                return current;
+            }
+            return current == null || snapshot.version() >= current.version() ? snapshot : current;
+        });
+        // clear() не блокирует ключи: если он пришелся на запись, снимок убирается здесь
+        if (readStamp - clearedAt <= 0) {
+            cache.asMap().remove(snapshot.id(), snapshot);
+        }
+    }
+
+    /**
+     * Сбрасывает Задачу и оставляет надгробие: чтения, начатые до этого момента, ее в кэш не вернут.
+     */
+    public void evict(Long id) {
+        cache.asMap().compute(id, (key, current) -> {
+            addTombstone(key, Long.MAX_VALUE);
+            return null;
+        });
+    }
+
+    /**
+     * Сбрасывает Задачу, только если в кэше лежит версия старее указанной. Если Задачи в кэше нет, надгробие
+     * все равно остается: промах, уже читающий Задачу на этом узле, мог получить состояние до фиксации.
+     */
+    public void evictIfOlder(Long id, long version) {
+        cache.asMap().compute(id, (key, current) -> {
+            addTombstone(key, version);
+            return current != null && current.version() < version ? null : current;
+        });
+    }
+
+    /**
+     * Сбрасывает Задачу сразу и кладет новое состояние после фиксации транзакции. Отметка берется перед
+     * фиксацией, пока строка заблокирована: удаление, зафиксированное следом, оставит более позднее надгробие.
+     */
+    public void putAfterCommit(TaskEntity task) {
+        evict(task.getId());
+        invalidationPublisher.ifPresent(publisher -> publisher.publishUpdated(task.getId(), task.getVersion()));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(task, readStamp());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private long beforeCommit;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                beforeCommit = readStamp();
+            }
+
+            @Override
+            public void afterCommit() {
+                put(task, beforeCommit);
+            }
+        });
+    }
+
+    public void evictAfterCommit(Long id) {
+        evict(id);
+        invalidationPublisher.ifPresent(publisher -> publisher.publishDeleted(List.of(id)));
+        afterCommit(() -> evict(id));
+    }
+
+    public void evictAllAfterCommit(Collection<Long> ids) {
+        ids.forEach(this::evict);
+        invalidationPublisher.ifPresent(publisher -> publisher.publishDeleted(ids));
+        afterCommit(() -> ids.forEach(this::evict));
+    }
+
+    /**
+     * Сбрасывает весь кэш на этом и на остальных экземплярах приложения.
+     */
+    public void invalidateAll() {
+        clear();
+        invalidationPublisher.ifPresent(TaskInvalidationPublisher::publishAll);
+    }
+
+    /**
+     * Сбрасывает весь кэш только на этом экземпляре.
+     */
+    public void clear() {
+        clearedAt = System.nanoTime();
+        cache.invalidateAll();
+    }
+
+    private void addTombstone(Long id, long minVersion) {
+        tombstones.asMap().merge(id, new Tombstone(System.nanoTime(), minVersion), Tombstone::merge);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * @param evictedAt  момент сброса по {@link System#nanoTime()}
+     * @param minVersion версия, которую должен иметь снимок, прочитанный до сброса; для удаления - без ограничения
+     */
+    private record Tombstone(long evictedAt, long minVersion) {
+
+        boolean rejects(long version, long readStamp) {
+            return readStamp - evictedAt <= 0 && version < minVersion;
+        }
+
+        Tombstone merge(Tombstone other) {
+            // Значения nanoTime сравниваются только через разность
+            return new Tombstone(evictedAt - other.evictedAt >= 0 ? evictedAt : other.evictedAt,
+                    Math.max(minVersion, other.minVersion));
+        }
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.example.taskira.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled      включен ли кэш Задач
+ * @param maximumSize  максимальное кол-во Задач в кэше
+ * @param ttl          время жизни записи с момента записи в кэш
+ * @param tombstoneTtl сколько помнить сброс Задачи; чтение дольше этого в кэш не попадает
+ * @param invalidation межузловая инвалидация через LISTEN/NOTIFY
+ */
+@ConfigurationProperties(prefix = "taskira.cache")
+public record TaskCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") long maximumSize,
+        @DefaultValue("PT5M") Duration ttl,
+        @DefaultValue("PT30S") Duration tombstoneTtl,
+        @DefaultValue Invalidation invalidation) {
+
+    /**
+     * @param enabled        публиковать и слушать инвалидации
+     * @param channel        канал NOTIFY
+     * @param pollTimeout    максимальное ожидание сообщений за один опрос соединения
+     * @param reconnectDelay пауза перед переподключением после обрыва
+     */
+    public record Invalidation(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("task_invalidation") String channel,
+            @DefaultValue("PT1S") Duration pollTimeout,
+            @DefaultValue("PT5S") Duration reconnectDelay) {
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.taskira.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Компактный формат сообщений об инвалидации: элементы через запятую,
+ * {@code id:version} - Задача изменена, {@code id} - Задача удалена или изменена массово, {@code *} - сбросить все.
+ */
+final class TaskInvalidationMessage {
+
+    static final String ALL = "*";
+    static final int MAX_PAYLOAD_LENGTH = 7900;
+
+    private static final String ITEM_SEPARATOR = ",";
+    private static final String VERSION_SEPARATOR = ":";
+
+    private TaskInvalidationMessage() {
+    }
+
+    static String updated(Long id, long version) {
+        return id + VERSION_SEPARATOR + version;
+    }
+
+    /**
+     * Разбивает идентификаторы на сообщения, каждое из которых помещается в payload NOTIFY (до 8000 байт).
+     */
+    static List<String> deleted(Collection<Long> ids) {
+        var payloads = new ArrayList<String>();
+        var payload = new StringBuilder();
+        for (var id : ids) {
+            var item = String.valueOf(id);
+            if (payload.length() + item.length() + 1 > MAX_PAYLOAD_LENGTH) {
+                payloads.add(payload.toString());
+                payload.setLength(0);
+            }
+            if (!payload.isEmpty()) {
+                payload.append(ITEM_SEPARATOR);
+            }
+            payload.append(item);
+        }
+        if (!payload.isEmpty()) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    static void apply(String payload, TaskCache taskCache) {
+        for (var item : payload.split(ITEM_SEPARATOR)) {
+            if (item.equals(ALL)) {
+                taskCache.clear();
+                return;
+            }
+            var parts = item.split(VERSION_SEPARATOR);
+            var id = Long.valueOf(parts[0]);
+            if (parts.length == 1) {
+                taskCache.evict(id);
+            } else {
+                taskCache.evictIfOlder(id, Long.parseLong(parts[1]));
+            }
+        }
+    }
+
+}
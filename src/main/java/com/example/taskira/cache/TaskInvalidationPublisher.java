@@ -0,0 +1,17 @@
+package com.example.taskira.cache;
+
+import java.util.Collection;
+
+/**
+ * Рассылает другим экземплярам приложения сообщения о том, что их локальный кэш Задач устарел.
+ * Вызывается внутри пишущей транзакции, сообщения доставляются только после ее фиксации.
+ */
+public interface TaskInvalidationPublisher {
+
+    void publishUpdated(Long id, long version);
+
+    void publishDeleted(Collection<Long> ids);
+
+    void publishAll();
+
+}
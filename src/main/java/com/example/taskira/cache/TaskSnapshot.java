@@ -0,0 +1,30 @@
+package com.example.taskira.cache;
+
+import java.time.Instant;
+
+import com.example.taskira.repository.entity.TaskEntity;
+
+/**
+ * Неизменяемый снимок состояния Задачи для кэша. Управляемые сущности в кэш не попадают.
+ */
+public record TaskSnapshot(Long id, String title, String description, Instant dueDate, boolean completed,
+        Instant overdueAt, long version) {
+
+    public static TaskSnapshot of(TaskEntity task) {
+        return new TaskSnapshot(task.getId(), task.getTitle(), task.getDescription(), task.getDueDate(),
+                task.isCompleted(), task.getOverdueAt(), task.getVersion());
+    }
+
+    public TaskEntity toEntity() {
+        var task = new TaskEntity();
+        task.setId(id);
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setDueDate(dueDate);
+        task.setCompleted(completed);
+        task.setOverdueAt(overdueAt);
+        task.setVersion(version);
+        return task;
+    }
+
+}
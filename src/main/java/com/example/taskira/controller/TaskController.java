@@ -1,6 +1,15 @@
 package com.example.taskira.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,14 +17,30 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.example.taskira.dto.in.CursorPageRequestParam;
 import com.example.taskira.dto.in.PageRequestParam;
 import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.in.TaskDeleteCompletedParam;
+import com.example.taskira.dto.in.TaskDueDateShiftParam;
+import com.example.taskira.dto.in.TaskExportParam;
+import com.example.taskira.dto.in.TaskIdsParam;
+import com.example.taskira.dto.in.TaskSearchParam;
 import com.example.taskira.dto.in.TaskUpdateParam;
+import com.example.taskira.dto.out.CursorPageResponse;
 import com.example.taskira.dto.out.PageResponse;
+import com.example.taskira.dto.out.TaskBatchResponse;
+import com.example.taskira.dto.out.TaskBulkResponse;
+import com.example.taskira.dto.out.TaskImportResponse;
 import com.example.taskira.dto.out.TaskResponse;
+import com.example.taskira.etag.TaskETags;
+import com.example.taskira.importer.TaskImportFormat;
 import com.example.taskira.service.TaskWebFacade;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,41 +56,166 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class TaskController {
 
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+
     private final TaskWebFacade webFacade;
 
     @NotNull
     @Operation(summary = "Получить список Задач")
     @GetMapping
-    public PageResponse<TaskResponse> findTasks(@ParameterObject PageRequestParam param) {
-        return webFacade.findTasks(param);
+    public ResponseEntity<PageResponse<TaskResponse>> findTasks(@Valid @ParameterObject PageRequestParam param) {
+        var page = webFacade.findTasks(param);
+        // При совпадении If-None-Match ответ 304 формируется без сериализации тела
+        return ResponseEntity.ok()
+                .eTag(TaskETags.of(page.getContent(), page.getNumber(), page.getTotalElements(), page.isHasNext()))
+                .body(page);
+    }
+
+    @NotNull
+    @Operation(summary = "Получить список Задач по курсору")
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponse<TaskResponse>> findTasksByCursor(
+            @Valid @ParameterObject CursorPageRequestParam param) {
+        var page = webFacade.findTasks(param);
+        return ResponseEntity.ok()
+                .eTag(TaskETags.of(page.getContent(), page.getNextCursor()))
+                .body(page);
+    }
+
+    @NotNull
+    @Operation(summary = "Найти Задачи по словам в заголовке и описании")
+    @GetMapping("/search")
+    public ResponseEntity<PageResponse<TaskResponse>> searchTasks(@Valid @ParameterObject TaskSearchParam param) {
+        var page = webFacade.searchTasks(param);
+        return ResponseEntity.ok()
+                .eTag(TaskETags.of(page.getContent(), page.getNumber(), page.isHasNext(), page.getTruncated()))
+                .body(page);
+    }
+
+    @NotNull
+    @Operation(summary = "Выгрузить все Задачи потоком в NDJSON или CSV")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@Valid @ParameterObject TaskExportParam param) {
+        var body = webFacade.exportTasks(param);
+        var format = param.getFormat();
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("tasks." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @NotNull
+    @Operation(summary = "Загрузить Задачи из NDJSON или CSV через COPY")
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv", "application/octet-stream"})
+    public TaskImportResponse importTasks(@RequestParam(defaultValue = "NDJSON") TaskImportFormat format,
+            InputStream body) throws IOException {
+        return webFacade.importTasks(format, body);
     }
 
+    /**
+     * С {@code Prefer: respond-async} и включенной отложенной записью Задача ставится в очередь и возвращается
+     * с 202 до записи в БД, иначе предпочтение игнорируется и Задача создается сразу.
+     */
     @NotNull
     @Operation(summary = "Создать Задачу")
     @PostMapping
-    public TaskResponse createTask(@Valid @NotNull @RequestBody TaskCreateParam param) {
-        return webFacade.create(param);
+    public ResponseEntity<TaskResponse> createTask(@Valid @NotNull @RequestBody TaskCreateParam param,
+            @Nullable @RequestHeader(value = PREFER, required = false) String prefer) {
+        if (prefersRespondAsync(prefer)) {
+            var accepted = webFacade.createAsync(param);
+            if (accepted.isPresent()) {
+                var task = accepted.get();
+                return ResponseEntity.accepted()
+                        .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                                .path("/{id}")
+                                .buildAndExpand(task.getId())
+                                .toUri())
+                        .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                        .eTag(TaskETags.of(task.getVersion()))
+                        .body(task);
+            }
+        }
+        var task = webFacade.create(param);
+        return ResponseEntity.ok().eTag(TaskETags.of(task.getVersion())).body(task);
+    }
+
+    @NotNull
+    @Operation(summary = "Создать Задачи пакетом")
+    @PostMapping("/batch")
+    public TaskBatchResponse createTasks(@NotNull @RequestBody List<TaskCreateParam> params) {
+        return webFacade.createAll(params);
     }
 
     @NotNull
     @Operation(summary = "Найти Задачу")
     @GetMapping("/{id}")
-    public TaskResponse findById(@NotNull @PathVariable("id") Long id) {
-        return webFacade.findById(id);
+    public ResponseEntity<TaskResponse> findById(@NotNull @PathVariable("id") Long id,
+            @Nullable @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            // Проверка по одной версии, без чтения, маппинга и сериализации Задачи
+            var etag = TaskETags.of(webFacade.findVersion(id));
+            if (TaskETags.matchesNoneMatch(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        var task = webFacade.findById(id);
+        return ResponseEntity.ok().eTag(TaskETags.of(task.getVersion())).body(task);
     }
 
     @NotNull
     @Operation(summary = "Обновить Задачу")
     @PutMapping("/{id}")
-    public TaskResponse updateTask(@NotNull @PathVariable("id") Long id,
-            @Valid @NotNull @RequestBody TaskUpdateParam param) {
-        return webFacade.update(id, param);
+    public ResponseEntity<TaskResponse> updateTask(@NotNull @PathVariable("id") Long id,
+            @Valid @NotNull @RequestBody TaskUpdateParam param,
+            @Nullable @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var task = webFacade.update(id, param, TaskETags.expectedVersions(ifMatch));
+        return ResponseEntity.ok().eTag(TaskETags.of(task.getVersion())).body(task);
     }
 
     @Operation(summary = "Удалить Задачу")
     @DeleteMapping("/{id}")
-    public void deleteTask(@NotNull @PathVariable("id") Long id) {
-        webFacade.delete(id);
+    public void deleteTask(@NotNull @PathVariable("id") Long id,
+            @Nullable @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        webFacade.delete(id, TaskETags.expectedVersions(ifMatch));
+    }
+
+    @NotNull
+    @Operation(summary = "Отметить Задачи завершенными")
+    @PostMapping("/bulk/complete")
+    public TaskBulkResponse completeTasks(@Valid @NotNull @RequestBody TaskIdsParam param) {
+        return webFacade.completeAll(param);
+    }
+
+    @NotNull
+    @Operation(summary = "Сдвинуть дату завершения Задач")
+    @PostMapping("/bulk/shift-due-date")
+    public TaskBulkResponse shiftDueDate(@Valid @NotNull @RequestBody TaskDueDateShiftParam param) {
+        return webFacade.shiftDueDate(param);
+    }
+
+    @NotNull
+    @Operation(summary = "Удалить завершенные Задачи с датой завершения раньше указанной")
+    @PostMapping("/bulk/delete-completed")
+    public TaskBulkResponse deleteCompletedTasks(@Valid @NotNull @RequestBody TaskDeleteCompletedParam param) {
+        return webFacade.deleteCompleted(param);
+    }
+
+    private static boolean prefersRespondAsync(@Nullable String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (var preference : prefer.split(",")) {
+            // Параметры предпочтения после ";" не важны
+            if (preference.split(";")[0].strip().equalsIgnoreCase(RESPOND_ASYNC)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-}
\ No newline at end of file
+}
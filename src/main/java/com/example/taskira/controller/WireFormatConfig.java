@@ -0,0 +1,39 @@
+package com.example.taskira.controller;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Двоичные форматы тел запросов и ответов API в дополнение к JSON, выбираются по Accept и Content-Type:
+ * application/cbor и application/x-jackson-smile. JSON остается форматом по умолчанию.
+ * <p>
+ * Конвертеры заменяют стандартные конвертеры Spring MVC, чтобы использовать настройки Jackson приложения.
+ * В отличие от JSON даты передаются числом секунд с дробной частью до наносекунд: разбор строк ISO-8601
+ * занимает большую часть времени чтения страницы Задач.
+ */
+@Configuration(proxyBeanMethods = false)
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binary(builder.factory(new CBORFactory())));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binary(builder.factory(new SmileFactory())));
+    }
+
+    private static ObjectMapper binary(Jackson2ObjectMapperBuilder builder) {
+        return builder.featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.example.taskira.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.example.taskira.exception.DatabaseBusyException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Ограничивает кол-во одновременно выданных соединений пула справедливым семафором.
+ * Запросы сверх лимита ждут в очереди по порядку поступления не дольше queueTimeout; если очередь уже
+ * длиннее maxQueue или время ожидания истекло, соединение не выдается и запрос завершается 503.
+ * Так при замедлении БД запросы быстро отклоняются, а не копятся в ожидании пула до его connectionTimeout.
+ * Разрешение возвращается при закрытии соединения.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final String name;
+    private final Semaphore permits;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+    private final Counter rejected;
+
+    public BulkheadDataSource(DataSource target, String name, int maxConcurrent, int maxQueue, Duration queueTimeout,
+            MeterRegistry meterRegistry) {
+        super(target);
+        this.name = name;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxQueue = maxQueue;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.rejected = Counter.builder("taskira.datasource.bulkhead.rejected")
+                .tag("pool", name)
+                .register(meterRegistry);
+        Gauge.builder("taskira.datasource.bulkhead.available", permits, Semaphore::availablePermits)
+                .tag("pool", name)
+                .register(meterRegistry);
+        Gauge.builder("taskira.datasource.bulkhead.queued", permits, Semaphore::getQueueLength)
+                .tag("pool", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() {
+        // Длина очереди семафора приблизительна, поэтому лимит очереди мягкий
+        if (permits.getQueueLength() >= maxQueue) {
+            reject("queue is full");
+        }
+        try {
+            // tryAcquire с таймаутом, в отличие от tryAcquire(), соблюдает очередность справедливого семафора
+            if (!permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                reject("no connection became available in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject("interrupted while waiting for a connection");
+        }
+    }
+
+    private void reject(String reason) {
+        rejected.increment();
+        throw new DatabaseBusyException("Database pool " + name + " is busy: " + reason);
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        var released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if (method.getName().equals("close")) {
+                        // Повторное закрытие, как и в JDBC, ничего не делает
+                        if (released.compareAndSet(false, true)) {
+                            try {
+                                connection.close();
+                            } finally {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.example.taskira.datasource;
+
+import org.postgresql.replication.LogSequenceNumber;
+
+/**
+ * Токен согласованности "читаю свои записи": позиция WAL основной БД после фиксации записи.
+ * Клиент возвращает его в следующих запросах, и чтение уходит на основную БД,
+ * пока ни одна реплика не воспроизвела WAL до этой позиции.
+ */
+public final class ConsistencyToken {
+
+    public static final String HEADER = "X-Consistency-Token";
+
+    private static final ThreadLocal<Long> REQUIRED_LSN = new ThreadLocal<>();
+
+    private ConsistencyToken() {
+    }
+
+    /**
+     * @return позиция WAL, требуемая текущим запросом, или 0, если клиент токен не передал
+     */
+    public static long requiredLsn() {
+        var lsn = REQUIRED_LSN.get();
+        return lsn == null ? 0 : lsn;
+    }
+
+    static void require(long lsn) {
+        REQUIRED_LSN.set(lsn);
+    }
+
+    static void reset() {
+        REQUIRED_LSN.remove();
+    }
+
+    /**
+     * @throws IllegalArgumentException если токен не является позицией WAL вида {@code 16/B374D848}
+     */
+    static long parse(String token) {
+        var lsn = LogSequenceNumber.valueOf(token);
+        if (lsn == LogSequenceNumber.INVALID_LSN) {
+            throw new IllegalArgumentException("Invalid consistency token: " + token);
+        }
+        return lsn.asLong();
+    }
+
+    static String format(long lsn) {
+        return LogSequenceNumber.valueOf(lsn).asString();
+    }
+
+}
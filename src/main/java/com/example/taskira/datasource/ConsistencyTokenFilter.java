@@ -0,0 +1,41 @@
+package com.example.taskira.datasource;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Передает {@link ConsistencyToken} из заголовка запроса в маршрутизацию соединений на время запроса.
+ */
+@Component
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        var token = request.getHeader(ConsistencyToken.HEADER);
+        if (token == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try {
+            ConsistencyToken.require(ConsistencyToken.parse(token));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Некорректный " + ConsistencyToken.HEADER);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ConsistencyToken.reset();
+        }
+    }
+
+}
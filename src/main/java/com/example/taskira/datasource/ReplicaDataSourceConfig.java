@@ -0,0 +1,120 @@
+package com.example.taskira.datasource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.example.taskira.sql.RowCountingResultSetFactory;
+import com.example.taskira.sql.SqlStatementListener;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Пулы основной БД и реплик. Основной пул настраивается как обычно через spring.datasource,
+ * пулы реплик наследуют его настройки (схема, размер и т.п.) и отличаются только адресом.
+ * Остальное приложение получает {@link Primary} DataSource с маршрутизацией по readOnly транзакции,
+ * все запросы через него измеряются {@link SqlStatementListener}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ReplicaDataSourceConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        var dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaMonitor replicaMonitor(HikariDataSource primaryDataSource, DataSourceProperties dataSourceProperties,
+            ReplicaRoutingProperties properties, MeterRegistry meterRegistry) {
+        var replicas = properties.replicas();
+        List<DataSource> replicaDataSources = IntStream.range(0, replicas.size())
+                .mapToObj(i -> (DataSource) replicaDataSource(primaryDataSource, dataSourceProperties,
+                        replicas.get(i), ReplicaRoutingDataSource.replicaKey(i), meterRegistry))
+                .toList();
+        return new ReplicaMonitor(primaryDataSource, replicaDataSources, properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaMonitor replicaMonitor,
+            ReplicaRoutingProperties properties, SqlStatementListener sqlStatementListener,
+            MeterRegistry meterRegistry) {
+        var primary = bulkhead(primaryDataSource, ReplicaRoutingDataSource.PRIMARY_KEY, properties.bulkhead(),
+                meterRegistry);
+        var targets = new HashMap<Object, Object>();
+        targets.put(ReplicaRoutingDataSource.PRIMARY_KEY, primary);
+        replicaMonitor.dataSources().forEach((key, replica) ->
+                targets.put(key, bulkhead(replica, key, properties.bulkhead(), meterRegistry)));
+
+        var routing = new ReplicaRoutingDataSource(replicaMonitor);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        var measured = ProxyDataSourceBuilder.create("taskira", routing)
+                .listener(sqlStatementListener)
+                .proxyResultSet(new RowCountingResultSetFactory())
+                .build();
+        return new LazyConnectionDataSourceProxy(measured);
+    }
+
+    /**
+     * Мониторинг реплик обращается к пулам напрямую: проверка состояния не должна ждать в очереди bulkhead.
+     */
+    private static DataSource bulkhead(DataSource pool, String name, ReplicaRoutingProperties.Bulkhead bulkhead,
+            MeterRegistry meterRegistry) {
+        if (!bulkhead.enabled()) {
+            return pool;
+        }
+        var maxConcurrent = bulkhead.maxConcurrent() > 0
+                ? bulkhead.maxConcurrent()
+                : maximumPoolSize((HikariDataSource) pool);
+        return new BulkheadDataSource(pool, name, maxConcurrent, bulkhead.maxQueue(), bulkhead.queueTimeout(),
+                meterRegistry);
+    }
+
+    /**
+     * До старта пула незаданный размер равен -1, Hikari подставляет значение по умолчанию только при старте.
+     */
+    private static int maximumPoolSize(HikariDataSource pool) {
+        if (pool.getMaximumPoolSize() > 0) {
+            return pool.getMaximumPoolSize();
+        }
+        return pool.getMinimumIdle() > 0 ? pool.getMinimumIdle() : DEFAULT_POOL_SIZE;
+    }
+
+    /**
+     * Пулы реплик не являются бинами, поэтому метрики hikaricp.* подключаются к ним явно.
+     */
+    private static HikariDataSource replicaDataSource(HikariDataSource primaryDataSource,
+            DataSourceProperties dataSourceProperties, ReplicaRoutingProperties.Replica replica, String poolName,
+            MeterRegistry meterRegistry) {
+        var config = new HikariConfig();
+        primaryDataSource.copyStateTo(config);
+        config.setPoolName(poolName);
+        config.setJdbcUrl(replica.url());
+        config.setUsername(replica.username() != null ? replica.username() : dataSourceProperties.determineUsername());
+        config.setPassword(replica.password() != null ? replica.password() : dataSourceProperties.determinePassword());
+        config.setReadOnly(true);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.example.taskira.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Периодически проверяет реплики: доступность, воспроизведенную позицию WAL и отставание от основной БД.
+ * Реплика принимает чтение, только если она доступна и отстает не больше maxLag
+ * (либо уже воспроизвела весь WAL основной БД, что бывает при отсутствии записи).
+ */
+@Slf4j
+public class ReplicaMonitor implements AutoCloseable {
+
+    private static final String PRIMARY_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+    private static final String REPLICA_STATE_SQL = """
+            SELECT CASE WHEN pg_is_in_recovery() THEN pg_last_wal_replay_lsn() ELSE pg_current_wal_lsn() END::text,
+                   CASE WHEN pg_is_in_recovery()
+                        THEN COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                        ELSE 0 END
+            """;
+
+    private final JdbcTemplate primary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaMonitor(DataSource primary, List<DataSource> replicas, ReplicaRoutingProperties properties,
+            MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicas = IntStream.range(0, replicas.size())
+                .mapToObj(i -> new Replica(ReplicaRoutingDataSource.replicaKey(i), replicas.get(i)))
+                .toList();
+        this.maxLagSeconds = properties.maxLag().toMillis() / 1000.0;
+        this.replicas.forEach(replica -> {
+            Gauge.builder("taskira.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .tag("replica", replica.key)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("taskira.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.key)
+                    .register(meterRegistry);
+        });
+        check();
+    }
+
+    /**
+     * Выбирает по кругу здоровую реплику, воспроизведшую WAL не меньше requiredLsn.
+     */
+    public Optional<String> select(long requiredLsn) {
+        var size = replicas.size();
+        var start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            var replica = replicas.get((start + i) % size);
+            if (replica.healthy && replica.replayLsn >= requiredLsn) {
+                return Optional.of(replica.key);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Map<String, DataSource> dataSources() {
+        return replicas.stream().collect(Collectors.toMap(replica -> replica.key, replica -> replica.dataSource));
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    public long primaryLsn() {
+        return ConsistencyToken.parse(primary.queryForObject(PRIMARY_LSN_SQL, String.class));
+    }
+
+    /**
+     * Текущая позиция WAL через уже выданное соединение с основной БД.
+     */
+    static long primaryLsn(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement(); var rs = statement.executeQuery(PRIMARY_LSN_SQL)) {
+            rs.next();
+            return ConsistencyToken.parse(rs.getString(1));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${taskira.datasource.health-check-interval:PT5S}")
+    public void check() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        long primaryLsn;
+        try {
+            primaryLsn = primaryLsn();
+        } catch (RuntimeException e) {
+            log.warn("Failed to read primary WAL position", e);
+            primaryLsn = Long.MAX_VALUE;
+        }
+        for (var replica : replicas) {
+            check(replica, primaryLsn);
+        }
+    }
+
+    private void check(Replica replica, long primaryLsn) {
+        try {
+            replica.jdbcTemplate.query(REPLICA_STATE_SQL, rs -> {
+                replica.replayLsn = ConsistencyToken.parse(rs.getString(1));
+                replica.lagSeconds = rs.getDouble(2);
+            });
+            var healthy = replica.replayLsn >= primaryLsn || replica.lagSeconds <= maxLagSeconds;
+            if (healthy != replica.healthy) {
+                log.info("Replica {} is now {} (lag {}s)", replica.key, healthy ? "healthy" : "lagging",
+                        replica.lagSeconds);
+            }
+            replica.healthy = healthy;
+        } catch (RuntimeException e) {
+            if (replica.healthy) {
+                log.warn("Replica {} is unavailable", replica.key, e);
+            }
+            replica.healthy = false;
+        }
+    }
+
+    /**
+     * Закрывает пулы реплик: они не являются бинами, и контекст сам их не закроет.
+     */
+    @Override
+    public void close() throws Exception {
+        for (var replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String key;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private volatile boolean healthy;
+        private volatile long replayLsn;
+        private volatile double lagSeconds;
+
+        private Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+
+    }
+
+}
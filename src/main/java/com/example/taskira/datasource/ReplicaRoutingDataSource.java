@@ -0,0 +1,118 @@
+package com.example.taskira.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Направляет соединения read-only транзакций на реплики, а все остальные - на основную БД.
+ * Должен быть обернут в {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * тогда физическое соединение берется при первом запросе, когда признак readOnly транзакции уже выставлен.
+ * <p>
+ * Чтение остается на основной БД, если клиент передал {@link ConsistencyToken}, а ни одна здоровая реплика
+ * еще не догнала эту позицию WAL. Пишущие транзакции после фиксации возвращают клиенту новый токен.
+ * <p>
+ * Транзакция, чтение которой ушло на реплику, отмечается: см. {@link #isCurrentTransactionOnReplica()}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY_KEY = "primary";
+
+    private static final String REPLICA_READ_RESOURCE = ReplicaRoutingDataSource.class.getName() + ".replicaRead";
+
+    private final ReplicaMonitor replicaMonitor;
+
+    static String replicaKey(int index) {
+        return "replica-" + index;
+    }
+
+    /**
+     * @return читает ли текущая транзакция с реплики, т.е. может видеть состояние, отстающее до max-lag
+     */
+    public static boolean isCurrentTransactionOnReplica() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_READ_RESOURCE);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            var replica = replicaMonitor.select(ConsistencyToken.requiredLsn());
+            replica.ifPresent(key -> markReplicaRead());
+            return replica.orElse(PRIMARY_KEY);
+        }
+        return PRIMARY_KEY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        var connection = super.getConnection();
+        registerTokenCapture(connection);
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        var connection = super.getConnection(username, password);
+        registerTokenCapture(connection);
+        return connection;
+    }
+
+    private static void markReplicaRead() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(REPLICA_READ_RESOURCE)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(REPLICA_READ_RESOURCE, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ_RESOURCE);
+            }
+        });
+    }
+
+    /**
+     * Для пишущей транзакции запоминает позицию WAL после фиксации и отдает ее клиенту в заголовке ответа.
+     * Позиция читается через соединение самой транзакции: оно еще не возвращено в пул, а второе соединение
+     * при пуле, занятом целиком, пришлось бы ждать до connectionTimeout.
+     */
+    private void registerTokenCapture(Connection connection) {
+        if (!replicaMonitor.hasReplicas()
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                        && attributes.getResponse() != null && !attributes.getResponse().isCommitted()) {
+                    try {
+                        attributes.getResponse().setHeader(ConsistencyToken.HEADER,
+                                ConsistencyToken.format(ReplicaMonitor.primaryLsn(connection)));
+                    } catch (SQLException | RuntimeException e) {
+                        log.warn("Failed to read primary WAL position for consistency token", e);
+                    }
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReplicaRoutingDataSource.this);
+            }
+        });
+    }
+
+}
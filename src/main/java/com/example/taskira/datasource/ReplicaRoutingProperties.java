@@ -0,0 +1,43 @@
+package com.example.taskira.datasource;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param replicas            реплики для чтения; пустой список - все запросы идут в основную БД
+ * @param healthCheckInterval период проверки доступности и отставания реплик
+ * @param maxLag              максимальное отставание реплики, при котором она еще принимает чтение
+ * @param bulkhead            ограничение одновременных соединений перед каждым пулом
+ */
+@ConfigurationProperties(prefix = "taskira.datasource")
+public record ReplicaRoutingProperties(
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("PT5S") Duration healthCheckInterval,
+        @DefaultValue("PT10S") Duration maxLag,
+        @DefaultValue Bulkhead bulkhead) {
+
+    /**
+     * @param url      JDBC URL реплики
+     * @param username пользователь; если не задан, берется из spring.datasource
+     * @param password пароль; если не задан, берется из spring.datasource
+     */
+    public record Replica(String url, String username, String password) {
+    }
+
+    /**
+     * @param enabled       выдавать соединения через {@link BulkheadDataSource}
+     * @param maxConcurrent одновременно выданных соединений; 0 - по размеру пула
+     * @param maxQueue      запросов, ожидающих соединения, сверх которых новые отклоняются сразу
+     * @param queueTimeout  максимальное ожидание соединения в очереди
+     */
+    public record Bulkhead(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("0") int maxConcurrent,
+            @DefaultValue("200") int maxQueue,
+            @DefaultValue("PT1S") Duration queueTimeout) {
+    }
+
+}
@@ -3,29 +3,31 @@ package com.example.taskira.dto.in;
 import org.springframework.data.domain.Sort;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Positive;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
-@Schema(description = "Параметры для пагинации")
-public class PageRequestParam {
+@Schema(description = "Параметры для пагинации по курсору")
+public class CursorPageRequestParam extends TaskFilterParam {
 
-    @NotNull
-    @PositiveOrZero
-    @Schema(description = "Номер страницы")
-    private int page;
+    public static final int MAX_SIZE = 1000;
+
+    @Schema(description = "Курсор продолжения из предыдущего ответа, для первой страницы не передается")
+    private String cursor;
 
     @NotNull
-    @PositiveOrZero
+    @Positive
+    @Max(MAX_SIZE)
     @Schema(description = "Размер")
     private int size;
 
     @NotBlank
-    @Schema(description = "Поле для сортировки")
+    @Schema(description = "Поле для сортировки", allowableValues = {"id", "title", "dueDate", "completed"})
     private String property;
 
     @NotNull
@@ -0,0 +1,19 @@
+package com.example.taskira.dto.in;
+
+import java.time.Instant;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Schema(description = "Параметры для удаления завершенных Задач")
+public class TaskDeleteCompletedParam {
+
+    @NotNull
+    @Schema(description = "Удаляются завершенные Задачи с датой завершения раньше указанной")
+    private Instant dueBefore;
+
+}
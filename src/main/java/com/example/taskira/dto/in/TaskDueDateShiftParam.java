@@ -0,0 +1,19 @@
+package com.example.taskira.dto.in;
+
+import java.time.Duration;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Schema(description = "Параметры для сдвига даты завершения Задач")
+public class TaskDueDateShiftParam extends TaskIdsParam {
+
+    @NotNull
+    @Schema(description = "Сдвиг в формате ISO-8601, может быть отрицательным", example = "P1D")
+    private Duration shift;
+
+}
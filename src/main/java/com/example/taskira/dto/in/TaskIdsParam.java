@@ -0,0 +1,22 @@
+package com.example.taskira.dto.in;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Schema(description = "Идентификаторы Задач для массовой операции")
+public class TaskIdsParam {
+
+    @NotEmpty
+    @Size(max = 100_000)
+    @Schema(description = "Идентификаторы")
+    private List<@NotNull Long> ids;
+
+}
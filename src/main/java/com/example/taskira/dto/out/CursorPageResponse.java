@@ -0,0 +1,30 @@
+package com.example.taskira.dto.out;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Страница по курсору")
+public class CursorPageResponse<T> {
+
+    @NotNull
+    @Schema(description = "Контент")
+    private List<T> content;
+
+    @Schema(description = "Курсор следующей страницы, отсутствует на последней странице")
+    private String nextCursor;
+
+    @NotNull
+    @Schema(description = "Есть ли следующая страница")
+    private boolean hasNext;
+
+}
@@ -0,0 +1,30 @@
+package com.example.taskira.dto.out;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат создания одной Задачи из пакета")
+public class TaskBatchItemResponse {
+
+    @NotNull
+    @Schema(description = "Позиция во входном списке")
+    private int index;
+
+    @Schema(description = "Созданная Задача, отсутствует при ошибках")
+    private TaskResponse task;
+
+    @NotNull
+    @Schema(description = "Ошибки валидации")
+    private List<String> errors;
+
+}
@@ -0,0 +1,31 @@
+package com.example.taskira.dto.out;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат пакетного создания Задач")
+public class TaskBatchResponse {
+
+    @NotNull
+    @Schema(description = "Результаты в порядке входного списка")
+    private List<TaskBatchItemResponse> items;
+
+    @NotNull
+    @Schema(description = "Кол-во созданных Задач")
+    private int created;
+
+    @NotNull
+    @Schema(description = "Кол-во отклоненных Задач")
+    private int rejected;
+
+}
@@ -0,0 +1,21 @@
+package com.example.taskira.dto.out;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат массовой операции")
+public class TaskBulkResponse {
+
+    @NotNull
+    @Schema(description = "Кол-во затронутых Задач")
+    private long affected;
+
+}
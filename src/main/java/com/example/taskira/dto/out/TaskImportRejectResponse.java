@@ -0,0 +1,27 @@
+package com.example.taskira.dto.out;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Отклоненная при загрузке запись")
+public class TaskImportRejectResponse {
+
+    @NotNull
+    @Schema(description = "Номер строки, с которой начинается запись")
+    private long line;
+
+    @NotNull
+    @Schema(description = "Ошибки разбора и валидации")
+    private List<String> errors;
+
+}
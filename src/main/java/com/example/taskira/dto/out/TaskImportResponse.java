@@ -0,0 +1,31 @@
+package com.example.taskira.dto.out;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Результат загрузки Задач")
+public class TaskImportResponse {
+
+    @NotNull
+    @Schema(description = "Кол-во загруженных Задач")
+    private long imported;
+
+    @NotNull
+    @Schema(description = "Кол-во отклоненных записей")
+    private long rejected;
+
+    @NotNull
+    @Schema(description = "Первые отклоненные записи, не больше 1000")
+    private List<TaskImportRejectResponse> rejects;
+
+}
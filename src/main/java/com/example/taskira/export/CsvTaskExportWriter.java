@@ -0,0 +1,24 @@
+package com.example.taskira.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.example.taskira.dto.out.TaskResponse;
+
+class CsvTaskExportWriter extends TaskExportWriter {
+
+    CsvTaskExportWriter(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    protected void writeHeader() throws IOException {
+        writer.write(TaskCsv.HEADER);
+    }
+
+    @Override
+    protected void writeTask(TaskResponse task) throws IOException {
+        TaskCsv.write(writer, task);
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.example.taskira.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.example.taskira.dto.out.TaskResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+class NdjsonTaskExportWriter extends TaskExportWriter {
+
+    private final ObjectWriter objectWriter;
+    private final JsonGenerator generator;
+
+    NdjsonTaskExportWriter(OutputStream out, ObjectMapper objectMapper) {
+        super(out);
+        // Сброс буфера управляется TaskExportWriter, а не сериализацией каждой строки
+        this.objectWriter = objectMapper.writerFor(TaskResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try {
+            this.generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                    .setRootValueSeparator(null);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    protected void writeTask(TaskResponse task) throws IOException {
+        objectWriter.writeValue(generator, task);
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+
+}
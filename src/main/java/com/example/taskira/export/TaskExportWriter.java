@@ -0,0 +1,70 @@
+package com.example.taskira.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.example.taskira.dto.out.TaskResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Пишет Задачи в поток ответа по одной через буфер и сбрасывает его каждые {@link #FLUSH_EVERY} строк.
+ * Запись в поток сервлета блокируется, пока клиент не заберет отправленное, поэтому медленный клиент
+ * притормаживает чтение курсора из БД, а не накапливает строки в памяти.
+ */
+public abstract class TaskExportWriter {
+
+    static final int FLUSH_EVERY = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final Writer writer;
+    private long written;
+
+    protected TaskExportWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public static TaskExportWriter of(TaskExportFormat format, OutputStream out, ObjectMapper objectMapper) {
+        return switch (format) {
+            case NDJSON -> new NdjsonTaskExportWriter(out, objectMapper);
+            case CSV -> new CsvTaskExportWriter(out);
+        };
+    }
+
+    /**
+     * @throws UncheckedIOException если клиент закрыл соединение; выгрузка и чтение из БД при этом прерываются
+     */
+    public void write(TaskResponse task) {
+        try {
+            if (written == 0) {
+                writeHeader();
+            }
+            writeTask(task);
+            if (++written % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Дописывает остаток буфера. Поток ответа не закрывается, это делает контейнер.
+     */
+    public void finish() throws IOException {
+        if (written == 0) {
+            writeHeader();
+        }
+        writer.flush();
+    }
+
+    protected void writeHeader() throws IOException {
+    }
+
+    protected abstract void writeTask(TaskResponse task) throws IOException;
+
+}
@@ -0,0 +1,136 @@
+package com.example.taskira.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.taskira.dto.in.TaskUpdateParam;
+
+/**
+ * Разбирает CSV по RFC 4180: поля в кавычках могут содержать разделители, кавычки и переводы строк.
+ * Колонки ищутся по заголовку, лишние (например, id и version из выгрузки) игнорируются.
+ */
+class CsvTaskImportReader implements TaskImportReader {
+
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String DUE_DATE = "dueDate";
+    private static final String COMPLETED = "completed";
+
+    private final BufferedReader reader;
+    private final StringBuilder raw = new StringBuilder();
+    private Map<String, Integer> columns;
+    private long line;
+
+    CsvTaskImportReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public TaskImportRecord next() throws IOException {
+        if (columns == null) {
+            var header = readRecord();
+            if (header == null) {
+                return null;
+            }
+            columns = new HashMap<>();
+            for (var i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).strip(), i);
+            }
+        }
+
+        List<String> fields;
+        do {
+            fields = readRecord();
+        } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+        if (fields == null) {
+            return null;
+        }
+
+        var recordLine = line - raw.chars().filter(c -> c == '\n').count();
+        var param = new TaskUpdateParam();
+        param.setTitle(field(fields, TITLE));
+        param.setDescription(field(fields, DESCRIPTION));
+        var dueDate = field(fields, DUE_DATE);
+        var completed = field(fields, COMPLETED);
+        try {
+            param.setDueDate(dueDate == null ? null : Instant.parse(dueDate));
+        } catch (DateTimeParseException e) {
+            return TaskImportRecord.malformed(recordLine, raw.toString(), "dueDate: invalid instant " + dueDate);
+        }
+        if (completed != null) {
+            if (!completed.equalsIgnoreCase("true") && !completed.equalsIgnoreCase("false")) {
+                return TaskImportRecord.malformed(recordLine, raw.toString(), "completed: invalid boolean " + completed);
+            }
+            param.setCompleted(Boolean.parseBoolean(completed));
+        }
+        return TaskImportRecord.parsed(recordLine, raw.toString(), param);
+    }
+
+    private String field(List<String> fields, String name) {
+        var index = columns.get(name);
+        // Пустое поле считается отсутствующим значением
+        return index == null || index >= fields.size() || fields.get(index).isEmpty() ? null : fields.get(index);
+    }
+
+    /**
+     * Читает одну запись, которая может занимать несколько строк, если перевод строки стоит внутри кавычек.
+     */
+    private List<String> readRecord() throws IOException {
+        var text = reader.readLine();
+        if (text == null) {
+            return null;
+        }
+        line++;
+        raw.setLength(0);
+        raw.append(text);
+
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        var quoted = false;
+        var i = 0;
+        while (true) {
+            if (i == text.length()) {
+                if (!quoted) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                text = reader.readLine();
+                if (text == null) {
+                    // Незакрытая кавычка в конце потока - отдаем что есть, валидация отклонит запись
+                    fields.add(field.toString());
+                    return fields;
+                }
+                line++;
+                raw.append('\n').append(text);
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            var c = text.charAt(i++);
+            if (quoted) {
+                if (c == '"' && i < text.length() && text.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+    }
+
+}
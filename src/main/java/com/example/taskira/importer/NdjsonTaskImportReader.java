@@ -0,0 +1,39 @@
+package com.example.taskira.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+import com.example.taskira.dto.in.TaskUpdateParam;
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+class NdjsonTaskImportReader implements TaskImportReader {
+
+    private final BufferedReader reader;
+    private final ObjectReader objectReader;
+    private long line;
+
+    NdjsonTaskImportReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectReader = objectMapper.readerFor(TaskUpdateParam.class);
+    }
+
+    @Override
+    public TaskImportRecord next() throws IOException {
+        String raw;
+        do {
+            raw = reader.readLine();
+            line++;
+        } while (raw != null && raw.isBlank());
+        if (raw == null) {
+            return null;
+        }
+        try {
+            return TaskImportRecord.parsed(line, raw, objectReader.readValue(raw));
+        } catch (JacksonException e) {
+            return TaskImportRecord.malformed(line, raw, "malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.example.taskira.importer;
+
+import java.io.BufferedReader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Формат загрузки Задач")
+public enum TaskImportFormat {
+
+    @Schema(description = "JSON-объект Задачи на каждой строке")
+    NDJSON,
+
+    @Schema(description = "CSV с заголовком, колонки сопоставляются по имени")
+    CSV;
+
+    public TaskImportReader reader(BufferedReader reader, ObjectMapper objectMapper) {
+        return switch (this) {
+            case NDJSON -> new NdjsonTaskImportReader(reader, objectMapper);
+            case CSV -> new CsvTaskImportReader(reader);
+        };
+    }
+
+    /**
+     * Определяет формат по расширению файла: .csv - CSV, остальные - NDJSON.
+     */
+    public static TaskImportFormat ofFileName(String fileName) {
+        return fileName.toLowerCase().endsWith(".csv") ? CSV : NDJSON;
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.example.taskira.importer;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param file             файл для загрузки в режиме командной строки; если задан, приложение загружает его и завершается
+ * @param format           формат файла; по умолчанию определяется по расширению
+ * @param rejectFile       файл для отклоненных записей; по умолчанию рядом с входным файлом с суффиксом .rejected
+ * @param chunkSize        кол-во Задач в одном COPY и одной транзакции
+ * @param progressInterval период вывода прогресса в лог
+ */
+@ConfigurationProperties(prefix = "taskira.import")
+public record TaskImportProperties(
+        String file,
+        TaskImportFormat format,
+        String rejectFile,
+        @DefaultValue("10000") int chunkSize,
+        @DefaultValue("PT10S") Duration progressInterval) {
+}
@@ -0,0 +1,18 @@
+package com.example.taskira.importer;
+
+import java.io.IOException;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Читает входной поток по одной записи, не загружая его в память целиком.
+ */
+public interface TaskImportReader {
+
+    /**
+     * @return следующая запись или null в конце потока
+     */
+    @Nullable
+    TaskImportRecord next() throws IOException;
+
+}
@@ -0,0 +1,29 @@
+package com.example.taskira.importer;
+
+import java.util.List;
+
+import com.example.taskira.dto.in.TaskUpdateParam;
+
+/**
+ * Одна запись входного потока.
+ *
+ * @param line   номер строки, с которой начинается запись
+ * @param raw    исходный текст записи
+ * @param param  разобранная Задача или null, если запись не разобралась
+ * @param errors ошибки разбора и валидации
+ */
+public record TaskImportRecord(long line, String raw, TaskUpdateParam param, List<String> errors) {
+
+    static TaskImportRecord parsed(long line, String raw, TaskUpdateParam param) {
+        return new TaskImportRecord(line, raw, param, List.of());
+    }
+
+    static TaskImportRecord malformed(long line, String raw, String error) {
+        return new TaskImportRecord(line, raw, null, List.of(error));
+    }
+
+    TaskImportRecord withErrors(List<String> errors) {
+        return new TaskImportRecord(line, raw, param, errors);
+    }
+
+}
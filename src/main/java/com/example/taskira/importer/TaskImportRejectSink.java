@@ -0,0 +1,13 @@
+package com.example.taskira.importer;
+
+import java.io.IOException;
+
+/**
+ * Получает отклоненные записи по мере чтения входного потока.
+ */
+@FunctionalInterface
+public interface TaskImportRejectSink {
+
+    void reject(TaskImportRecord record) throws IOException;
+
+}
@@ -0,0 +1,8 @@
+package com.example.taskira.importer;
+
+/**
+ * @param imported кол-во загруженных Задач
+ * @param rejected кол-во отклоненных записей
+ */
+public record TaskImportResult(long imported, long rejected) {
+}
@@ -0,0 +1,67 @@
+package com.example.taskira.importer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Режим командной строки: {@code java -jar taskira.jar --taskira.import.file=tasks.csv}.
+ * Отклоненные записи пишутся в reject-файл построчно в JSON: номер строки, ошибки и исходный текст.
+ * Код завершения 0 - все записи загружены, 2 - есть отклоненные.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "taskira.import", name = "file")
+public class TaskImportRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    public static final String FILE_ARGUMENT = "--taskira.import.file=";
+
+    private final TaskImporter taskImporter;
+    private final TaskImportProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private int exitCode;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        var file = Path.of(properties.file());
+        var format = properties.format() != null ? properties.format() : TaskImportFormat.ofFileName(file.toString());
+        var rejectFile = Path.of(properties.rejectFile() != null ? properties.rejectFile() : file + ".rejected");
+        log.info("Importing tasks from {} as {}, rejects go to {}", file, format, rejectFile);
+
+        try (var in = Files.newInputStream(file);
+                var rejects = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8)) {
+            var result = taskImporter.importTasks(in, format, record -> writeReject(rejects, record));
+            exitCode = result.rejected() > 0 ? 2 : 0;
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private void writeReject(BufferedWriter rejects, TaskImportRecord record) throws IOException {
+        rejects.write(objectMapper.writeValueAsString(new Reject(record.line(), record.errors(), record.raw())));
+        rejects.newLine();
+    }
+
+    private record Reject(long line, List<String> errors, String record) {
+    }
+
+}
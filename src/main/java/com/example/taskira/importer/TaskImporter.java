@@ -0,0 +1,101 @@
+package com.example.taskira.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.example.taskira.dto.in.TaskUpdateParam;
+import com.example.taskira.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Загружает Задачи из потока NDJSON или CSV за один проход: каждая запись разбирается и валидируется
+ * по мере чтения, корректные копятся до chunkSize и загружаются через COPY в своей транзакции,
+ * некорректные сразу уходят в {@link TaskImportRejectSink}. В памяти одновременно не больше одной порции.
+ * <p>
+ * Уже зафиксированные порции при ошибке не откатываются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskImporter {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final TaskService taskService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TaskImportProperties properties;
+
+    public TaskImportResult importTasks(InputStream in, TaskImportFormat format, TaskImportRejectSink rejectSink)
+            throws IOException {
+        var reader = format.reader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8),
+                READ_BUFFER_SIZE), objectMapper);
+        var progress = new Progress(properties.progressInterval().toNanos());
+        List<TaskUpdateParam> chunk = new ArrayList<>(properties.chunkSize());
+
+        TaskImportRecord record;
+        while ((record = reader.next()) != null) {
+            var errors = record.param() == null ? record.errors() : validate(record.param());
+            if (!errors.isEmpty()) {
+                rejectSink.reject(record.withErrors(errors));
+                progress.rejected++;
+                continue;
+            }
+            chunk.add(record.param());
+            if (chunk.size() == properties.chunkSize()) {
+                progress.imported += taskService.importChunk(chunk);
+                chunk = new ArrayList<>(properties.chunkSize());
+                progress.report(false);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            progress.imported += taskService.importChunk(chunk);
+        }
+        progress.report(true);
+        return new TaskImportResult(progress.imported, progress.rejected);
+    }
+
+    private List<String> validate(TaskUpdateParam param) {
+        return validator.validate(param).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private static final class Progress {
+
+        private final long intervalNanos;
+        private final long startedAt = System.nanoTime();
+        private long reportedAt = startedAt;
+        private long imported;
+        private long rejected;
+
+        private Progress(long intervalNanos) {
+            this.intervalNanos = intervalNanos;
+        }
+
+        private void report(boolean finished) {
+            var now = System.nanoTime();
+            if (!finished && now - reportedAt < intervalNanos) {
+                return;
+            }
+            reportedAt = now;
+            var seconds = Math.max((now - startedAt) / 1e9, 1e-3);
+            log.info("Task import {}: {} imported, {} rejected, {} rows/s", finished ? "finished" : "in progress",
+                    imported, rejected, Math.round(imported / seconds));
+        }
+
+    }
+
+}
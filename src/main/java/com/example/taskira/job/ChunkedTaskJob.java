@@ -0,0 +1,105 @@
+package com.example.taskira.job;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Фоновый проход по Задачам порциями, каждая порция в своей транзакции. Проход продолжается, пока порции
+ * заполняются целиком, иначе подходящих Задач больше нет или остальные уже захвачены другими узлами через
+ * {@code SKIP LOCKED}. Ошибка прерывает проход до следующего запуска.
+ * <p>
+ * Метрики: {@code <prefix>.<counter>} - кол-во обработанных Задач, {@code <prefix>.chunk} - время обработки
+ * порции, {@code <prefix>.lag} - насколько срок самой старой ожидающей обработки Задачи старше границы прохода.
+ */
+@Slf4j
+public class ChunkedTaskJob {
+
+    /**
+     * Обработка одной порции в своей транзакции.
+     */
+    @FunctionalInterface
+    public interface ChunkAction {
+
+        /**
+         * @return кол-во обработанных Задач, меньше chunkSize - подходящих Задач больше нет
+         */
+        int process(Instant boundary, int chunkSize);
+
+    }
+
+    private final String name;
+    private final int chunkSize;
+    private final ChunkAction action;
+    private final Function<Instant, Optional<Instant>> oldestPending;
+    private final Counter processed;
+    private final Timer chunkTimer;
+    private volatile Duration lag = Duration.ZERO;
+    private volatile boolean running = true;
+
+    /**
+     * @param metricPrefix  префикс метрик, он же имя прохода в журнале
+     * @param counterName   имя счетчика обработанных Задач после префикса
+     * @param oldestPending срок самой старой Задачи, ожидающей обработки до границы
+     */
+    public ChunkedTaskJob(String metricPrefix, String counterName, int chunkSize, ChunkAction action,
+            Function<Instant, Optional<Instant>> oldestPending, MeterRegistry meterRegistry) {
+        this.name = metricPrefix;
+        this.chunkSize = chunkSize;
+        this.action = action;
+        this.oldestPending = oldestPending;
+        this.processed = Counter.builder(metricPrefix + "." + counterName)
+                .baseUnit("tasks")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder(metricPrefix + ".chunk")
+                .register(meterRegistry);
+        TimeGauge.builder(metricPrefix + ".lag", this, TimeUnit.MILLISECONDS, job -> job.lag.toMillis())
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return кол-во Задач, обработанных за проход, в том числе до ошибки
+     */
+    public long run(Instant boundary) {
+        long total = 0;
+        try {
+            updateLag(boundary);
+            int count;
+            do {
+                var sample = Timer.start();
+                count = action.process(boundary, chunkSize);
+                sample.stop(chunkTimer);
+                processed.increment(count);
+                total += count;
+            } while (count == chunkSize && running);
+            if (total > 0) {
+                updateLag(boundary);
+            }
+        } catch (RuntimeException e) {
+            log.warn("{} failed, will retry on next run", name, e);
+        }
+        return total;
+    }
+
+    /**
+     * Текущая порция дорабатывается, следующая не начинается.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    private void updateLag(Instant boundary) {
+        lag = oldestPending.apply(boundary)
+                .map(dueDate -> Duration.between(dueDate, boundary))
+                .orElse(Duration.ZERO);
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.example.taskira.limit;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Ограничивает кол-во одновременно обрабатываемых запросов к /tasks адаптивным лимитом ({@link GradientLimit}).
+ * Запрос сверх доли лимита для его приоритета ({@link TaskOperationPriority}) сразу получает 503 с Retry-After,
+ * а не ждет в очереди пула соединений. Для потоковой выгрузки запрос считается выполняющимся до конца передачи.
+ * <p>
+ * Задержка для подбора лимита берется только из синхронных запросов CRITICAL и NORMAL: выгрузка и массовые
+ * операции идут секундами и минутами, и их длительность говорит об объеме данных, а не об очереди к БД.
+ * Ответ 503 снижает лимит при любом приоритете.
+ * <p>
+ * Метрики: {@code taskira.concurrency.limit} - текущий лимит, {@code taskira.concurrency.in-flight} -
+ * выполняющиеся запросы, {@code taskira.concurrency.rtt} - базовая задержка, {@code taskira.concurrency.rejected}
+ * с тегом priority - отклоненные запросы.
+ */
+@Component
+@ConditionalOnProperty(prefix = "taskira.concurrency-limit", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String TASKS_PATH = "/tasks";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final GradientLimit limit;
+    private final Map<TaskOperationPriority, Double> shares = new EnumMap<>(TaskOperationPriority.class);
+    private final Map<TaskOperationPriority, Counter> rejected = new EnumMap<>(TaskOperationPriority.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.limit = new GradientLimit(properties);
+        shares.put(TaskOperationPriority.CRITICAL, 1.0);
+        shares.put(TaskOperationPriority.NORMAL, properties.normalShare());
+        shares.put(TaskOperationPriority.BULK, properties.bulkShare());
+        for (var priority : TaskOperationPriority.values()) {
+            rejected.put(priority, Counter.builder("taskira.concurrency.rejected")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("taskira.concurrency.limit", limit, GradientLimit::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("taskira.concurrency.in-flight", inFlight, AtomicInteger::get)
+                .register(meterRegistry);
+        TimeGauge.builder("taskira.concurrency.rtt", limit, TimeUnit.NANOSECONDS, GradientLimit::getLongRttNanos)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        var path = path(request);
+        return !path.equals(TASKS_PATH) && !path.startsWith(TASKS_PATH + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        var priority = TaskOperationPriority.of(request.getMethod(), path(request));
+        int admitted = tryAcquire(priority);
+        if (admitted == 0) {
+            rejected.get(priority).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Сервис перегружен, повторите запрос позже");
+            return;
+        }
+        long start = System.nanoTime();
+        var released = new AtomicBoolean();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(start, released, response));
+            } else {
+                release(start, priority != TaskOperationPriority.BULK ? admitted : 0, released, response);
+            }
+        }
+    }
+
+    /**
+     * @return кол-во выполняющихся запросов вместе с этим или 0, если запрос не укладывается в лимит
+     */
+    private int tryAcquire(TaskOperationPriority priority) {
+        int allowed = Math.max(1, (int) (limit.getLimit() * shares.get(priority)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return 0;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * @param sampledInFlight кол-во выполняющихся запросов при допуске этого или 0, если его задержка
+     *                        не учитывается в лимите
+     */
+    private void release(long start, int sampledInFlight, AtomicBoolean released, HttpServletResponse response) {
+        if (released.compareAndSet(false, true)) {
+            inFlight.decrementAndGet();
+            if (response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+                limit.onDropped();
+            } else if (sampledInFlight > 0) {
+                limit.onSample(System.nanoTime() - start, sampledInFlight);
+            }
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Освобождает место асинхронного запроса по завершении передачи, его задержка в лимите не учитывается.
+     */
+    private final class ReleasingListener implements AsyncListener {
+
+        private final long start;
+        private final AtomicBoolean released;
+        private final HttpServletResponse response;
+
+        private ReleasingListener(long start, AtomicBoolean released, HttpServletResponse response) {
+            this.start = start;
+            this.released = released;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(start, 0, released, response);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(start, 0, released, response);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(start, 0, released, response);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Повторный startAsync снимает слушателей, поэтому слушатель добавляется заново
+            event.getAsyncContext().addListener(this);
+        }
+
+    }
+
+}
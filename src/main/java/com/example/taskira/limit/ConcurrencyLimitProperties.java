@@ -0,0 +1,32 @@
+package com.example.taskira.limit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled      ограничивать кол-во одновременно обрабатываемых запросов к /tasks
+ * @param initialLimit лимит при старте, дальше подбирается по задержкам
+ * @param minLimit     нижняя граница лимита
+ * @param maxLimit     верхняя граница лимита, не больше потоков веб-сервера
+ * @param windowSize   запросов, по которым считается средняя задержка для одного пересчета лимита
+ * @param longWindow   окон, за которые усредняется базовая задержка
+ * @param tolerance    во сколько раз средняя задержка может превысить базовую, прежде чем лимит начнет снижаться
+ * @param smoothing    доля нового значения при пересчете лимита
+ * @param backoffRatio во сколько раз снижается лимит при ответе 503 от приложения
+ * @param normalShare  доля лимита, доступная спискам и поиску
+ * @param bulkShare    доля лимита, доступная выгрузке, импорту и массовым операциям
+ */
+@ConfigurationProperties(prefix = "taskira.concurrency-limit")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") int initialLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("200") int maxLimit,
+        @DefaultValue("50") int windowSize,
+        @DefaultValue("100") int longWindow,
+        @DefaultValue("2.0") double tolerance,
+        @DefaultValue("0.2") double smoothing,
+        @DefaultValue("0.9") double backoffRatio,
+        @DefaultValue("0.8") double normalShare,
+        @DefaultValue("0.5") double bulkShare) {
+}
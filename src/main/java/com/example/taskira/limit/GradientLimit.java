@@ -0,0 +1,103 @@
+package com.example.taskira.limit;
+
+/**
+ * Адаптивный лимит параллельности по градиенту задержки. Базовая задержка - медленное скользящее среднее
+ * задержек окон; если средняя задержка очередного окна выросла больше чем в tolerance раз, запросы копятся
+ * в очереди (пула соединений, БД), и лимит снижается пропорционально, иначе растет на sqrt(лимита).
+ * Ответ 503 от приложения означает, что нижележащий ресурс уже перегружен, и лимит сразу снижается в backoffRatio раз.
+ * <p>
+ * Пока одновременно выполняется меньше половины лимита, лимит не пересчитывается: задержка в этом случае
+ * не говорит о том, выдержит ли приложение больше запросов.
+ */
+public class GradientLimit {
+
+    private static final double MIN_GRADIENT = 0.5;
+    // Если задержка упала вдвое против базовой, база сходится к ней быстрее обычного
+    private static final double DRIFT_RATIO = 2.0;
+    private static final double DRIFT_DECAY = 0.95;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int windowSize;
+    private final int longWindow;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+
+    private volatile double limit;
+    private double longRttNanos;
+    private long windowRttNanos;
+    private int windowCount;
+    private int windowMaxInFlight;
+
+    public GradientLimit(ConcurrencyLimitProperties properties) {
+        this.minLimit = properties.minLimit();
+        this.maxLimit = properties.maxLimit();
+        this.windowSize = properties.windowSize();
+        this.longWindow = properties.longWindow();
+        this.tolerance = properties.tolerance();
+        this.smoothing = properties.smoothing();
+        this.backoffRatio = properties.backoffRatio();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, properties.initialLimit()));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Базовая задержка в наносекундах, 0 - пока не набралось ни одного окна.
+     */
+    public synchronized long getLongRttNanos() {
+        return (long) longRttNanos;
+    }
+
+    /**
+     * @param rttNanos задержка завершенного запроса
+     * @param inFlight сколько запросов выполнялось, когда этот начался, включая его
+     */
+    public synchronized void onSample(long rttNanos, int inFlight) {
+        windowRttNanos += rttNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+        if (++windowCount < windowSize) {
+            return;
+        }
+        double shortRtt = (double) windowRttNanos / windowCount;
+        int maxInFlight = windowMaxInFlight;
+        resetWindow();
+
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+        } else {
+            longRttNanos += (shortRtt - longRttNanos) / longWindow;
+            if (longRttNanos / shortRtt > DRIFT_RATIO) {
+                longRttNanos *= DRIFT_DECAY;
+            }
+        }
+        if (maxInFlight * 2 < limit) {
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit * (1 - smoothing) + newLimit * smoothing);
+    }
+
+    /**
+     * Запрос отклонен нижележащим ресурсом.
+     */
+    public synchronized void onDropped() {
+        limit = clamp(limit * backoffRatio);
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        windowRttNanos = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.example.taskira.limit;
+
+import java.util.regex.Pattern;
+
+/**
+ * Приоритет запроса к /tasks при ограничении параллельности: запросы с меньшей долей лимита отклоняются первыми,
+ * поэтому при перегрузке сначала отсекаются массовые операции, затем списки, а чтение и изменение одной Задачи
+ * обслуживаются до последнего.
+ */
+public enum TaskOperationPriority {
+
+    /**
+     * Чтение, создание, изменение и удаление одной Задачи.
+     */
+    CRITICAL,
+
+    /**
+     * Списки и поиск.
+     */
+    NORMAL,
+
+    /**
+     * Выгрузка, импорт, пакетное создание и массовые операции.
+     */
+    BULK;
+
+    private static final Pattern SINGLE_TASK = Pattern.compile("/tasks/\\d+/?");
+
+    /**
+     * @param method метод HTTP
+     * @param path   путь запроса без контекста приложения
+     */
+    public static TaskOperationPriority of(String method, String path) {
+        if (SINGLE_TASK.matcher(path).matches()) {
+            return CRITICAL;
+        }
+        return switch (path.endsWith("/") ? path.substring(0, path.length() - 1) : path) {
+            case "/tasks" -> method.equals("POST") ? CRITICAL : NORMAL;
+            case "/tasks/cursor", "/tasks/search" -> NORMAL;
+            default -> BULK;
+        };
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.example.taskira.metrics;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.taskira.repository.TaskSortProperty;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+
+/**
+ * Добавляет к метрике http.server.requests теги {@code operation} - имя метода контроллера
+ * и {@code sort.property} - поле сортировки списков. Значения тегов ограничены заранее известным набором,
+ * чтобы произвольные параметры запроса не порождали новые временные ряды.
+ */
+@Component
+public class TaskServerRequestObservationConvention extends DefaultServerRequestObservationConvention {
+
+    private static final Set<String> SORT_PROPERTIES = Arrays.stream(TaskSortProperty.values())
+            .map(TaskSortProperty::getAttribute)
+            .collect(Collectors.toUnmodifiableSet());
+    private static final String NONE = "none";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(operation(context), sortProperty(context));
+    }
+
+    private static KeyValue operation(ServerRequestObservationContext context) {
+        var handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        return KeyValue.of("operation", handler instanceof HandlerMethod method ? method.getMethod().getName() : NONE);
+    }
+
+    private static KeyValue sortProperty(ServerRequestObservationContext context) {
+        var property = context.getCarrier().getParameter("property");
+        if (property == null) {
+            return KeyValue.of("sort.property", NONE);
+        }
+        return KeyValue.of("sort.property", SORT_PROPERTIES.contains(property) ? property : "other");
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.example.taskira.overdue;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled   запускать обработку просроченных Задач на этом узле
+ * @param chunkSize Задач в одной порции и одной транзакции
+ * @param interval  пауза между проходами; проход продолжается, пока порции заполняются целиком
+ */
+@ConfigurationProperties(prefix = "taskira.overdue")
+public record OverdueProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("PT10S") Duration interval) {
+}
@@ -0,0 +1,54 @@
+package com.example.taskira.overdue;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.taskira.job.ChunkedTaskJob;
+import com.example.taskira.service.TaskService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Отмечает просроченные Задачи (незавершенные, со сроком в прошлом) порциями, каждая порция в своей транзакции.
+ * Может работать на любом кол-ве узлов одновременно: порции захватываются через {@code SKIP LOCKED},
+ * поэтому узлы не обрабатывают одну Задачу дважды и не ждут блокировок друг друга.
+ * <p>
+ * Метрики: {@code taskira.overdue.processed} - кол-во отмеченных Задач, {@code taskira.overdue.chunk} - время
+ * обработки порции, {@code taskira.overdue.lag} - насколько срок самой старой необработанной Задачи отстает
+ * от текущего времени.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "taskira.overdue", name = "enabled", havingValue = "true")
+public class OverdueTaskProcessor {
+
+    private final ChunkedTaskJob job;
+
+    public OverdueTaskProcessor(TaskService taskService, OverdueProperties properties, MeterRegistry meterRegistry) {
+        this.job = new ChunkedTaskJob("taskira.overdue", "processed", properties.chunkSize(),
+                (now, chunkSize) -> taskService.processOverdue(now, chunkSize).size(),
+                taskService::findOldestOverdueDueDate, meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${taskira.overdue.interval:PT10S}")
+    public void process() {
+        // overdue_at хранится с точностью до микросекунд
+        var now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        var marked = job.run(now);
+        if (marked > 0) {
+            log.info("Marked {} overdue tasks", marked);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        job.stop();
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.example.taskira.pagination;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param estimateRefreshInterval сколько используется оценка кол-ва Задач для totalMode = ESTIMATED,
+ *                                после этого она пересчитывается при следующем обращении
+ */
+@ConfigurationProperties(prefix = "taskira.paging")
+public record PagingProperties(
+        @DefaultValue("PT1M") Duration estimateRefreshInterval) {
+}
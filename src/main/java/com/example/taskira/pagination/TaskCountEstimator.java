@@ -0,0 +1,45 @@
+package com.example.taskira.pagination;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+/**
+ * Кэширует оценку кол-ва строк в таблице task по статистике планировщика (pg_class.reltuples),
+ * чтобы не выполнять count(*) на каждый запрос страницы. Оценка считается при первом обращении и живет
+ * estimate-refresh-interval: узлы, на которые не приходят запросы с totalMode = ESTIMATED, к pg_class
+ * не обращаются.
+ */
+@Component
+public class TaskCountEstimator {
+
+    private static final String ESTIMATE_SQL = "SELECT reltuples::bigint FROM pg_class WHERE oid = 'task'::regclass";
+    private static final String COUNT_SQL = "SELECT count(*) FROM task";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadingCache<Boolean, Long> estimate;
+
+    public TaskCountEstimator(JdbcTemplate jdbcTemplate, PagingProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Одна запись: одновременные обращения после истечения ждут один пересчет, а не выполняют его каждое
+        this.estimate = Caffeine.newBuilder()
+                .expireAfterWrite(properties.estimateRefreshInterval())
+                .build(key -> load());
+    }
+
+    public long estimate() {
+        return estimate.get(Boolean.TRUE);
+    }
+
+    private long load() {
+        var value = jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class);
+        if (value == null || value < 0) {
+            // Таблица еще ни разу не анализировалась, статистики нет
+            value = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+        }
+        return value;
+    }
+
+}
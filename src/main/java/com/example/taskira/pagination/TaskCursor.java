@@ -0,0 +1,46 @@
+package com.example.taskira.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.data.domain.Sort;
+
+import com.example.taskira.dto.out.TaskResponse;
+import com.example.taskira.exception.InvalidRequestParamException;
+import com.example.taskira.repository.TaskSortProperty;
+
+/**
+ * Непрозрачный курсор продолжения: поле и направление сортировки,
+ * значение поля сортировки и идентификатор последней Задачи на странице.
+ */
+public record TaskCursor(TaskSortProperty property, Sort.Direction direction, Long id, String value) {
+
+    private static final String SEPARATOR = ":";
+
+    public static TaskCursor after(TaskSortProperty property, Sort.Direction direction, TaskResponse last) {
+        return new TaskCursor(property, direction, last.getId(), String.valueOf(property.extract(last)));
+    }
+
+    public Object typedValue() {
+        return property.parse(value);
+    }
+
+    public String encode() {
+        var raw = String.join(SEPARATOR, property.name(), direction.name(), String.valueOf(id), value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var parts = raw.split(SEPARATOR, 4);
+            var decoded = new TaskCursor(TaskSortProperty.valueOf(parts[0]), Sort.Direction.valueOf(parts[1]),
+                    Long.valueOf(parts[2]), parts[3]);
+            decoded.typedValue();
+            return decoded;
+        } catch (RuntimeException e) {
+            throw new InvalidRequestParamException(String.format("Cursor = %s is malformed", cursor));
+        }
+    }
+
+}
@@ -1,8 +1,95 @@
 package com.example.taskira.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.taskira.repository.entity.TaskEntity;
 
-public interface TaskRepository extends JpaRepository<TaskEntity, Long> {
+public interface TaskRepository extends JpaRepository<TaskEntity, Long>, TaskRepositoryCustom {
+
+    @Query("select t.version from TaskEntity t where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from TaskEntity t where t.id = :id")
+    int deleteTaskById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from TaskEntity t where t.id = :id and t.version in :versions")
+    int deleteTaskByIdAndVersionIn(@Param("id") Long id, @Param("versions") Collection<Long> versions);
+
+    @Modifying
+    @Query("update TaskEntity t set t.completed = true, t.version = t.version + 1 "
+            + "where t.id in :ids and t.completed = false")
+    int completeByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE task SET due_date = due_date + make_interval(secs => :seconds), overdue_at = NULL, "
+            + "version = version + 1 "
+            + "WHERE id IN (:ids)", nativeQuery = true)
+    int shiftDueDateByIds(@Param("ids") Collection<Long> ids, @Param("seconds") double seconds);
+
+    @Modifying
+    @Query("update TaskEntity t set t.overdueAt = :overdueAt, t.version = t.version + 1 where t.id in :ids")
+    int markOverdueByIds(@Param("ids") Collection<Long> ids, @Param("overdueAt") Instant overdueAt);
+
+    /**
+     * Срок самой старой необработанной просроченной Задачи, читается по частичному индексу.
+     */
+    @Query("select min(t.dueDate) from TaskEntity t "
+            + "where t.completed = false and t.overdueAt is null and t.dueDate < :now")
+    Optional<Instant> findOldestOverdueDueDate(@Param("now") Instant now);
+
+    /**
+     * Удаляет не более {@code limit} завершенных Задач, чтобы не держать долгие блокировки на большом объеме.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM task WHERE id IN (SELECT id FROM task WHERE completed AND due_date < :dueBefore "
+            + "LIMIT :limit)", nativeQuery = true)
+    int deleteCompletedDueBefore(@Param("dueBefore") Instant dueBefore, @Param("limit") int limit);
+
+    /**
+     * Переносит не более {@code limit} завершенных Задач со сроком раньше dueBefore из task в task_archive
+     * одним запросом. Строки захватываются через {@code SKIP LOCKED}, поэтому архивация не ждет пользовательских
+     * изменений и может идти на нескольких узлах сразу.
+     */
+    @Modifying
+    @Query(value = "WITH moved AS (DELETE FROM task WHERE id IN (SELECT id FROM task "
+            + "WHERE completed AND due_date < :dueBefore ORDER BY due_date LIMIT :limit FOR UPDATE SKIP LOCKED) "
+            + "RETURNING id, title, description, due_date, completed, overdue_at, version) "
+            + "INSERT INTO task_archive (id, title, description, due_date, completed, overdue_at, version) "
+            + "SELECT id, title, description, due_date, completed, overdue_at, version FROM moved", nativeQuery = true)
+    int archiveCompletedDueBefore(@Param("dueBefore") Instant dueBefore, @Param("limit") int limit);
+
+    /**
+     * Срок самой старой завершенной Задачи, ожидающей переноса в архив.
+     */
+    @Query("select min(t.dueDate) from TaskEntity t where t.completed = true and t.dueDate < :dueBefore")
+    Optional<Instant> findOldestArchivableDueDate(@Param("dueBefore") Instant dueBefore);
+
+    @Query(value = "SELECT version FROM task_archive WHERE id = :id", nativeQuery = true)
+    Optional<Long> findArchivedVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_archive WHERE id = :id", nativeQuery = true)
+    int deleteArchivedById(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_archive WHERE id = :id AND version IN (:versions)", nativeQuery = true)
+    int deleteArchivedByIdAndVersionIn(@Param("id") Long id, @Param("versions") Collection<Long> versions);
+
+    /**
+     * Удаляет не более {@code limit} архивных Задач со сроком раньше dueBefore.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM task_archive WHERE id IN (SELECT id FROM task_archive WHERE due_date < :dueBefore "
+            + "LIMIT :limit)", nativeQuery = true)
+    int deleteArchivedDueBefore(@Param("dueBefore") Instant dueBefore, @Param("limit") int limit);
+
 }
@@ -0,0 +1,97 @@
+package com.example.taskira.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+
+import com.example.taskira.repository.entity.TaskEntity;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Страница Задач по фильтру с подсчетом общего кол-ва.
+     * Сочетание фильтра и сортировки должно быть проверено через {@link TaskQueryPlan}.
+     */
+    Page<TaskEntity> findPage(TaskFilter filter, Pageable pageable);
+
+    /**
+     * Страница Задач по фильтру без count(*): читается size + 1 строка, чтобы определить наличие следующей.
+     */
+    Slice<TaskEntity> findSlice(TaskFilter filter, Pageable pageable);
+
+    /**
+     * Возвращает Задачи по фильтру, следующие в порядке сортировки за ключом {@code (afterValue, afterId)}.
+     * Запрос строится как {@code WHERE (sort_col, id) > (?, ?) ORDER BY sort_col, id LIMIT n}
+     * и обслуживается индексом по {@code (sort_col, id)} без OFFSET.
+     */
+    List<TaskEntity> findAfter(TaskFilter filter, TaskSortProperty property, Sort.Direction direction,
+            @Nullable Object afterValue, @Nullable Long afterId, int limit);
+
+    /**
+     * Задача из архива (task_archive) по id.
+     */
+    Optional<TaskEntity> findArchivedById(long id);
+
+    /**
+     * Страница архивных Задач по фильтру: с подсчетом общего кол-ва или, если withTotal = false,
+     * с чтением size + 1 строки для определения наличия следующей.
+     */
+    Slice<TaskEntity> findArchived(TaskFilter filter, Pageable pageable, boolean withTotal);
+
+    /**
+     * Полнотекстовый поиск по заголовку и описанию, результат упорядочен по релевантности, затем по id.
+     * Ранжируются не более maxCandidates самых новых по id совпадений: для частых слов это держит время запроса
+     * постоянным, но страницы дальше maxCandidates пусты, а старые совпадения не находятся -
+     * см. {@link TaskSearchSlice#isTruncated()}.
+     */
+    TaskSearchSlice<TaskEntity> search(String query, int maxCandidates, Pageable pageable);
+
+    /**
+     * Читает все Задачи в порядке сортировки однонаправленным курсором по fetchSize строк и передает их
+     * в consumer по одной, не накапливая ни в памяти, ни в контексте персистентности.
+     * Должен вызываться в транзакции: без нее драйвер Postgres игнорирует fetchSize и читает все строки сразу.
+     */
+    void streamAll(TaskSortProperty property, Sort.Direction direction, int fetchSize, Consumer<TaskEntity> consumer);
+
+    /**
+     * Захватывает до limit незавершенных и еще не отмеченных Задач со сроком раньше now, самые старые первыми.
+     * Строки блокируются до конца транзакции через {@code FOR UPDATE SKIP LOCKED}: параллельные обработчики,
+     * в том числе на других узлах, не ждут друг друга и получают непересекающиеся порции.
+     */
+    List<TaskEntity> claimOverdue(Instant now, int limit);
+
+    /**
+     * Выделяет блок идентификаторов из task_sequence одним запросом.
+     */
+    List<Long> allocateIds(int count);
+
+    /**
+     * Вставляет Задачи пакетами JDBC, минуя контекст персистентности.
+     * Задачам без id идентификаторы выделяются блоком и проставляются в переданные сущности.
+     * Задачи, id которых уже есть в таблице, пропускаются.
+     */
+    List<TaskEntity> insertAll(List<TaskEntity> tasks);
+
+    /**
+     * Загружает Задачи одним {@code COPY task FROM STDIN} - быстрее пакетного INSERT на больших объемах.
+     * Идентификаторы выделяются блоком и проставляются в переданные сущности.
+     */
+    List<TaskEntity> copyAll(List<TaskEntity> tasks);
+
+    /**
+     * Обновляет Задачу одним запросом {@code UPDATE ... RETURNING} без предварительного чтения
+     * и увеличивает ее версию.
+     *
+     * @param expectedVersions если заданы, обновление выполняется только при совпадении версии с одной из них
+     * @return обновленное состояние или пустой результат, если Задачи с таким id (и версией) нет
+     */
+    Optional<TaskEntity> updateReturning(TaskEntity task, @Nullable List<Long> expectedVersions);
+
+}
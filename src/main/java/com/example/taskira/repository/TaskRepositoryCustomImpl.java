@@ -0,0 +1,377 @@
+package com.example.taskira.repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.postgresql.PGConnection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.lang.Nullable;
+
+import com.example.taskira.repository.entity.TaskEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final Pattern LIKE_SPECIAL_CHARACTERS = Pattern.compile("[\\\\%_]");
+    private static final String ALLOCATE_IDS_SQL = "SELECT nextval('task_sequence') FROM generate_series(1, ?)";
+    // id выделены заранее, поэтому повтор пакета после потерянного ответа на фиксацию пропускает уже записанные
+    private static final String INSERT_SQL = "INSERT INTO task (id, title, description, due_date, completed) "
+            + "VALUES (?, ?, ?, ?, ?) ON CONFLICT (id) DO NOTHING";
+    private static final String COPY_SQL =
+            "COPY task (id, title, description, due_date, completed) FROM STDIN (FORMAT csv)";
+    // Отметка о просрочке снимается, только если сдвинута дата завершения
+    private static final String UPDATE_SQL = "UPDATE task SET title = ?, description = ?, "
+            + "overdue_at = CASE WHEN due_date = ? THEN overdue_at END, due_date = ?, completed = ?, "
+            + "version = version + 1 WHERE id = ?";
+    private static final String COLUMNS = "id, title, description, due_date, completed, overdue_at, version";
+    private static final String SELECT_SQL = "SELECT " + COLUMNS + " FROM task";
+    private static final String SELECT_ARCHIVED_SQL = "SELECT " + COLUMNS + " FROM task_archive";
+    private static final String COUNT_ARCHIVED_SQL = "SELECT count(*) FROM task_archive";
+    /**
+     * tsquery подставляется выражением, а не через CTE: так планировщик видит частоту слов и для частых
+     * выбирает обратный обход первичного ключа до LIMIT вместо построения bitmap по всем совпадениям в GIN-индексе.
+     * Кандидаты - самые новые совпадения по id, поэтому набор одинаков для всех страниц одного запроса.
+     */
+    private static final String SEARCH_CANDIDATES_SQL =
+            "SELECT * FROM task WHERE search_vector @@ websearch_to_tsquery('simple', ?) ORDER BY id DESC LIMIT ?";
+    private static final String SEARCH_SQL = "SELECT " + COLUMNS + ", count(*) OVER () AS candidates "
+            + "FROM (" + SEARCH_CANDIDATES_SQL + ") c "
+            + "ORDER BY ts_rank_cd(search_vector, websearch_to_tsquery('simple', ?)) DESC, id LIMIT ? OFFSET ?";
+    private static final String COUNT_SEARCH_CANDIDATES_SQL = "SELECT count(*) FROM (" + SEARCH_CANDIDATES_SQL + ") c";
+    private static final String CLAIM_OVERDUE_SQL = SELECT_SQL
+            + " WHERE NOT completed AND overdue_at IS NULL AND due_date < ? ORDER BY due_date LIMIT ?"
+            + " FOR UPDATE SKIP LOCKED";
+    private static final String RETURNING_SQL = " RETURNING " + COLUMNS;
+    private static final String UPDATE_RETURNING_SQL = UPDATE_SQL + RETURNING_SQL;
+    private static final String UPDATE_VERSIONED_RETURNING_SQL = UPDATE_SQL + " AND version = ANY(?)" + RETURNING_SQL;
+
+    static final RowMapper<TaskEntity> TASK_ROW_MAPPER = (rs, rowNum) -> {
+        var task = new TaskEntity();
+        task.setId(rs.getLong("id"));
+        task.setTitle(rs.getString("title"));
+        task.setDescription(rs.getString("description"));
+        task.setDueDate(fromDbTimestamp(rs.getObject("due_date", LocalDateTime.class)));
+        task.setCompleted(rs.getBoolean("completed"));
+        var overdueAt = rs.getObject("overdue_at", LocalDateTime.class);
+        task.setOverdueAt(overdueAt == null ? null : fromDbTimestamp(overdueAt));
+        task.setVersion(rs.getLong("version"));
+        return task;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<TaskEntity> findPage(TaskFilter filter, Pageable pageable) {
+        var content = select(filter, pageable, pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+    }
+
+    @Override
+    public Slice<TaskEntity> findSlice(TaskFilter filter, Pageable pageable) {
+        var tasks = select(filter, pageable, pageable.getPageSize() + 1);
+        var hasNext = tasks.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? tasks.subList(0, pageable.getPageSize()) : tasks, pageable, hasNext);
+    }
+
+    @Override
+    public List<TaskEntity> findAfter(TaskFilter filter, TaskSortProperty property, Sort.Direction direction,
+            @Nullable Object afterValue, @Nullable Long afterId, int limit) {
+        var column = "t." + property.getAttribute();
+        var conditions = filterConditions(filter);
+        if (afterId != null) {
+            var operator = direction.isAscending() ? ">" : "<";
+            if (property == TaskSortProperty.ID) {
+                conditions.add("t.id " + operator + " :afterId");
+            } else {
+                conditions.add("(" + column + ", t.id) " + operator + " (:afterValue, :afterId)");
+            }
+        }
+        var jpql = new StringBuilder("select t from TaskEntity t");
+        appendWhere(jpql, conditions);
+        appendOrderBy(jpql, property.sort(direction));
+
+        var query = entityManager.createQuery(jpql.toString(), TaskEntity.class)
+                .setMaxResults(limit);
+        bindFilter(query, filter);
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+            if (property != TaskSortProperty.ID) {
+                query.setParameter("afterValue", afterValue);
+            }
+        }
+        return query.getResultList();
+    }
+
+    private List<TaskEntity> select(TaskFilter filter, Pageable pageable, int limit) {
+        var jpql = new StringBuilder("select t from TaskEntity t");
+        appendWhere(jpql, filterConditions(filter));
+        appendOrderBy(jpql, pageable.getSort());
+        var query = entityManager.createQuery(jpql.toString(), TaskEntity.class)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(limit);
+        bindFilter(query, filter);
+        return query.getResultList();
+    }
+
+    private long count(TaskFilter filter) {
+        var jpql = new StringBuilder("select count(t) from TaskEntity t");
+        appendWhere(jpql, filterConditions(filter));
+        var query = entityManager.createQuery(jpql.toString(), Long.class);
+        bindFilter(query, filter);
+        return query.getSingleResult();
+    }
+
+    private static List<String> filterConditions(TaskFilter filter) {
+        var conditions = new ArrayList<String>();
+        if (filter.completed() != null) {
+            conditions.add("t.completed = :completed");
+        }
+        if (filter.dueAfter() != null) {
+            conditions.add("t.dueDate >= :dueAfter");
+        }
+        if (filter.dueBefore() != null) {
+            conditions.add("t.dueDate < :dueBefore");
+        }
+        if (filter.titlePrefix() != null) {
+            conditions.add("t.title like :titlePrefix escape '\\'");
+        }
+        return conditions;
+    }
+
+    private static void bindFilter(Query query, TaskFilter filter) {
+        if (filter.completed() != null) {
+            query.setParameter("completed", filter.completed());
+        }
+        if (filter.dueAfter() != null) {
+            query.setParameter("dueAfter", filter.dueAfter());
+        }
+        if (filter.dueBefore() != null) {
+            query.setParameter("dueBefore", filter.dueBefore());
+        }
+        if (filter.titlePrefix() != null) {
+            query.setParameter("titlePrefix", likePrefix(filter.titlePrefix()));
+        }
+    }
+
+    private static String likePrefix(String prefix) {
+        return LIKE_SPECIAL_CHARACTERS.matcher(prefix).replaceAll("\\\\$0") + "%";
+    }
+
+    private static void appendWhere(StringBuilder jpql, List<String> conditions) {
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+    }
+
+    /**
+     * Имена полей сортировки приходят только из {@link TaskSortProperty}, поэтому подставляются в запрос напрямую.
+     */
+    private static void appendOrderBy(StringBuilder jpql, Sort sort) {
+        if (sort.isUnsorted()) {
+            return;
+        }
+        jpql.append(" order by ").append(sort.stream()
+                .map(order -> "t." + order.getProperty() + (order.isAscending() ? " asc" : " desc"))
+                .collect(Collectors.joining(", ")));
+    }
+
+    @Override
+    public Optional<TaskEntity> findArchivedById(long id) {
+        return jdbcTemplate.query(SELECT_ARCHIVED_SQL + " WHERE id = ?", TASK_ROW_MAPPER, id).stream().findFirst();
+    }
+
+    /**
+     * Тот же отбор, что в {@link #findPage} и {@link #findSlice}, но SQL-запросом к task_archive:
+     * для архива нет сущности JPA.
+     */
+    @Override
+    public Slice<TaskEntity> findArchived(TaskFilter filter, Pageable pageable, boolean withTotal) {
+        var conditions = new ArrayList<String>();
+        var args = new ArrayList<Object>();
+        if (filter.completed() != null) {
+            conditions.add("completed = ?");
+            args.add(filter.completed());
+        }
+        if (filter.dueAfter() != null) {
+            conditions.add("due_date >= ?");
+            args.add(toDbTimestamp(filter.dueAfter()));
+        }
+        if (filter.dueBefore() != null) {
+            conditions.add("due_date < ?");
+            args.add(toDbTimestamp(filter.dueBefore()));
+        }
+        if (filter.titlePrefix() != null) {
+            conditions.add("title LIKE ? ESCAPE '\\'");
+            args.add(likePrefix(filter.titlePrefix()));
+        }
+        var where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        var sql = new StringBuilder(SELECT_ARCHIVED_SQL).append(where);
+        if (pageable.getSort().isSorted()) {
+            sql.append(" ORDER BY ").append(pageable.getSort().stream()
+                    .map(order -> TaskSortProperty.of(order.getProperty()).getColumn()
+                            + (order.isAscending() ? " ASC" : " DESC"))
+                    .collect(Collectors.joining(", ")));
+        }
+        sql.append(" LIMIT ? OFFSET ?");
+        var selectArgs = new ArrayList<>(args);
+        selectArgs.add(withTotal ? pageable.getPageSize() : pageable.getPageSize() + 1);
+        selectArgs.add(pageable.getOffset());
+        var tasks = jdbcTemplate.query(sql.toString(), TASK_ROW_MAPPER, selectArgs.toArray());
+        if (withTotal) {
+            return PageableExecutionUtils.getPage(tasks, pageable,
+                    () -> jdbcTemplate.queryForObject(COUNT_ARCHIVED_SQL + where, Long.class, args.toArray()));
+        }
+        var hasNext = tasks.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? tasks.subList(0, pageable.getPageSize()) : tasks, pageable, hasNext);
+    }
+
+    @Override
+    public TaskSearchSlice<TaskEntity> search(String query, int maxCandidates, Pageable pageable) {
+        var tasks = new ArrayList<TaskEntity>();
+        var candidates = new long[1];
+        jdbcTemplate.query(SEARCH_SQL, (RowCallbackHandler) rs -> {
+            tasks.add(TASK_ROW_MAPPER.mapRow(rs, rs.getRow()));
+            candidates[0] = rs.getLong("candidates");
+        }, query, maxCandidates, query, pageable.getPageSize() + 1, pageable.getOffset());
+        // За последней страницей строк нет, и кол-во кандидатов приходится считать отдельно
+        if (tasks.isEmpty() && pageable.getOffset() > 0) {
+            candidates[0] = jdbcTemplate.queryForObject(COUNT_SEARCH_CANDIDATES_SQL, Long.class, query, maxCandidates);
+        }
+        var hasNext = tasks.size() > pageable.getPageSize();
+        return new TaskSearchSlice<>(hasNext ? tasks.subList(0, pageable.getPageSize()) : tasks, pageable, hasNext,
+                candidates[0] >= maxCandidates);
+    }
+
+    @Override
+    public void streamAll(TaskSortProperty property, Sort.Direction direction, int fetchSize,
+            Consumer<TaskEntity> consumer) {
+        var order = direction.isAscending() ? " ASC" : " DESC";
+        var sql = SELECT_SQL + " ORDER BY " + property.getColumn() + order
+                + (property == TaskSortProperty.ID ? "" : ", id" + order);
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(TASK_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    @Override
+    public List<TaskEntity> claimOverdue(Instant now, int limit) {
+        return jdbcTemplate.query(CLAIM_OVERDUE_SQL, TASK_ROW_MAPPER, toDbTimestamp(now), limit);
+    }
+
+    @Override
+    public List<Long> allocateIds(int count) {
+        return jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, count);
+    }
+
+    @Override
+    public List<TaskEntity> insertAll(List<TaskEntity> tasks) {
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        var withoutIds = tasks.stream()
+                .filter(task -> task.getId() == null)
+                .toList();
+        if (!withoutIds.isEmpty()) {
+            var ids = allocateIds(withoutIds.size());
+            for (var i = 0; i < withoutIds.size(); i++) {
+                withoutIds.get(i).setId(ids.get(i));
+            }
+        }
+        // С reWriteBatchedInserts=true драйвер склеивает пакет в многострочные INSERT
+        jdbcTemplate.batchUpdate(INSERT_SQL, tasks, INSERT_BATCH_SIZE, (ps, task) -> {
+            ps.setLong(1, task.getId());
+            ps.setString(2, task.getTitle());
+            ps.setString(3, task.getDescription());
+            ps.setObject(4, toDbTimestamp(task.getDueDate()));
+            ps.setBoolean(5, task.isCompleted());
+        });
+        return tasks;
+    }
+
+    @Override
+    public List<TaskEntity> copyAll(List<TaskEntity> tasks) {
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        var ids = allocateIds(tasks.size());
+        var csv = new StringBuilder(tasks.size() * 128);
+        for (var i = 0; i < tasks.size(); i++) {
+            var task = tasks.get(i);
+            task.setId(ids.get(i));
+            csv.append(task.getId()).append(',');
+            appendCsvQuoted(csv, task.getTitle()).append(',');
+            appendCsvQuoted(csv, task.getDescription()).append(',');
+            csv.append(toDbTimestamp(task.getDueDate())).append(',');
+            csv.append(task.isCompleted()).append('\n');
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_SQL, new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return tasks;
+    }
+
+    private static StringBuilder appendCsvQuoted(StringBuilder csv, String value) {
+        return csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    @Override
+    public Optional<TaskEntity> updateReturning(TaskEntity task, @Nullable List<Long> expectedVersions) {
+        var result = expectedVersions == null
+                ? jdbcTemplate.query(UPDATE_RETURNING_SQL, TASK_ROW_MAPPER,
+                        task.getTitle(), task.getDescription(), toDbTimestamp(task.getDueDate()),
+                        toDbTimestamp(task.getDueDate()), task.isCompleted(), task.getId())
+                : jdbcTemplate.query(UPDATE_VERSIONED_RETURNING_SQL, TASK_ROW_MAPPER,
+                        task.getTitle(), task.getDescription(), toDbTimestamp(task.getDueDate()),
+                        toDbTimestamp(task.getDueDate()), task.isCompleted(), task.getId(),
+                        expectedVersions.toArray(Long[]::new));
+        return result.stream().findFirst();
+    }
+
+    /**
+     * due_date хранится как TIMESTAMP WITHOUT TIME ZONE в UTC, так же как его пишет Hibernate.
+     */
+    static LocalDateTime toDbTimestamp(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    static Instant fromDbTimestamp(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC);
+    }
+
+}
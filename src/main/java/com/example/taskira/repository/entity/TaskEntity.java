@@ -9,6 +9,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -35,4 +36,11 @@ public class TaskEntity {
     @Column(name = "completed", nullable = false)
     private boolean completed;
 
+    @Column(name = "overdue_at")
+    private Instant overdueAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
 }
\ No newline at end of file
@@ -1,28 +1,134 @@
 package com.example.taskira.service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
 
+import com.example.taskira.dto.in.CursorPageRequestParam;
 import com.example.taskira.dto.in.PageRequestParam;
 import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.in.TaskSearchParam;
 import com.example.taskira.dto.in.TaskUpdateParam;
+import com.example.taskira.repository.TaskSearchSlice;
+import com.example.taskira.repository.TaskSortProperty;
 import com.example.taskira.repository.entity.TaskEntity;
 
 import jakarta.validation.constraints.NotNull;
 
 public interface TaskService {
 
+    /**
+     * Возвращает {@link Page} для {@code EXACT} и {@code ESTIMATED} и {@link Slice} без общих кол-в для {@code NONE}.
+     */
+    @NotNull
+    Slice<TaskEntity> findTasks(@NotNull PageRequestParam param);
+
     @NotNull
-    Page<TaskEntity> findTasks(@NotNull PageRequestParam param);
+    Slice<TaskEntity> findTasks(@NotNull CursorPageRequestParam param);
+
+    /**
+     * Полнотекстовый поиск, упорядоченный по релевантности, без общих кол-в.
+     */
+    @NotNull
+    TaskSearchSlice<TaskEntity> searchTasks(@NotNull TaskSearchParam param);
+
+    /**
+     * Передает все Задачи в consumer по одной в порядке сортировки, не накапливая их в памяти.
+     */
+    void exportTasks(@NotNull TaskSortProperty property, @NotNull Sort.Direction direction,
+            @NotNull Consumer<TaskEntity> consumer);
 
     @NotNull
     TaskEntity create(@NotNull TaskCreateParam param);
 
+    /**
+     * Создает Задачи одной транзакцией, результат в порядке входного списка.
+     */
+    @NotNull
+    List<TaskEntity> createAll(@NotNull List<TaskCreateParam> params);
+
+    /**
+     * Выделяет блок id из task_sequence для Задач, которые будут записаны позже через {@link #insertAll}.
+     */
+    @NotNull
+    List<Long> allocateIds(int count);
+
+    /**
+     * Записывает Задачи с уже выделенными id одной транзакцией.
+     */
+    void insertAll(@NotNull List<TaskEntity> tasks);
+
+    /**
+     * Загружает порцию Задач через COPY в отдельной транзакции.
+     *
+     * @return кол-во загруженных Задач
+     */
+    int importChunk(@NotNull List<TaskUpdateParam> params);
+
+    /**
+     * Ищет Задачу среди активных, затем в архиве.
+     */
     @NotNull
     TaskEntity findById(@NotNull Long id);
 
+    long findVersion(@NotNull Long id);
+
+    /**
+     * Изменяет активную Задачу, для архивной выбрасывается {@link com.example.taskira.exception.ArchivedTaskException}.
+     *
+     * @param expectedVersions если заданы и ни одна не совпадает с текущей, выбрасывается {@link
+     *                         com.example.taskira.exception.VersionConflictException}
+     */
+    @NotNull
+    TaskEntity update(@NotNull Long id, @NotNull TaskUpdateParam param, @Nullable List<Long> expectedVersions);
+
+    /**
+     * Удаляет Задачу, в том числе архивную.
+     */
+    void delete(@NotNull Long id, @Nullable List<Long> expectedVersions);
+
+    long completeAll(@NotNull List<Long> ids);
+
+    long shiftDueDate(@NotNull List<Long> ids, @NotNull Duration shift);
+
+    /**
+     * Захватывает порцию просроченных Задач и отмечает их в одной транзакции.
+     * Порции, захваченные параллельно на других узлах, не пересекаются.
+     *
+     * @return отмеченные Задачи, пустой список, если обрабатывать нечего
+     */
     @NotNull
-    TaskEntity update(@NotNull Long id, @NotNull TaskUpdateParam param);
+    List<TaskEntity> processOverdue(@NotNull Instant now, int limit);
 
-    void delete(@NotNull Long id);
+    /**
+     * Срок самой старой еще не обработанной просроченной Задачи.
+     */
+    @NotNull
+    Optional<Instant> findOldestOverdueDueDate(@NotNull Instant now);
+
+    /**
+     * Удаляет завершенные Задачи, в том числе архивные, порциями, каждая порция в своей транзакции.
+     */
+    long deleteCompleted(@NotNull Instant dueBefore);
+
+    /**
+     * Переносит в архив порцию завершенных Задач со сроком раньше dueBefore в одной транзакции.
+     *
+     * @return кол-во перенесенных Задач
+     */
+    int archiveCompleted(@NotNull Instant dueBefore, int limit);
+
+    /**
+     * Срок самой старой завершенной Задачи, которую пора перенести в архив.
+     */
+    @NotNull
+    Optional<Instant> findOldestArchivableDueDate(@NotNull Instant dueBefore);
 
 }
\ No newline at end of file
@@ -1,10 +1,30 @@
 package com.example.taskira.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.taskira.dto.in.CursorPageRequestParam;
 import com.example.taskira.dto.in.PageRequestParam;
 import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.in.TaskDeleteCompletedParam;
+import com.example.taskira.dto.in.TaskDueDateShiftParam;
+import com.example.taskira.dto.in.TaskExportParam;
+import com.example.taskira.dto.in.TaskIdsParam;
+import com.example.taskira.dto.in.TaskSearchParam;
 import com.example.taskira.dto.in.TaskUpdateParam;
+import com.example.taskira.dto.out.CursorPageResponse;
 import com.example.taskira.dto.out.PageResponse;
+import com.example.taskira.dto.out.TaskBatchResponse;
+import com.example.taskira.dto.out.TaskBulkResponse;
+import com.example.taskira.dto.out.TaskImportResponse;
 import com.example.taskira.dto.out.TaskResponse;
+import com.example.taskira.importer.TaskImportFormat;
+import com.example.taskira.writebehind.TaskWriteBehind;
 
 import jakarta.validation.constraints.NotNull;
 
@@ -13,15 +33,59 @@ public interface TaskWebFacade {
     @NotNull
     PageResponse<TaskResponse> findTasks(@NotNull PageRequestParam param);
 
+    @NotNull
+    CursorPageResponse<TaskResponse> findTasks(@NotNull CursorPageRequestParam param);
+
+    @NotNull
+    PageResponse<TaskResponse> searchTasks(@NotNull TaskSearchParam param);
+
+    /**
+     * Проверяет параметры сразу, а Задачи читает и пишет в поток уже при отправке ответа,
+     * в собственной read-only транзакции.
+     */
+    @NotNull
+    StreamingResponseBody exportTasks(@NotNull TaskExportParam param);
+
+    /**
+     * Загружает Задачи из тела запроса порциями, каждая порция фиксируется отдельно.
+     */
+    @NotNull
+    TaskImportResponse importTasks(@NotNull TaskImportFormat format, @NotNull InputStream body) throws IOException;
+
     @NotNull
     TaskResponse create(@NotNull TaskCreateParam param);
 
+    /**
+     * Ставит Задачу в очередь отложенной записи, см. {@link TaskWriteBehind}.
+     *
+     * @return Задача с выделенным id или пустой результат, если отложенная запись выключена
+     */
+    @NotNull
+    Optional<TaskResponse> createAsync(@NotNull TaskCreateParam param);
+
+    /**
+     * Валидирует все элементы за один проход, создает корректные и возвращает ошибки по остальным.
+     */
+    @NotNull
+    TaskBatchResponse createAll(@NotNull List<TaskCreateParam> params);
+
     @NotNull
     TaskResponse findById(@NotNull Long id);
 
+    long findVersion(@NotNull Long id);
+
+    @NotNull
+    TaskResponse update(@NotNull Long id, @NotNull TaskUpdateParam param, @Nullable List<Long> expectedVersions);
+
+    void delete(@NotNull Long id, @Nullable List<Long> expectedVersions);
+
     @NotNull
-    TaskResponse update(@NotNull Long id, @NotNull TaskUpdateParam param);
+    TaskBulkResponse completeAll(@NotNull TaskIdsParam param);
 
-    void delete(@NotNull Long id);
+    @NotNull
+    TaskBulkResponse shiftDueDate(@NotNull TaskDueDateShiftParam param);
+
+    @NotNull
+    TaskBulkResponse deleteCompleted(@NotNull TaskDeleteCompletedParam param);
 
 }
\ No newline at end of file
@@ -1,22 +1,50 @@
 package com.example.taskira.service.impl;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 import java.util.function.Supplier;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.annotation.Validated;
 
+import com.example.taskira.cache.TaskCache;
+import com.example.taskira.cache.TaskSnapshot;
+import com.example.taskira.dto.in.CursorPageRequestParam;
 import com.example.taskira.dto.in.PageRequestParam;
 import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.in.TaskFilterParam;
+import com.example.taskira.dto.in.TaskSearchParam;
 import com.example.taskira.dto.in.TaskUpdateParam;
+import com.example.taskira.exception.ArchivedTaskException;
 import com.example.taskira.exception.EntityNotFoundException;
+import com.example.taskira.exception.InvalidRequestParamException;
+import com.example.taskira.exception.VersionConflictException;
 import com.example.taskira.mapper.TaskMapper;
+import com.example.taskira.pagination.TaskCountEstimator;
+import com.example.taskira.pagination.TaskCursor;
+import com.example.taskira.pagination.TotalMode;
+import com.example.taskira.repository.TaskFilter;
+import com.example.taskira.repository.TaskQueryPlan;
 import com.example.taskira.repository.TaskRepository;
+import com.example.taskira.repository.TaskSearchSlice;
+import com.example.taskira.repository.TaskSortProperty;
 import com.example.taskira.repository.entity.TaskEntity;
 import com.example.taskira.service.TaskService;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 
@@ -24,15 +52,75 @@ import lombok.RequiredArgsConstructor;
 @Validated
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
+@Timed("taskira.service")
 public class TaskServiceImpl implements TaskService {
 
+    static final int BULK_CHUNK_SIZE = 1000;
+    static final int EXPORT_FETCH_SIZE = 1000;
+    static final int SEARCH_MAX_CANDIDATES = 1000;
+
     private final TaskRepository taskRepository;
+    private final TaskCountEstimator taskCountEstimator;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskCache taskCache;
+
+    @NotNull
+    @Override
+    public Slice<TaskEntity> findTasks(@NotNull PageRequestParam param) {
+        var property = TaskSortProperty.of(param.getProperty());
+        var filter = toFilter(param);
+        TaskQueryPlan.of(filter, property, param.isArchived());
+        if (param.getTotalMode() == TotalMode.ESTIMATED && !filter.isEmpty()) {
+            // Оценка по статистике относится ко всей таблице и не учитывает фильтр
+            throw new InvalidRequestParamException("totalMode = ESTIMATED is supported only without filters");
+        }
+
+        var pageable = PageRequest.of(param.getPage(), param.getSize(), property.sort(param.getDirection()));
+        if (param.isArchived()) {
+            if (param.getTotalMode() == TotalMode.ESTIMATED) {
+                throw new InvalidRequestParamException("totalMode = ESTIMATED is not supported for archived tasks");
+            }
+            return taskRepository.findArchived(filter, pageable, param.getTotalMode() == TotalMode.EXACT);
+        }
+        return switch (param.getTotalMode()) {
+            case EXACT -> taskRepository.findPage(filter, pageable);
+            case NONE -> taskRepository.findSlice(filter, pageable);
+            case ESTIMATED -> withEstimatedTotal(taskRepository.findSlice(filter, pageable));
+        };
+    }
 
     @NotNull
     @Override
-    public Page<TaskEntity> findTasks(@NotNull PageRequestParam param) {
-        return taskRepository.findAll(PageRequest.of(param.getPage(), param.getSize(),
-                param.getDirection(), param.getProperty()));
+    public Slice<TaskEntity> findTasks(@NotNull CursorPageRequestParam param) {
+        var property = TaskSortProperty.of(param.getProperty());
+        var cursor = param.getCursor() == null ? null : TaskCursor.decode(param.getCursor());
+        if (cursor != null && (cursor.property() != property || cursor.direction() != param.getDirection())) {
+            throw new InvalidRequestParamException("Cursor does not match requested sort property and direction");
+        }
+        var filter = toFilter(param);
+        TaskQueryPlan.of(filter, property);
+
+        var tasks = taskRepository.findAfter(filter, property, param.getDirection(),
+                cursor == null ? null : cursor.typedValue(),
+                cursor == null ? null : cursor.id(),
+                param.getSize() + 1);
+        var hasNext = tasks.size() > param.getSize();
+        var content = hasNext ? tasks.subList(0, param.getSize()) : tasks;
+        return new SliceImpl<>(content, PageRequest.of(0, param.getSize(), property.sort(param.getDirection())),
+                hasNext);
+    }
+
+    @NotNull
+    @Override
+    public TaskSearchSlice<TaskEntity> searchTasks(@NotNull TaskSearchParam param) {
+        return taskRepository.search(param.getQ().strip(), SEARCH_MAX_CANDIDATES,
+                PageRequest.of(param.getPage(), param.getSize()));
+    }
+
+    @Override
+    public void exportTasks(@NotNull TaskSortProperty property, @NotNull Sort.Direction direction,
+            @NotNull Consumer<TaskEntity> consumer) {
+        taskRepository.streamAll(property, direction, EXPORT_FETCH_SIZE, consumer);
     }
 
     @NotNull
@@ -40,30 +128,221 @@ public class TaskServiceImpl implements TaskService {
     @Transactional
     public TaskEntity create(@NotNull TaskCreateParam param) {
         var newTask = TaskMapper.INSTANCE.toEntity(param);
-        return taskRepository.save(newTask);
+        var createdTask = taskRepository.save(newTask);
+        taskCache.putAfterCommit(createdTask);
+        return createdTask;
+    }
+
+    @NotNull
+    @Override
+    @Transactional
+    public List<TaskEntity> createAll(@NotNull List<TaskCreateParam> params) {
+        var newTasks = params.stream()
+                .map(TaskMapper.INSTANCE::toEntity)
+                .toList();
+        return taskRepository.insertAll(newTasks);
+    }
+
+    @NotNull
+    @Override
+    @Transactional
+    public List<Long> allocateIds(int count) {
+        return taskRepository.allocateIds(count);
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(@NotNull List<TaskEntity> tasks) {
+        taskRepository.insertAll(tasks);
+    }
+
+    @Override
+    @Transactional
+    public int importChunk(@NotNull List<TaskUpdateParam> params) {
+        var newTasks = params.stream()
+                .map(TaskMapper.INSTANCE::toEntity)
+                .toList();
+        return taskRepository.copyAll(newTasks).size();
     }
 
     @NotNull
     @Override
     public TaskEntity findById(@NotNull Long id) {
-        return taskRepository.findById(id)
+        var cached = taskCache.get(id);
+        if (cached.isPresent()) {
+            return cached.get().toEntity();
+        }
+        var readStamp = taskCache.readStamp();
+        // Архив читается только при промахе: запрос активной Задачи по-прежнему один
+        var task = taskRepository.findById(id)
+                .or(() -> taskRepository.findArchivedById(id))
+                .orElseThrow(entityNotFoundExceptionSupplier(id));
+        taskCache.put(task, readStamp);
+        return task;
+    }
+
+    @Override
+    public long findVersion(@NotNull Long id) {
+        return taskCache.get(id)
+                .map(TaskSnapshot::version)
+                .or(() -> taskRepository.findVersionById(id))
+                .or(() -> taskRepository.findArchivedVersionById(id))
                 .orElseThrow(entityNotFoundExceptionSupplier(id));
     }
 
     @NotNull
     @Override
     @Transactional
-    public TaskEntity update(@NotNull Long id, @NotNull TaskUpdateParam param) {
-        var task = this.findById(id);
+    public TaskEntity update(@NotNull Long id, @NotNull TaskUpdateParam param, @Nullable List<Long> expectedVersions) {
+        var task = new TaskEntity();
+        task.setId(id);
         TaskMapper.INSTANCE.update(task, param);
-        return taskRepository.save(task);
+        var updatedTask = taskRepository.updateReturning(task, expectedVersions)
+                .orElseThrow(() -> notUpdatedOrArchivedException(id, expectedVersions));
+        taskCache.putAfterCommit(updatedTask);
+        return updatedTask;
+    }
+
+    @Override
+    @Transactional
+    public void delete(@NotNull Long id, @Nullable List<Long> expectedVersions) {
+        var deleted = expectedVersions == null
+                ? taskRepository.deleteTaskById(id)
+                : taskRepository.deleteTaskByIdAndVersionIn(id, expectedVersions);
+        if (deleted == 0) {
+            deleted = expectedVersions == null
+                    ? taskRepository.deleteArchivedById(id)
+                    : taskRepository.deleteArchivedByIdAndVersionIn(id, expectedVersions);
+        }
+        if (deleted == 0) {
+            throw notUpdatedException(id, expectedVersions);
+        }
+        taskCache.evictAfterCommit(id);
+    }
+
+    @Override
+    @Transactional
+    public long completeAll(@NotNull List<Long> ids) {
+        taskCache.evictAllAfterCommit(ids);
+        return sumByChunks(ids, taskRepository::completeByIds);
     }
 
     @Override
     @Transactional
-    public void delete(@NotNull Long id) {
-        var task = this.findById(id);
-        taskRepository.delete(task);
+    public long shiftDueDate(@NotNull List<Long> ids, @NotNull Duration shift) {
+        var seconds = shift.toNanos() / 1_000_000_000d;
+        taskCache.evictAllAfterCommit(ids);
+        return sumByChunks(ids, chunk -> taskRepository.shiftDueDateByIds(chunk, seconds));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long deleteCompleted(@NotNull Instant dueBefore) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(
+                    status -> taskRepository.deleteCompletedDueBefore(dueBefore, BULK_CHUNK_SIZE));
+            total += deleted;
+            // Удаленные id неизвестны, поэтому кэш сбрасывается целиком после каждой порции
+            taskCache.invalidateAll();
+        } while (deleted == BULK_CHUNK_SIZE);
+        do {
+            deleted = transactionTemplate.execute(
+                    status -> taskRepository.deleteArchivedDueBefore(dueBefore, BULK_CHUNK_SIZE));
+            total += deleted;
+            taskCache.invalidateAll();
+        } while (deleted == BULK_CHUNK_SIZE);
+        return total;
+    }
+
+    /**
+     * Кэш не сбрасывается: перенос не меняет Задачу, а findById находит ее и в архиве.
+     */
+    @Override
+    @Transactional
+    public int archiveCompleted(@NotNull Instant dueBefore, int limit) {
+        return taskRepository.archiveCompletedDueBefore(dueBefore, limit);
+    }
+
+    @NotNull
+    @Override
+    public Optional<Instant> findOldestArchivableDueDate(@NotNull Instant dueBefore) {
+        return taskRepository.findOldestArchivableDueDate(dueBefore);
+    }
+
+    @NotNull
+    @Override
+    @Transactional
+    public List<TaskEntity> processOverdue(@NotNull Instant now, int limit) {
+        var tasks = taskRepository.claimOverdue(now, limit);
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        var ids = tasks.stream().map(TaskEntity::getId).toList();
+        taskRepository.markOverdueByIds(ids, now);
+        taskCache.evictAllAfterCommit(ids);
+        tasks.forEach(task -> {
+            task.setOverdueAt(now);
+            task.setVersion(task.getVersion() + 1);
+        });
+        return tasks;
+    }
+
+    @NotNull
+    @Override
+    public Optional<Instant> findOldestOverdueDueDate(@NotNull Instant now) {
+        return taskRepository.findOldestOverdueDueDate(now);
+    }
+
+    private long sumByChunks(List<Long> ids, ToIntFunction<List<Long>> operation) {
+        var distinctIds = ids.stream().distinct().toList();
+        long total = 0;
+        for (var from = 0; from < distinctIds.size(); from += BULK_CHUNK_SIZE) {
+            total += operation.applyAsInt(distinctIds.subList(from, Math.min(from + BULK_CHUNK_SIZE,
+                    distinctIds.size())));
+        }
+        return total;
+    }
+
+    private static TaskFilter toFilter(TaskFilterParam param) {
+        if (param.getDueAfter() != null && param.getDueBefore() != null
+                && !param.getDueAfter().isBefore(param.getDueBefore())) {
+            throw new InvalidRequestParamException("dueAfter must be before dueBefore");
+        }
+        return new TaskFilter(param.getCompleted(), param.getDueAfter(), param.getDueBefore(),
+                param.getTitlePrefix());
+    }
+
+    private Slice<TaskEntity> withEstimatedTotal(Slice<TaskEntity> slice) {
+        // Оценка может отставать от реального кол-ва, но не должна противоречить уже прочитанной странице
+        var seen = slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        var total = Math.max(taskCountEstimator.estimate(), seen);
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+
+    /**
+     * Различает отсутствие Задачи и устаревшую версию, в том числе архивной Задачи. Дополнительные запросы
+     * выполняются только на пути ошибки.
+     */
+    private RuntimeException notUpdatedException(Long id, @Nullable List<Long> expectedVersions) {
+        if (expectedVersions != null
+                && (taskRepository.existsById(id) || taskRepository.findArchivedVersionById(id).isPresent())) {
+            return new VersionConflictException(
+                    String.format("Task with id = %s has version other than %s", id, expectedVersions));
+        }
+        return entityNotFoundExceptionSupplier(id).get();
+    }
+
+    /**
+     * Архивная Задача не изменяется: это конфликт с ее состоянием, а не отсутствие Задачи.
+     */
+    private RuntimeException notUpdatedOrArchivedException(Long id, @Nullable List<Long> expectedVersions) {
+        if (!taskRepository.existsById(id) && taskRepository.findArchivedVersionById(id).isPresent()) {
+            return new ArchivedTaskException(
+                    String.format("Task with id = %s is archived, archived tasks are read-only", id));
+        }
+        return notUpdatedException(id, expectedVersions);
     }
 
     private Supplier<EntityNotFoundException> entityNotFoundExceptionSupplier(Long id) {
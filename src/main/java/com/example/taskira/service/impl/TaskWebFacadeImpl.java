@@ -1,18 +1,50 @@
 package com.example.taskira.service.impl;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.taskira.dto.in.CursorPageRequestParam;
 import com.example.taskira.dto.in.PageRequestParam;
 import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.in.TaskDeleteCompletedParam;
+import com.example.taskira.dto.in.TaskDueDateShiftParam;
+import com.example.taskira.dto.in.TaskExportParam;
+import com.example.taskira.dto.in.TaskIdsParam;
+import com.example.taskira.dto.in.TaskSearchParam;
 import com.example.taskira.dto.in.TaskUpdateParam;
+import com.example.taskira.dto.out.CursorPageResponse;
 import com.example.taskira.dto.out.PageResponse;
+import com.example.taskira.dto.out.TaskBatchItemResponse;
+import com.example.taskira.dto.out.TaskBatchResponse;
+import com.example.taskira.dto.out.TaskBulkResponse;
+import com.example.taskira.dto.out.TaskImportRejectResponse;
+import com.example.taskira.dto.out.TaskImportResponse;
 import com.example.taskira.dto.out.TaskResponse;
+import com.example.taskira.exception.InvalidRequestParamException;
+import com.example.taskira.export.TaskExportWriter;
+import com.example.taskira.importer.TaskImportFormat;
+import com.example.taskira.importer.TaskImporter;
 import com.example.taskira.mapper.TaskMapper;
+import com.example.taskira.pagination.TaskCursor;
+import com.example.taskira.pagination.TotalMode;
+import com.example.taskira.repository.TaskSortProperty;
 import com.example.taskira.service.TaskService;
 import com.example.taskira.service.TaskWebFacade;
+import com.example.taskira.writebehind.TaskWriteBehind;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 
@@ -22,13 +54,72 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class TaskWebFacadeImpl implements TaskWebFacade {
 
+    static final int MAX_BATCH_SIZE = 10_000;
+    static final int MAX_IMPORT_REJECTS = 1000;
+
     private final TaskService taskService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TaskImporter taskImporter;
+    private final ObjectProvider<TaskWriteBehind> taskWriteBehind;
 
     @NotNull
     @Override
     public PageResponse<TaskResponse> findTasks(@NotNull PageRequestParam param) {
         var page = taskService.findTasks(param);
-        return TaskMapper.INSTANCE.toPageResponse(page);
+        return TaskMapper.INSTANCE.toPageResponse(page, param.getTotalMode());
+    }
+
+    @NotNull
+    @Override
+    public CursorPageResponse<TaskResponse> findTasks(@NotNull CursorPageRequestParam param) {
+        var slice = taskService.findTasks(param);
+        var content = TaskMapper.INSTANCE.toTaskResponses(slice.getContent());
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            var last = content.get(content.size() - 1);
+            nextCursor = TaskCursor.after(TaskSortProperty.of(param.getProperty()), param.getDirection(), last)
+                    .encode();
+        }
+        return new CursorPageResponse<>(content, nextCursor, slice.hasNext());
+    }
+
+    @NotNull
+    @Override
+    public PageResponse<TaskResponse> searchTasks(@NotNull TaskSearchParam param) {
+        var slice = taskService.searchTasks(param);
+        var response = TaskMapper.INSTANCE.toPageResponse(slice, TotalMode.NONE);
+        response.setTruncated(slice.isTruncated());
+        return response;
+    }
+
+    @NotNull
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StreamingResponseBody exportTasks(@NotNull TaskExportParam param) {
+        var property = TaskSortProperty.of(param.getProperty());
+        var direction = param.getDirection();
+        var format = param.getFormat();
+        return out -> {
+            var writer = TaskExportWriter.of(format, out, objectMapper);
+            taskService.exportTasks(property, direction,
+                    task -> writer.write(TaskMapper.INSTANCE.toTaskResponse(task)));
+            writer.finish();
+        };
+    }
+
+    @NotNull
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TaskImportResponse importTasks(@NotNull TaskImportFormat format, @NotNull InputStream body)
+            throws IOException {
+        var rejects = new ArrayList<TaskImportRejectResponse>();
+        var result = taskImporter.importTasks(body, format, record -> {
+            if (rejects.size() < MAX_IMPORT_REJECTS) {
+                rejects.add(new TaskImportRejectResponse(record.line(), record.errors()));
+            }
+        });
+        return new TaskImportResponse(result.imported(), result.rejected(), rejects);
     }
 
     @NotNull
@@ -39,6 +130,48 @@ public class TaskWebFacadeImpl implements TaskWebFacade {
         return TaskMapper.INSTANCE.toTaskResponse(createdTask);
     }
 
+    /**
+     * Без транзакции: соединение берется только для выделения очередного блока id.
+     */
+    @NotNull
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<TaskResponse> createAsync(@NotNull TaskCreateParam param) {
+        var writeBehind = taskWriteBehind.getIfAvailable();
+        if (writeBehind == null) {
+            return Optional.empty();
+        }
+        return Optional.of(TaskMapper.INSTANCE.toTaskResponse(writeBehind.enqueue(param)));
+    }
+
+    @NotNull
+    @Override
+    @Transactional
+    public TaskBatchResponse createAll(@NotNull List<TaskCreateParam> params) {
+        if (params.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestParamException(
+                    String.format("Batch size = %s exceeds maximum of %s", params.size(), MAX_BATCH_SIZE));
+        }
+
+        var items = new ArrayList<TaskBatchItemResponse>(params.size());
+        var validParams = new ArrayList<TaskCreateParam>(params.size());
+        var validIndexes = new ArrayList<Integer>(params.size());
+        for (var i = 0; i < params.size(); i++) {
+            var errors = validate(params.get(i));
+            items.add(new TaskBatchItemResponse(i, null, errors));
+            if (errors.isEmpty()) {
+                validParams.add(params.get(i));
+                validIndexes.add(i);
+            }
+        }
+
+        var createdTasks = taskService.createAll(validParams);
+        for (var i = 0; i < createdTasks.size(); i++) {
+            items.get(validIndexes.get(i)).setTask(TaskMapper.INSTANCE.toTaskResponse(createdTasks.get(i)));
+        }
+        return new TaskBatchResponse(items, createdTasks.size(), params.size() - validParams.size());
+    }
+
     @NotNull
     @Override
     public TaskResponse findById(@NotNull Long id) {
@@ -46,18 +179,55 @@ public class TaskWebFacadeImpl implements TaskWebFacade {
         return TaskMapper.INSTANCE.toTaskResponse(task);
     }
 
+    @Override
+    public long findVersion(@NotNull Long id) {
+        return taskService.findVersion(id);
+    }
+
     @NotNull
     @Override
     @Transactional
-    public TaskResponse update(@NotNull Long id, @NotNull TaskUpdateParam param) {
-        var updatedTask = taskService.update(id, param);
+    public TaskResponse update(@NotNull Long id, @NotNull TaskUpdateParam param,
+            @Nullable List<Long> expectedVersions) {
+        var updatedTask = taskService.update(id, param, expectedVersions);
         return TaskMapper.INSTANCE.toTaskResponse(updatedTask);
     }
 
     @Override
     @Transactional
-    public void delete(@NotNull Long id) {
-        taskService.delete(id);
+    public void delete(@NotNull Long id, @Nullable List<Long> expectedVersions) {
+        taskService.delete(id, expectedVersions);
+    }
+
+    @NotNull
+    @Override
+    @Transactional
+    public TaskBulkResponse completeAll(@NotNull TaskIdsParam param) {
+        return new TaskBulkResponse(taskService.completeAll(param.getIds()));
+    }
+
+    @NotNull
+    @Override
+    @Transactional
+    public TaskBulkResponse shiftDueDate(@NotNull TaskDueDateShiftParam param) {
+        return new TaskBulkResponse(taskService.shiftDueDate(param.getIds(), param.getShift()));
+    }
+
+    @NotNull
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TaskBulkResponse deleteCompleted(@NotNull TaskDeleteCompletedParam param) {
+        return new TaskBulkResponse(taskService.deleteCompleted(param.getDueBefore()));
+    }
+
+    private List<String> validate(TaskCreateParam param) {
+        if (param == null) {
+            return List.of("must not be null");
+        }
+        return validator.validate(param).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
     }
 
 }
\ No newline at end of file
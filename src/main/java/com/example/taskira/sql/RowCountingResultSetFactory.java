@@ -0,0 +1,92 @@
+package com.example.taskira.sql;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.LongConsumer;
+
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+import net.ttddyy.dsproxy.proxy.SimpleResultSetProxyLogic;
+
+/**
+ * Оборачивает ResultSet запросов, прошедших через DataSource приложения, и считает вызовы next(),
+ * вернувшие строку: кол-во строк SELECT и запросов с RETURNING известно только после чтения результата.
+ * При закрытии ResultSet кол-во прочитанных строк передается обработчику {@link RowCount#onClose}.
+ */
+public final class RowCountingResultSetFactory implements ResultSetProxyLogicFactory {
+
+    @Override
+    public ResultSetProxyLogic create(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+        return new RowCountingLogic(new SimpleResultSetProxyLogic(resultSet, connectionInfo, proxyConfig));
+    }
+
+    /**
+     * @return счетчик строк ResultSet, null - ResultSet создан не через эту фабрику
+     */
+    static RowCount rowCount(Object result) {
+        if (!(result instanceof ResultSet resultSet)) {
+            return null;
+        }
+        try {
+            return resultSet.isWrapperFor(RowCount.class) ? resultSet.unwrap(RowCount.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Доступен через {@code resultSet.unwrap(RowCount.class)}.
+     */
+    interface RowCount {
+
+        void onClose(LongConsumer consumer);
+
+    }
+
+    private static final class RowCountingLogic implements ResultSetProxyLogic, RowCount {
+
+        private final ResultSetProxyLogic delegate;
+        private long rows;
+        private boolean closed;
+        private LongConsumer onClose;
+
+        private RowCountingLogic(ResultSetProxyLogic delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onClose(LongConsumer consumer) {
+            this.onClose = consumer;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            var name = method.getName();
+            if (args != null && args.length == 1 && args[0] == RowCount.class) {
+                if (name.equals("unwrap")) {
+                    return this;
+                }
+                if (name.equals("isWrapperFor")) {
+                    return true;
+                }
+            }
+            var result = delegate.invoke(proxy, method, args);
+            if (name.equals("next")) {
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                }
+            } else if (name.equals("close") && !closed) {
+                closed = true;
+                if (onClose != null) {
+                    onClose.accept(rows);
+                }
+            }
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.example.taskira.sql;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param slowThreshold  запросы не быстрее этого времени пишутся в лог
+ * @param slowSampleRate доля медленных запросов, попадающих в лог, от 0 до 1
+ */
+@ConfigurationProperties(prefix = "taskira.sql")
+public record SqlProperties(
+        @DefaultValue("PT0.2S") Duration slowThreshold,
+        @DefaultValue("1.0") double slowSampleRate) {
+}
@@ -0,0 +1,28 @@
+package com.example.taskira.sql;
+
+import java.util.regex.Pattern;
+
+/**
+ * Приводит текст запроса к форме, одинаковой для всех его выполнений: литералы заменяются на ?,
+ * списки параметров сворачиваются, пробелы схлопываются.
+ */
+final class SqlShape {
+
+    private static final int MAX_LENGTH = 1000;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlShape() {
+    }
+
+    static String of(String sql) {
+        var shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("?, ...");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").strip();
+        return shape.length() > MAX_LENGTH ? shape.substring(0, MAX_LENGTH) + "..." : shape;
+    }
+
+}
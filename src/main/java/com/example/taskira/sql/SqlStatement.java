@@ -0,0 +1,16 @@
+package com.example.taskira.sql;
+
+import java.time.Duration;
+
+import net.ttddyy.dsproxy.QueryType;
+
+/**
+ * Выполненный запрос.
+ *
+ * @param shape    текст запроса без литералов и лишних пробелов, см. {@link SqlShape}
+ * @param type     вид запроса
+ * @param duration время выполнения без чтения результата
+ * @param rows     кол-во измененных строк или строк, прочитанных из результата, -1 - кол-во неизвестно
+ */
+public record SqlStatement(String shape, QueryType type, Duration duration, long rows) {
+}
@@ -0,0 +1,128 @@
+package com.example.taskira.sql;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+
+import com.example.taskira.controller.RequestIdFilter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+/**
+ * Измеряет каждый запрос, прошедший через DataSource приложения.
+ * <p>
+ * Метрики: {@code taskira.sql} - время выполнения с тегами type (select, insert, ...) и outcome,
+ * {@code taskira.sql.rows} - кол-во измененных или прочитанных строк, запросы с неизвестным кол-вом не учитываются.
+ * Запросы не быстрее slowThreshold пишутся в лог с долей slowSampleRate вместе с id HTTP-запроса. Текст запроса
+ * нормализуется только для лога и {@link SqlStatementRecorder}, на обычный запрос приходится лишь определение
+ * его вида и запись метрик. Запрос с результатом (SELECT, RETURNING) учитывается в taskira.sql.rows, логе
+ * и {@link SqlStatementRecorder} при закрытии ResultSet, когда кол-во прочитанных строк известно,
+ * см. {@link RowCountingResultSetFactory}.
+ */
+@Slf4j
+@Component
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final String START_NANOS = "taskira.startNanos";
+
+    private final long slowThresholdNanos;
+    private final double slowSampleRate;
+    private final Map<QueryType, Timer> successTimers = new EnumMap<>(QueryType.class);
+    private final Map<QueryType, Timer> errorTimers = new EnumMap<>(QueryType.class);
+    private final Map<QueryType, DistributionSummary> rowSummaries = new EnumMap<>(QueryType.class);
+
+    public SqlStatementListener(SqlProperties properties, MeterRegistry meterRegistry) {
+        this.slowThresholdNanos = properties.slowThreshold().toNanos();
+        this.slowSampleRate = properties.slowSampleRate();
+        for (var type : QueryType.values()) {
+            var tag = type.name().toLowerCase();
+            successTimers.put(type, timer(meterRegistry, tag, "SUCCESS"));
+            errorTimers.put(type, timer(meterRegistry, tag, "ERROR"));
+            rowSummaries.put(type, DistributionSummary.builder("taskira.sql.rows")
+                    .baseUnit("rows")
+                    .tag("type", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long nanos = System.nanoTime() - execInfo.getCustomValue(START_NANOS, Long.class);
+        var sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        var type = QueryUtils.getQueryType(sql);
+        (execInfo.isSuccess() ? successTimers : errorTimers).get(type).record(nanos, TimeUnit.NANOSECONDS);
+
+        boolean slow = nanos >= slowThresholdNanos && ThreadLocalRandom.current().nextDouble() < slowSampleRate;
+        int batchSize = execInfo.getBatchSize();
+        var rowCount = RowCountingResultSetFactory.rowCount(execInfo.getResult());
+        if (rowCount != null) {
+            rowCount.onClose(rows -> recordRows(sql, type, nanos, rows, batchSize, slow));
+        } else {
+            recordRows(sql, type, nanos, rows(execInfo.getResult()), batchSize, slow);
+        }
+    }
+
+    private void recordRows(String sql, QueryType type, long nanos, long rows, int batchSize, boolean slow) {
+        if (rows >= 0) {
+            rowSummaries.get(type).record(rows);
+        }
+        if (!slow && !SqlStatementRecorder.isRecording()) {
+            return;
+        }
+        var statement = new SqlStatement(SqlShape.of(sql), type, Duration.ofNanos(nanos), rows);
+        SqlStatementRecorder.record(statement);
+        if (slow) {
+            log.warn("Slow SQL {} ms, rows {}, batch {}, request {}: {}", TimeUnit.NANOSECONDS.toMillis(nanos), rows,
+                    batchSize, Objects.requireNonNullElse(MDC.get(RequestIdFilter.MDC_KEY), "-"), statement.shape());
+        }
+    }
+
+    /**
+     * executeUpdate возвращает кол-во строк, executeBatch - кол-во по каждому элементу пакета. Драйвер может
+     * вернуть для элемента SUCCESS_NO_INFO (например, PgJDBC с reWriteBatchedInserts), тогда кол-во неизвестно.
+     */
+    private static long rows(Object result) {
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (var count : counts) {
+                if (count < 0) {
+                    return -1;
+                }
+                total += count;
+            }
+            return total;
+        }
+        return -1;
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String type, String outcome) {
+        return Timer.builder("taskira.sql")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.example.taskira.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Собирает запросы, выполненные текущим потоком, пока открыта запись. Предназначен для тестов,
+ * проверяющих кол-во запросов на операцию, в остальное время запись не ведется.
+ * <pre>{@code
+ * try (var recording = SqlStatementRecorder.start()) {
+ *     mockMvc.perform(get("/tasks/1"));
+ *     assertEquals(1, recording.statements().size());
+ * }
+ * }</pre>
+ */
+public final class SqlStatementRecorder {
+
+    private static final ThreadLocal<List<SqlStatement>> STATEMENTS = new ThreadLocal<>();
+
+    private SqlStatementRecorder() {
+    }
+
+    public static Recording start() {
+        if (STATEMENTS.get() != null) {
+            throw new IllegalStateException("SQL statements are already being recorded on this thread");
+        }
+        var statements = new ArrayList<SqlStatement>();
+        STATEMENTS.set(statements);
+        return new Recording(statements);
+    }
+
+    static boolean isRecording() {
+        return STATEMENTS.get() != null;
+    }
+
+    static void record(SqlStatement statement) {
+        var statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(statement);
+        }
+    }
+
+    public static final class Recording implements AutoCloseable {
+
+        private final List<SqlStatement> statements;
+
+        private Recording(List<SqlStatement> statements) {
+            this.statements = statements;
+        }
+
+        public List<SqlStatement> statements() {
+            return Collections.unmodifiableList(statements);
+        }
+
+        @Override
+        public void close() {
+            STATEMENTS.remove();
+        }
+
+    }
+
+}
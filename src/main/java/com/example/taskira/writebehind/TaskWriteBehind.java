@@ -0,0 +1,244 @@
+package com.example.taskira.writebehind;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.exception.DatabaseBusyException;
+import com.example.taskira.mapper.TaskMapper;
+import com.example.taskira.repository.entity.TaskEntity;
+import com.example.taskira.service.TaskService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Отложенная запись создаваемых Задач: запрос получает id из заранее выделенного блока и сразу
+ * возвращается, а Задача ставится в ограниченную очередь. Один поток записывает накопившиеся Задачи
+ * пакетами, по транзакции на пакет, поэтому всплеск создания занимает одно соединение, а не по соединению
+ * на запрос. Пока идет запись пакета, в очереди собирается следующий.
+ * <p>
+ * Если очередь заполнена дольше offerTimeout, запрос получает 503. Временная ошибка записи (потеря соединения,
+ * таймаут, deadlock) повторяется до успеха, при этом очередь заполняется и запросы начинают получать 503.
+ * При постоянной ошибке пакет делится пополам, пока не найдется Задача, которую записать нельзя: она пишется
+ * в лог и отбрасывается, чтобы не останавливать запись остальных. Повтор пакета, фиксация которого прошла,
+ * но не дошла до приложения, безопасен: уже записанные id пропускаются. При остановке приложения
+ * очередь дописывается в течение shutdownTimeout.
+ * <p>
+ * Метрики: {@code taskira.write-behind.queue} - Задач в очереди, {@code taskira.write-behind.lag} - возраст
+ * самой старой Задачи в очереди, {@code taskira.write-behind.delay} - время от постановки в очередь
+ * до фиксации, {@code taskira.write-behind.flush} и {@code taskira.write-behind.batch} - время и размер пакетов,
+ * {@code taskira.write-behind.rejected} - отказы из-за заполненной очереди, {@code taskira.write-behind.dropped} -
+ * отброшенные Задачи, которые не удалось записать.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "taskira.write-behind", name = "enabled", havingValue = "true")
+public class TaskWriteBehind implements SmartLifecycle {
+
+    /**
+     * Раньше веб-сервера (DEFAULT_PHASE - 2048) запускается и позже него останавливается:
+     * к остановке новые запросы уже не приходят.
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final TaskService taskService;
+    private final WriteBehindProperties properties;
+    private final BlockingQueue<Pending> queue;
+    private final Deque<Long> ids = new ArrayDeque<>();
+    private final Counter rejected;
+    private final Counter dropped;
+    private final Timer delay;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSize;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public TaskWriteBehind(TaskService taskService, WriteBehindProperties properties, MeterRegistry meterRegistry) {
+        this.taskService = taskService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        Gauge.builder("taskira.write-behind.queue", queue, BlockingQueue::size)
+                .baseUnit("tasks")
+                .register(meterRegistry);
+        TimeGauge.builder("taskira.write-behind.lag", this, TimeUnit.NANOSECONDS, TaskWriteBehind::lagNanos)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("taskira.write-behind.rejected")
+                .baseUnit("tasks")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("taskira.write-behind.dropped")
+                .baseUnit("tasks")
+                .register(meterRegistry);
+        this.delay = Timer.builder("taskira.write-behind.delay")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("taskira.write-behind.flush")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("taskira.write-behind.batch")
+                .baseUnit("tasks")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ставит Задачу в очередь на запись.
+     *
+     * @return Задача в том виде, в котором она будет записана, с уже выделенным id
+     * @throws DatabaseBusyException если очередь заполнена или запись остановлена
+     */
+    public TaskEntity enqueue(TaskCreateParam param) {
+        if (!running) {
+            throw new DatabaseBusyException("Task write-behind is stopped");
+        }
+        var task = TaskMapper.INSTANCE.toEntity(param);
+        task.setId(nextId());
+        boolean offered;
+        try {
+            offered = queue.offer(new Pending(task, System.nanoTime()), properties.offerTimeout().toNanos(),
+                    TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            offered = false;
+        }
+        if (!offered) {
+            rejected.increment();
+            throw new DatabaseBusyException("Task write-behind queue is full");
+        }
+        return task;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = new Thread(this::flushLoop, "task-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Перестает принимать Задачи и ждет, пока поток записи опустошит очередь.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            flusher.join(properties.shutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            log.error("Task write-behind did not flush within {}, {} queued tasks are lost",
+                    properties.shutdownTimeout(), queue.size());
+            flusher.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private synchronized long nextId() {
+        if (ids.isEmpty()) {
+            ids.addAll(taskService.allocateIds(properties.idBlockSize()));
+        }
+        return ids.removeFirst();
+    }
+
+    private void flushLoop() {
+        var batch = new ArrayList<Pending>(properties.batchSize());
+        try {
+            while (running || !queue.isEmpty()) {
+                var first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.batchSize() - 1);
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            log.error("Task write-behind interrupted, {} tasks are lost", batch.size() + queue.size());
+        }
+    }
+
+    private void flush(List<Pending> batch) throws InterruptedException {
+        write(batch.stream().map(Pending::task).toList());
+        batchSize.record(batch.size());
+        long now = System.nanoTime();
+        batch.forEach(pending -> delay.record(now - pending.enqueuedNanos(), TimeUnit.NANOSECONDS));
+    }
+
+    private void write(List<TaskEntity> tasks) throws InterruptedException {
+        while (true) {
+            try {
+                var sample = Timer.start();
+                taskService.insertAll(tasks);
+                sample.stop(flushTimer);
+                return;
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    log.warn("Failed to write {} tasks, retrying in {}", tasks.size(), properties.retryDelay(), e);
+                    Thread.sleep(properties.retryDelay().toMillis());
+                } else if (tasks.size() == 1) {
+                    var task = tasks.get(0);
+                    dropped.increment();
+                    // Без заголовка и описания: это пользовательские данные, им не место в логе
+                    log.error("Dropping task id={} dueDate={} that cannot be written", task.getId(), task.getDueDate(),
+                            e);
+                    return;
+                } else {
+                    var half = tasks.size() / 2;
+                    write(tasks.subList(0, half));
+                    write(tasks.subList(half, tasks.size()));
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Ошибки, после которых та же запись может пройти: недоступность БД или пула, таймауты и конфликты блокировок.
+     */
+    static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException
+                || e instanceof DatabaseBusyException;
+    }
+
+    private double lagNanos() {
+        var oldest = queue.peek();
+        return oldest == null ? 0 : System.nanoTime() - oldest.enqueuedNanos();
+    }
+
+    private record Pending(TaskEntity task, long enqueuedNanos) {
+    }
+
+}
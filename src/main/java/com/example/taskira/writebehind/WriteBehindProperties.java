@@ -0,0 +1,26 @@
+package com.example.taskira.writebehind;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled         принимать создание Задач с {@code Prefer: respond-async} в очередь
+ * @param queueCapacity   максимум Задач, ожидающих записи; при заполнении запросы получают 503
+ * @param batchSize       максимум Задач в одной транзакции
+ * @param idBlockSize     сколько id выделяется из task_sequence за одно обращение к БД
+ * @param offerTimeout    сколько запрос ждет места в заполненной очереди
+ * @param retryDelay      пауза перед повторной записью порции после временной ошибки
+ * @param shutdownTimeout сколько при остановке ждать записи оставшихся Задач
+ */
+@ConfigurationProperties(prefix = "taskira.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("1000") int idBlockSize,
+        @DefaultValue("PT0.1S") Duration offerTimeout,
+        @DefaultValue("PT1S") Duration retryDelay,
+        @DefaultValue("PT30S") Duration shutdownTimeout) {
+}
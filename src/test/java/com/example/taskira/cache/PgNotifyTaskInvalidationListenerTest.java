@@ -0,0 +1,124 @@
+package com.example.taskira.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.taskira.repository.entity.TaskEntity;
+import com.example.taskira.utils.TaskDataUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Слушатель инвалидаций поверх встроенного Postgres: сообщения, отправленные через pg_notify,
+ * сбрасывают локальный кэш.
+ */
+class PgNotifyTaskInvalidationListenerTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+    private static final String CHANNEL = "task_invalidation";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final Long PROBE_ID = 100L;
+
+    private final TaskCacheProperties properties = new TaskCacheProperties(true, 100, Duration.ofMinutes(5),
+            Duration.ofSeconds(30), new TaskCacheProperties.Invalidation(true, CHANNEL, Duration.ofMillis(50),
+                    Duration.ofMillis(100)));
+    private final TaskCache taskCache = new TaskCache(properties, new SimpleMeterRegistry(), Optional.empty());
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(POSTGRES.getPostgresDatabase());
+    private PgNotifyTaskInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        var dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl(POSTGRES.getJdbcUrl("postgres", "postgres"));
+        dataSourceProperties.setUsername("postgres");
+        dataSourceProperties.setPassword("postgres");
+        listener = new PgNotifyTaskInvalidationListener(taskCache, properties, dataSourceProperties);
+        listener.start();
+        await(() -> jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_stat_activity WHERE query = 'LISTEN " + CHANNEL + "'", Long.class) > 0);
+        // После LISTEN слушатель сбрасывает кэш, а сообщения разбирает только после сброса: пока маркер
+        // не сброшен, положенное в кэш тестом может пропасть
+        taskCache.put(task(PROBE_ID, 1), taskCache.readStamp());
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)::text", String.class, CHANNEL, PROBE_ID + ":2");
+        await(() -> taskCache.get(PROBE_ID).isEmpty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+    }
+
+    /**
+     * Тест проверяет, что сообщение сбрасывает старые версии и удаленные Задачи, а новые версии остаются.
+     */
+    @Test
+    void listen__test_notification_evicts() {
+        put(1L, 4);
+        put(2L, 4);
+        put(3L, 4);
+
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)::text", String.class, CHANNEL, "1:5,2,3:4");
+
+        await(() -> taskCache.get(1L).isEmpty() && taskCache.get(2L).isEmpty());
+        assertEquals(4L, taskCache.get(3L).orElseThrow().version());
+    }
+
+    /**
+     * Тест проверяет полный сброс кэша по сообщению {@code *}.
+     */
+    @Test
+    void listen__test_notification_clears_all() {
+        put(1L, 4);
+
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)::text", String.class, CHANNEL, "*");
+
+        await(() -> taskCache.get(1L).isEmpty());
+    }
+
+    private void put(Long id, long version) {
+        taskCache.put(task(id, version), taskCache.readStamp());
+        assertTrue(taskCache.get(id).isPresent());
+    }
+
+    private static TaskEntity task(Long id, long version) {
+        var task = TaskDataUtils.testTaskEntity();
+        task.setId(id);
+        task.setVersion(version);
+        return task;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within " + TIMEOUT);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,195 @@
+package com.example.taskira.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.taskira.repository.entity.TaskEntity;
+import com.example.taskira.utils.TaskDataUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TaskCacheTest {
+
+    private static final Long TASK_ID = 1L;
+
+    private final TaskInvalidationPublisher invalidationPublisher = Mockito.mock(TaskInvalidationPublisher.class);
+    private final TaskCache taskCache = taskCache(Duration.ofSeconds(30));
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Тест проверяет, что снимок с меньшей версией не заменяет более новый.
+     */
+    @Test
+    void put__test_older_version_ignored() {
+        taskCache.put(task(5), taskCache.readStamp());
+        taskCache.put(task(4), taskCache.readStamp());
+
+        assertEquals(5L, cachedVersion());
+    }
+
+    /**
+     * Тест проверяет, что чтение, начатое до сброса, не возвращает Задачу в кэш, а начатое после - возвращает.
+     */
+    @Test
+    void put__test_read_before_evict_ignored() {
+        final var staleRead = taskCache.readStamp();
+        taskCache.evict(TASK_ID);
+
+        taskCache.put(task(5), staleRead);
+        assertTrue(taskCache.get(TASK_ID).isEmpty());
+
+        taskCache.put(task(5), taskCache.readStamp());
+        assertEquals(5L, cachedVersion());
+    }
+
+    /**
+     * Тест проверяет, что чтение, начатое до полного сброса кэша, в кэш не попадает.
+     */
+    @Test
+    void put__test_read_before_clear_ignored() {
+        final var staleRead = taskCache.readStamp();
+        taskCache.clear();
+
+        taskCache.put(task(5), staleRead);
+
+        assertTrue(taskCache.get(TASK_ID).isEmpty());
+    }
+
+    /**
+     * Тест проверяет, что чтение дольше tombstone-ttl в кэш не попадает: сброс за это время мог быть забыт.
+     */
+    @Test
+    void put__test_slow_read_ignored() throws InterruptedException {
+        final var cache = taskCache(Duration.ofMillis(1));
+        final var slowRead = cache.readStamp();
+        Thread.sleep(5);
+
+        cache.put(task(5), slowRead);
+
+        assertTrue(cache.get(TASK_ID).isEmpty());
+    }
+
+    /**
+     * Тест проверяет удаление: Задача сбрасывается сразу и после фиксации, а прочитанная до фиксации
+     * удаленная Задача не возвращается в кэш.
+     */
+    @Test
+    void evictAfterCommit__test_read_before_commit_ignored() {
+        taskCache.put(task(5), taskCache.readStamp());
+        TransactionSynchronizationManager.initSynchronization();
+
+        taskCache.evictAfterCommit(TASK_ID);
+        assertTrue(taskCache.get(TASK_ID).isEmpty());
+        // Чтение другой транзакции до фиксации удаления еще видит строку
+        final var concurrentRead = taskCache.readStamp();
+        taskCache.put(task(5), concurrentRead);
+        commit();
+        taskCache.put(task(5), concurrentRead);
+
+        assertTrue(taskCache.get(TASK_ID).isEmpty());
+        Mockito.verify(invalidationPublisher).publishDeleted(List.of(TASK_ID));
+    }
+
+    /**
+     * Тест проверяет изменение: до фиксации кэш пуст, после фиксации в нем новая версия.
+     */
+    @Test
+    void putAfterCommit__test_put_after_commit() {
+        taskCache.put(task(5), taskCache.readStamp());
+        TransactionSynchronizationManager.initSynchronization();
+
+        taskCache.putAfterCommit(task(6));
+        assertTrue(taskCache.get(TASK_ID).isEmpty());
+        commit();
+
+        assertEquals(6L, cachedVersion());
+        Mockito.verify(invalidationPublisher).publishUpdated(TASK_ID, 6L);
+    }
+
+    /**
+     * Тест проверяет, что изменение не возвращает в кэш Задачу, удаленную следом до его afterCommit.
+     */
+    @Test
+    void putAfterCommit__test_deleted_after_commit_ignored() {
+        TransactionSynchronizationManager.initSynchronization();
+        taskCache.putAfterCommit(task(6));
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+
+        taskCache.evict(TASK_ID);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertTrue(taskCache.get(TASK_ID).isEmpty());
+    }
+
+    /**
+     * Тест проверяет, что сообщение о версии сбрасывает только более старые снимки.
+     */
+    @Test
+    void evictIfOlder__test_evicts_only_older() {
+        taskCache.put(task(5), taskCache.readStamp());
+
+        taskCache.evictIfOlder(TASK_ID, 5);
+        assertEquals(5L, cachedVersion());
+
+        taskCache.evictIfOlder(TASK_ID, 6);
+        assertTrue(taskCache.get(TASK_ID).isEmpty());
+    }
+
+    /**
+     * Тест проверяет, что сообщение о версии для отсутствующей в кэше Задачи не дает промаху,
+     * начатому до сообщения, закэшировать состояние до фиксации, но пропускает уже новую версию.
+     */
+    @Test
+    void evictIfOlder__test_absent_records_tombstone() {
+        final var concurrentRead = taskCache.readStamp();
+        taskCache.evictIfOlder(TASK_ID, 6);
+
+        taskCache.put(task(5), concurrentRead);
+        assertTrue(taskCache.get(TASK_ID).isEmpty());
+
+        taskCache.put(task(6), concurrentRead);
+        assertEquals(6L, cachedVersion());
+    }
+
+    private TaskCache taskCache(Duration tombstoneTtl) {
+        return new TaskCache(new TaskCacheProperties(true, 100, Duration.ofMinutes(5), tombstoneTtl, null),
+                new SimpleMeterRegistry(), Optional.of(invalidationPublisher));
+    }
+
+    private long cachedVersion() {
+        return taskCache.get(TASK_ID).orElseThrow().version();
+    }
+
+    private static TaskEntity task(long version) {
+        final var task = TaskDataUtils.testTaskEntity();
+        task.setId(TASK_ID);
+        task.setVersion(version);
+        return task;
+    }
+
+    private static void commit() {
+        final var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(
+                TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+}
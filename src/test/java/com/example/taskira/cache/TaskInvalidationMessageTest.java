@@ -0,0 +1,65 @@
+package com.example.taskira.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class TaskInvalidationMessageTest {
+
+    private final TaskCache taskCache = Mockito.mock(TaskCache.class);
+
+    /**
+     * Тест проверяет формат сообщения об изменении.
+     */
+    @Test
+    void updated__test_format() {
+        assertEquals("7:3", TaskInvalidationMessage.updated(7L, 3));
+    }
+
+    /**
+     * Тест проверяет, что идентификаторы разбиваются на сообщения, помещающиеся в payload NOTIFY, без потерь.
+     */
+    @Test
+    void deleted__test_split_by_payload_length() {
+        final var ids = LongStream.range(1_000_000_000L, 1_000_002_000L).boxed().toList();
+
+        final var payloads = TaskInvalidationMessage.deleted(ids);
+
+        assertTrue(payloads.size() > 1);
+        payloads.forEach(payload -> assertTrue(payload.length() <= TaskInvalidationMessage.MAX_PAYLOAD_LENGTH));
+        assertEquals(ids, payloads.stream()
+                .flatMap(payload -> List.of(payload.split(",")).stream())
+                .map(Long::valueOf)
+                .toList());
+    }
+
+    /**
+     * Тест проверяет применение сообщения: с версией - условный сброс, без версии - безусловный.
+     */
+    @Test
+    void apply__test_versioned_and_deleted() {
+        TaskInvalidationMessage.apply("1:5,2,3:7", taskCache);
+
+        Mockito.verify(taskCache).evictIfOlder(1L, 5);
+        Mockito.verify(taskCache).evict(2L);
+        Mockito.verify(taskCache).evictIfOlder(3L, 7);
+        Mockito.verifyNoMoreInteractions(taskCache);
+    }
+
+    /**
+     * Тест проверяет полный сброс кэша по сообщению {@code *}.
+     */
+    @Test
+    void apply__test_all() {
+        TaskInvalidationMessage.apply(TaskInvalidationMessage.ALL, taskCache);
+
+        Mockito.verify(taskCache).clear();
+        Mockito.verifyNoMoreInteractions(taskCache);
+    }
+
+}
@@ -0,0 +1,208 @@
+package com.example.taskira.controller;
+
+import static com.example.taskira.utils.SqlAssertions.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.taskira.service.TaskService;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import net.ttddyy.dsproxy.QueryType;
+
+/**
+ * Кол-во SQL-запросов на операции API поверх встроенного Postgres. Рост числа запросов
+ * (лишний SELECT перед UPDATE, count(*) для totalMode = NONE и т.п.) ломает эти тесты.
+ */
+@SpringBootTest(properties = "taskira.overdue.enabled=false")
+@AutoConfigureMockMvc
+class TaskControllerSqlBudgetTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+    private static final String TASK_JSON = """
+            {"title": "title1", "description": "description1", "dueDate": "2024-02-18T18:35:24Z", "completed": true}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskService taskService;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    /**
+     * Тест проверяет, что Задача читается одним запросом, а повторно - из кэша без запросов.
+     */
+    @Test
+    void findById__test_sql_budget() throws Exception {
+        var id = insertTask();
+        assertMaxStatements(1, () -> mockMvc.perform(get("/tasks/{id}", id)).andExpect(status().isOk()));
+        var cached = assertMaxStatements(0, () -> mockMvc.perform(get("/tasks/{id}", id)).andExpect(status().isOk()));
+        assertEquals(0, cached.size());
+    }
+
+    /**
+     * Тест проверяет, что страница без подсчета общего кол-ва читается одним запросом.
+     */
+    @Test
+    void findTasks__test_sql_budget_without_total() throws Exception {
+        insertTask();
+        insertTask();
+        assertMaxStatements(1, () -> mockMvc.perform(get("/tasks")
+                        .param("page", "0").param("size", "1").param("property", "dueDate").param("direction", "ASC")
+                        .param("totalMode", "NONE"))
+                .andExpect(status().isOk()));
+    }
+
+    /**
+     * Тест проверяет, что для SELECT учитывается кол-во прочитанных строк: без общего кол-ва страница читается
+     * с одной лишней строкой, по которой определяется наличие следующей страницы.
+     */
+    @Test
+    void findTasks__test_sql_rows() throws Exception {
+        insertTask();
+        insertTask();
+        insertTask();
+        var statements = assertMaxStatements(1, () -> mockMvc.perform(get("/tasks")
+                        .param("page", "0").param("size", "2").param("property", "dueDate").param("direction", "ASC")
+                        .param("totalMode", "NONE"))
+                .andExpect(status().isOk()));
+        assertEquals(1, statements.size());
+        assertEquals(QueryType.SELECT, statements.get(0).type());
+        assertEquals(3, statements.get(0).rows());
+    }
+
+    /**
+     * Тест проверяет, что страница с подсчетом общего кол-ва выполняет не больше двух запросов.
+     */
+    @Test
+    void findTasks__test_sql_budget_exact_total() throws Exception {
+        insertTask();
+        insertTask();
+        assertMaxStatements(2, () -> mockMvc.perform(get("/tasks")
+                        .param("page", "0").param("size", "1").param("property", "dueDate").param("direction", "ASC"))
+                .andExpect(status().isOk()));
+    }
+
+    /**
+     * Тест проверяет, что создание выполняет не больше трех запросов: id из последовательности, INSERT
+     * и уведомление об изменении.
+     */
+    @Test
+    void createTask__test_sql_budget() throws Exception {
+        assertMaxStatements(3, () -> mockMvc.perform(post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON).content(TASK_JSON))
+                .andExpect(status().isOk()));
+    }
+
+    /**
+     * Тест проверяет, что обновление выполняется без предварительного чтения:
+     * UPDATE ... RETURNING и уведомление об изменении.
+     */
+    @Test
+    void updateTask__test_sql_budget() throws Exception {
+        var id = insertTask();
+        assertMaxStatements(2, () -> mockMvc.perform(put("/tasks/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON).content(TASK_JSON))
+                .andExpect(status().isOk()));
+    }
+
+    /**
+     * Тест проверяет, что Задача с версией из списка If-Match обновляется тем же одним UPDATE ... RETURNING,
+     * а удаление по списку без текущей версии дает 412.
+     */
+    @Test
+    void updateTask__test_sql_budget_if_match_list() throws Exception {
+        var id = insertTask();
+        assertMaxStatements(2, () -> mockMvc.perform(put("/tasks/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"7\", \"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(TASK_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\"")));
+        mockMvc.perform(delete("/tasks/{id}", id).header(HttpHeaders.IF_MATCH, "\"0\", \"7\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/tasks/{id}", id).header(HttpHeaders.IF_MATCH, "\"0\", \"1\""))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Тест проверяет, что удаление выполняется без предварительного чтения: DELETE и уведомление об изменении.
+     */
+    @Test
+    void deleteTask__test_sql_budget() throws Exception {
+        var id = insertTask();
+        assertMaxStatements(2, () -> mockMvc.perform(delete("/tasks/{id}", id)).andExpect(status().isOk()));
+    }
+
+    /**
+     * Тест проверяет, что архивная Задача читается двумя запросами (промах по task и чтение архива),
+     * находится в списке с archived = true и удаляется.
+     */
+    @Test
+    void findById__test_sql_budget_archived() throws Exception {
+        var id = insertTask(true);
+        taskService.archiveCompleted(Instant.parse("2024-03-01T00:00:00Z"), 1000);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM task WHERE id = ?", Long.class, id));
+
+        assertMaxStatements(2, () -> mockMvc.perform(get("/tasks/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed").value(true)));
+        assertMaxStatements(1, () -> mockMvc.perform(get("/tasks")
+                        .param("page", "0").param("size", "1000").param("property", "title").param("direction", "DESC")
+                        .param("totalMode", "NONE").param("archived", "true").param("titlePrefix", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(id)));
+        mockMvc.perform(delete("/tasks/{id}", id)).andExpect(status().isOk());
+        mockMvc.perform(get("/tasks/{id}", id)).andExpect(status().isNotFound());
+    }
+
+    private long insertTask() {
+        return insertTask(false);
+    }
+
+    private long insertTask(boolean completed) {
+        return jdbcTemplate.queryForObject("INSERT INTO task (title, description, due_date, completed) "
+                + "VALUES ('title1', 'description1', TIMESTAMP '2024-02-18 18:35:24', ?) RETURNING id", Long.class,
+                completed);
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            var postgres = EmbeddedPostgres.builder().start();
+            new JdbcTemplate(postgres.getPostgresDatabase()).execute("CREATE SCHEMA taskira");
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
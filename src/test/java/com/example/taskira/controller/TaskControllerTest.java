@@ -1,24 +1,34 @@
 package com.example.taskira.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.example.taskira.dto.in.PageRequestParam;
 import com.example.taskira.dto.in.TaskCreateParam;
 import com.example.taskira.dto.in.TaskUpdateParam;
 import com.example.taskira.dto.out.TaskResponse;
 import com.example.taskira.exception.EntityNotFoundException;
+import com.example.taskira.exception.InvalidRequestParamException;
+import com.example.taskira.exception.VersionConflictException;
 import com.example.taskira.service.TaskWebFacade;
 import com.example.taskira.utils.TaskDataUtils;
 
@@ -30,6 +40,11 @@ class TaskControllerTest {
     public TaskControllerTest() {
         taskWebFacade = Mockito.mock(TaskWebFacade.class);
         taskController = new TaskController(taskWebFacade);
+
+        when(taskWebFacade.findTasks(any(PageRequestParam.class))).thenReturn(TaskDataUtils.testPageResponse());
+        when(taskWebFacade.create(any(TaskCreateParam.class))).thenReturn(TaskDataUtils.testTaskResponse());
+        when(taskWebFacade.findById(any())).thenReturn(TaskDataUtils.testTaskResponse());
+        when(taskWebFacade.update(any(), any(TaskUpdateParam.class), any())).thenReturn(TaskDataUtils.testTaskResponse());
     }
 
     /**
@@ -72,7 +87,7 @@ class TaskControllerTest {
         when(taskWebFacade.findTasks(any(PageRequestParam.class)))
                 .thenReturn(TaskDataUtils.testPageResponse());
 
-        final var actualPage = taskController.findTasks(TaskDataUtils.testParam());
+        final var actualPage = taskController.findTasks(TaskDataUtils.testParam()).getBody();
         final var expectedPage = TaskDataUtils.testPageResponse();
 
         assertEquals(expectedPage.getContent().size(), actualPage.getContent().size());
@@ -88,7 +103,7 @@ class TaskControllerTest {
      */
     @Test
     void createTask__test_usage_count() {
-        taskController.createTask(TaskDataUtils.testTaskCreateParam());
+        taskController.createTask(TaskDataUtils.testTaskCreateParam(), null);
         Mockito.verify(taskWebFacade, Mockito.times(1)).create(any(TaskCreateParam.class));
     }
 
@@ -102,7 +117,7 @@ class TaskControllerTest {
         final Instant expectedDueDate = Instant.parse("2024-02-18T18:35:24.00Z");
 
         final var createParam = TaskDataUtils.createTaskCreateParam(expectedTitle, expectedDescription, expectedDueDate);
-        taskController.createTask(createParam);
+        taskController.createTask(createParam, null);
 
         final var createParamArgCaptor = ArgumentCaptor.forClass(TaskCreateParam.class);
         Mockito.verify(taskWebFacade).create(createParamArgCaptor.capture());
@@ -121,19 +136,53 @@ class TaskControllerTest {
         when(taskWebFacade.create(any(TaskCreateParam.class)))
                 .thenReturn(TaskDataUtils.testTaskResponse());
 
-        final var actualTask = taskController.createTask(TaskDataUtils.testTaskCreateParam());
+        final var actualTask = taskController.createTask(TaskDataUtils.testTaskCreateParam(), null).getBody();
         final var expectedTask = TaskDataUtils.testTaskResponse();
 
         assertEqualsTaskResponse(expectedTask, actualTask);
     }
 
+    /**
+     * Тест проверяет ответ 202 со ссылкой на Задачу при Prefer: respond-async.
+     */
+    @Test
+    void createTask__test_respond_async() {
+        final var task = TaskDataUtils.testTaskResponse();
+        when(taskWebFacade.createAsync(any(TaskCreateParam.class))).thenReturn(Optional.of(task));
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest("POST", "/tasks")));
+        try {
+            final var response = taskController.createTask(TaskDataUtils.testTaskCreateParam(), "respond-async");
+
+            assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+            assertEquals("http://localhost/tasks/" + task.getId(), response.getHeaders().getLocation().toString());
+            assertEquals("respond-async", response.getHeaders().getFirst("Preference-Applied"));
+            Mockito.verify(taskWebFacade, Mockito.never()).create(any(TaskCreateParam.class));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    /**
+     * Тест проверяет создание Задачи сразу, если отложенная запись выключена.
+     */
+    @Test
+    void createTask__test_respond_async_disabled() {
+        when(taskWebFacade.createAsync(any(TaskCreateParam.class))).thenReturn(Optional.empty());
+
+        final var response = taskController.createTask(TaskDataUtils.testTaskCreateParam(), "respond-async");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Mockito.verify(taskWebFacade, Mockito.times(1)).create(any(TaskCreateParam.class));
+    }
+
     /**
      * Тест проверяет кол-во вызовов.
      */
     @Test
     void findById__test_usage_count() {
         final Long testTaskId = 3L;
-        taskController.findById(testTaskId);
+        taskController.findById(testTaskId, null);
         Mockito.verify(taskWebFacade, Mockito.times(1)).findById(testTaskId);
     }
 
@@ -145,7 +194,7 @@ class TaskControllerTest {
         final Long testTaskId = 3L;
         when(taskWebFacade.findById(testTaskId)).thenThrow(EntityNotFoundException.class);
 
-        assertThrows(EntityNotFoundException.class, () -> taskController.findById(testTaskId));
+        assertThrows(EntityNotFoundException.class, () -> taskController.findById(testTaskId, null));
     }
 
     /**
@@ -156,21 +205,115 @@ class TaskControllerTest {
         final Long testTaskId = 3L;
         when(taskWebFacade.findById(testTaskId)).thenReturn(TaskDataUtils.testTaskResponse());
 
-        final var actualTask = taskController.findById(testTaskId);
+        final var actualTask = taskController.findById(testTaskId, null).getBody();
         final var expectedTask = TaskDataUtils.testTaskResponse();
 
         assertEqualsTaskResponse(expectedTask, actualTask);
     }
 
+    /**
+     * Тест проверяет ответ 304 по совпавшей версии без чтения самой Задачи.
+     */
+    @Test
+    void findById__test_not_modified() {
+        final Long testTaskId = 3L;
+        when(taskWebFacade.findVersion(testTaskId)).thenReturn(7L);
+
+        final var response = taskController.findById(testTaskId, "\"6\", W/\"7\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"7\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        Mockito.verify(taskWebFacade, Mockito.never()).findById(any());
+    }
+
+    /**
+     * Тест проверяет полный ответ с новым ETag, если версия изменилась.
+     */
+    @Test
+    void findById__test_modified() {
+        final Long testTaskId = 3L;
+        final var task = TaskDataUtils.testTaskResponse();
+        task.setVersion(8L);
+        when(taskWebFacade.findVersion(testTaskId)).thenReturn(8L);
+        when(taskWebFacade.findById(testTaskId)).thenReturn(task);
+
+        final var response = taskController.findById(testTaskId, "\"7\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"8\"", response.getHeaders().getETag());
+        assertEqualsTaskResponse(task, response.getBody());
+    }
+
+    /**
+     * Тест проверяет передачу версии из If-Match.
+     */
+    @Test
+    void updateTask__test_if_match_version() {
+        final Long testTaskId = 3L;
+        taskController.updateTask(testTaskId, TaskDataUtils.testTaskUpdateParam(), "\"5\"");
+        Mockito.verify(taskWebFacade).update(eq(testTaskId), any(TaskUpdateParam.class), eq(List.of(5L)));
+    }
+
+    /**
+     * Тест проверяет передачу версий из списка ETag в If-Match: слабые ETag пропускаются.
+     */
+    @Test
+    void updateTask__test_if_match_list() {
+        final Long testTaskId = 3L;
+        taskController.updateTask(testTaskId, TaskDataUtils.testTaskUpdateParam(), "\"4\", W/\"5\",\"6\"");
+        Mockito.verify(taskWebFacade).update(eq(testTaskId), any(TaskUpdateParam.class), eq(List.of(4L, 6L)));
+    }
+
+    /**
+     * Тест проверяет, что {@code *} в списке If-Match отключает проверку версии.
+     */
+    @Test
+    void deleteTask__test_if_match_list_any() {
+        final Long testTaskId = 3L;
+        taskController.deleteTask(testTaskId, "\"4\", *");
+        Mockito.verify(taskWebFacade).delete(eq(testTaskId), isNull());
+    }
+
+    /**
+     * Тест проверяет 412 на список If-Match без сильного ETag версии: такой список не совпадает никогда.
+     */
+    @Test
+    void deleteTask__test_if_match_list_no_version() {
+        final Long testTaskId = 3L;
+        assertThrows(VersionConflictException.class, () -> taskController.deleteTask(testTaskId, "W/\"5\", \"abc\""));
+        Mockito.verifyNoInteractions(taskWebFacade);
+    }
+
+    /**
+     * Тест проверяет 400 на ETag с неверным синтаксисом в списке If-Match.
+     */
+    @Test
+    void deleteTask__test_if_match_list_malformed() {
+        final Long testTaskId = 3L;
+        assertThrows(InvalidRequestParamException.class, () -> taskController.deleteTask(testTaskId, "\"4\", 5"));
+        Mockito.verifyNoInteractions(taskWebFacade);
+    }
+
+    /**
+     * Тест проверяет 412 на слабый ETag в If-Match: при сильном сравнении он не совпадает никогда.
+     */
+    @Test
+    void deleteTask__test_if_match_weak_etag() {
+        final Long testTaskId = 3L;
+        assertThrows(VersionConflictException.class, () -> taskController.deleteTask(testTaskId, "W/\"5\""));
+        Mockito.verifyNoInteractions(taskWebFacade);
+    }
+
     /**
      * Тест проверяет кол-во вызовов.
      */
     @Test
     void updateTask__test_usage_count() {
         final Long testTaskId = 3L;
-        taskController.updateTask(testTaskId, TaskDataUtils.testTaskUpdateParam());
+        taskController.updateTask(testTaskId, TaskDataUtils.testTaskUpdateParam(), null);
         Mockito.verify(taskWebFacade, Mockito.times(1))
-                .update(eq(testTaskId), any(TaskUpdateParam.class));
+                .update(eq(testTaskId), any(TaskUpdateParam.class), isNull());
     }
 
     /**
@@ -179,11 +322,11 @@ class TaskControllerTest {
     @Test
     void updateTask__test_entity_not_found_exception() {
         final Long testTaskId = 3L;
-        when(taskWebFacade.update(eq(testTaskId), any(TaskUpdateParam.class)))
+        when(taskWebFacade.update(eq(testTaskId), any(TaskUpdateParam.class), isNull()))
                 .thenThrow(EntityNotFoundException.class);
 
         assertThrows(EntityNotFoundException.class, () -> taskController.updateTask(testTaskId,
-                TaskDataUtils.testTaskUpdateParam()));
+                TaskDataUtils.testTaskUpdateParam(), null));
     }
 
     /**
@@ -199,10 +342,10 @@ class TaskControllerTest {
 
         final var updateParam = TaskDataUtils.createTaskUpdateParam(expectedTitle, expectedDescription,
                 expectedDueDate, expectedCompleted);
-        taskController.updateTask(testTaskId, updateParam);
+        taskController.updateTask(testTaskId, updateParam, null);
 
         final var updateParamArgCaptor = ArgumentCaptor.forClass(TaskUpdateParam.class);
-        Mockito.verify(taskWebFacade).update(eq(testTaskId), updateParamArgCaptor.capture());
+        Mockito.verify(taskWebFacade).update(eq(testTaskId), updateParamArgCaptor.capture(), isNull());
 
         final var updateParamArg = updateParamArgCaptor.getValue();
         assertEquals(expectedTitle, updateParamArg.getTitle());
@@ -218,10 +361,11 @@ class TaskControllerTest {
     void updateTask__test_no_mutation_result() {
         final Long testTaskId = 3L;
 
-        when(taskWebFacade.update(eq(testTaskId), any(TaskUpdateParam.class)))
+        when(taskWebFacade.update(eq(testTaskId), any(TaskUpdateParam.class), isNull()))
                 .thenReturn(TaskDataUtils.testTaskResponse());
 
-        final var actualTask = taskController.updateTask(testTaskId, TaskDataUtils.testTaskUpdateParam());
+        final var actualTask = taskController.updateTask(testTaskId, TaskDataUtils.testTaskUpdateParam(), null)
+                .getBody();
         final var expectedTask = TaskDataUtils.testTaskEntity();
 
         assertEquals(expectedTask.getId(), actualTask.getId());
@@ -237,9 +381,9 @@ class TaskControllerTest {
     @Test
     void deleteTask__test_usage_count() {
         final Long testTaskId = 3L;
-        taskController.deleteTask(testTaskId);
+        taskController.deleteTask(testTaskId, null);
         Mockito.verify(taskWebFacade, Mockito.times(1))
-                .delete(testTaskId);
+                .delete(testTaskId, null);
     }
 
     /**
@@ -248,9 +392,9 @@ class TaskControllerTest {
     @Test
     void deleteTask__test_entity_not_found_exception() {
         final Long testTaskId = 3L;
-        doThrow(EntityNotFoundException.class).when(taskWebFacade).delete(testTaskId);
+        doThrow(EntityNotFoundException.class).when(taskWebFacade).delete(testTaskId, null);
 
-        assertThrows(EntityNotFoundException.class, () -> taskController.deleteTask(testTaskId));
+        assertThrows(EntityNotFoundException.class, () -> taskController.deleteTask(testTaskId, null));
     }
 
     private void assertEqualsTaskResponse(TaskResponse expected, TaskResponse actual) {
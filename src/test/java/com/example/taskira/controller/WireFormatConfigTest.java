@@ -0,0 +1,54 @@
+package com.example.taskira.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.example.taskira.dto.out.TaskResponse;
+import com.example.taskira.utils.TaskDataUtils;
+
+class WireFormatConfigTest {
+
+    private final WireFormatConfig config = new WireFormatConfig();
+
+    /**
+     * Тест проверяет, что Задача проходит через CBOR без потери микросекунд в датах.
+     */
+    @Test
+    void cborHttpMessageConverter__test_round_trip() throws IOException {
+        assertRoundTrip(config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()));
+    }
+
+    /**
+     * Тест проверяет, что Задача проходит через Smile без потери микросекунд в датах.
+     */
+    @Test
+    void smileHttpMessageConverter__test_round_trip() throws IOException {
+        assertRoundTrip(config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()));
+    }
+
+    private static void assertRoundTrip(AbstractJackson2HttpMessageConverter converter) throws IOException {
+        var task = TaskDataUtils.testTaskResponse();
+        task.setDueDate(Instant.parse("2024-02-18T18:35:24.123456Z"));
+        task.setOverdueAt(Instant.parse("2024-02-19T00:00:00.000001Z"));
+
+        var output = new MockHttpOutputMessage();
+        converter.write(task, converter.getSupportedMediaTypes().get(0), output);
+        var input = new MockHttpInputMessage(output.getBodyAsBytes());
+        var actual = (TaskResponse) converter.read(TaskResponse.class, input);
+
+        assertEquals(task.getId(), actual.getId());
+        assertEquals(task.getTitle(), actual.getTitle());
+        assertEquals(task.getDueDate(), actual.getDueDate());
+        assertEquals(task.getOverdueAt(), actual.getOverdueAt());
+        assertEquals(task.getVersion(), actual.getVersion());
+    }
+
+}
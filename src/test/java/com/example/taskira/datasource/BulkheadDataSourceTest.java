@@ -0,0 +1,120 @@
+package com.example.taskira.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.example.taskira.exception.DatabaseBusyException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BulkheadDataSourceTest {
+
+    private final DataSource target = Mockito.mock(DataSource.class);
+    private final Connection connection = Mockito.mock(Connection.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    public BulkheadDataSourceTest() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+    }
+
+    /**
+     * Тест проверяет, что разрешение возвращается при закрытии соединения ровно один раз,
+     * даже если соединение закрыто повторно.
+     */
+    @Test
+    void getConnection__test_double_close_releases_once() throws SQLException {
+        final var bulkhead = bulkhead(1, 10, Duration.ofMillis(50));
+
+        final var held = bulkhead.getConnection();
+        assertEquals(0, gauge("available"));
+        held.close();
+        held.close();
+
+        assertEquals(1, gauge("available"));
+        Mockito.verify(connection, Mockito.times(1)).close();
+        bulkhead.getConnection();
+        assertThrows(DatabaseBusyException.class, bulkhead::getConnection);
+    }
+
+    /**
+     * Тест проверяет, что при заполненной очереди запрос отклоняется сразу, не дожидаясь таймаута,
+     * а ожидающий в очереди получает соединение после закрытия занятого.
+     */
+    @Test
+    void getConnection__test_rejected_when_queue_full() throws Exception {
+        final var bulkhead = bulkhead(1, 1, Duration.ofSeconds(30));
+        final var held = bulkhead.getConnection();
+        final var queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return bulkhead.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (gauge("queued") < 1) {
+            Thread.onSpinWait();
+        }
+
+        final var start = System.nanoTime();
+        assertThrows(DatabaseBusyException.class, bulkhead::getConnection);
+        assertEquals(0, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+        assertEquals(1, rejected());
+
+        held.close();
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Тест проверяет, что запрос отклоняется, если соединение не освободилось за queue-timeout.
+     */
+    @Test
+    void getConnection__test_queue_timeout() throws SQLException {
+        final var bulkhead = bulkhead(1, 10, Duration.ofMillis(50));
+        bulkhead.getConnection();
+
+        assertThrows(DatabaseBusyException.class, bulkhead::getConnection);
+
+        assertEquals(1, rejected());
+        assertEquals(0, gauge("queued"));
+    }
+
+    /**
+     * Тест проверяет, что разрешение возвращается, если пул не выдал соединение.
+     */
+    @Test
+    void getConnection__test_failure_releases_permit() throws SQLException {
+        final var bulkhead = bulkhead(1, 10, Duration.ofMillis(50));
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThrows(SQLException.class, bulkhead::getConnection);
+
+        assertEquals(1, gauge("available"));
+        assertEquals(0, rejected());
+    }
+
+    private BulkheadDataSource bulkhead(int maxConcurrent, int maxQueue, Duration queueTimeout) {
+        return new BulkheadDataSource(target, "primary", maxConcurrent, maxQueue, queueTimeout, meterRegistry);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get("taskira.datasource.bulkhead." + name).gauge().value();
+    }
+
+    private double rejected() {
+        return meterRegistry.get("taskira.datasource.bulkhead.rejected").counter().count();
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.example.taskira.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.example.taskira.cache.TaskCache;
+import com.example.taskira.cache.TaskCacheProperties;
+import com.example.taskira.utils.TaskDataUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final String REPLICA_KEY = ReplicaRoutingDataSource.replicaKey(0);
+
+    private final ReplicaMonitor replicaMonitor = Mockito.mock(ReplicaMonitor.class);
+    private final DataSource primary = Mockito.mock(DataSource.class);
+    private final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaMonitor);
+    private final TaskCache taskCache = new TaskCache(new TaskCacheProperties(true, 100, Duration.ofMinutes(5),
+            Duration.ofSeconds(30), null), new SimpleMeterRegistry(), Optional.empty());
+
+    public ReplicaRoutingDataSourceTest() {
+        when(replicaMonitor.hasReplicas()).thenReturn(true);
+        routing.setTargetDataSources(Map.of(ReplicaRoutingDataSource.PRIMARY_KEY, primary,
+                REPLICA_KEY, Mockito.mock(DataSource.class)));
+        routing.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.unbindResourceIfPossible(
+                ReplicaRoutingDataSource.class.getName() + ".replicaRead");
+        RequestContextHolder.resetRequestAttributes();
+        ConsistencyToken.reset();
+    }
+
+    /**
+     * Тест проверяет, что снимок, прочитанный с реплики, не попадает в кэш, а отметка снимается
+     * по завершении транзакции.
+     */
+    @Test
+    void determineCurrentLookupKey__test_replica_read_not_cached() {
+        when(replicaMonitor.select(anyLong())).thenReturn(Optional.of(REPLICA_KEY));
+        beginReadOnly();
+
+        assertEquals(REPLICA_KEY, routing.determineCurrentLookupKey());
+        assertTrue(ReplicaRoutingDataSource.isCurrentTransactionOnReplica());
+        taskCache.put(TaskDataUtils.testTaskEntity(), taskCache.readStamp());
+        assertTrue(taskCache.get(TaskDataUtils.testTaskEntity().getId()).isEmpty());
+
+        complete();
+        assertFalse(ReplicaRoutingDataSource.isCurrentTransactionOnReplica());
+    }
+
+    /**
+     * Тест проверяет, что снимок, прочитанный с основной БД, попадает в кэш.
+     */
+    @Test
+    void determineCurrentLookupKey__test_primary_read_cached() {
+        when(replicaMonitor.select(anyLong())).thenReturn(Optional.empty());
+        beginReadOnly();
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY_KEY, routing.determineCurrentLookupKey());
+        assertFalse(ReplicaRoutingDataSource.isCurrentTransactionOnReplica());
+        taskCache.put(TaskDataUtils.testTaskEntity(), taskCache.readStamp());
+        assertTrue(taskCache.get(TaskDataUtils.testTaskEntity().getId()).isPresent());
+    }
+
+    /**
+     * Тест проверяет, что запрос с токеном согласованности читает мимо кэша.
+     */
+    @Test
+    void get__test_consistency_token_bypasses_cache() {
+        taskCache.put(TaskDataUtils.testTaskEntity(), taskCache.readStamp());
+
+        ConsistencyToken.require(ConsistencyToken.parse("16/B374D848"));
+
+        assertTrue(taskCache.get(TaskDataUtils.testTaskEntity().getId()).isEmpty());
+    }
+
+    /**
+     * Тест проверяет, что позиция WAL для токена читается через соединение самой транзакции,
+     * без второго соединения из пула.
+     */
+    @Test
+    void getConnection__test_token_from_transaction_connection() throws SQLException {
+        final var connection = Mockito.mock(Connection.class);
+        final var statement = Mockito.mock(Statement.class);
+        final var resultSet = Mockito.mock(ResultSet.class);
+        when(primary.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.getString(1)).thenReturn("16/B374D848");
+        final var response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+        TransactionSynchronizationManager.initSynchronization();
+
+        routing.getConnection();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        complete();
+
+        assertEquals("16/B374D848", response.getHeader(ConsistencyToken.HEADER));
+        Mockito.verify(primary, Mockito.times(1)).getConnection();
+        Mockito.verify(replicaMonitor, Mockito.never()).primaryLsn();
+    }
+
+    private static void beginReadOnly() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    private static void complete() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+}
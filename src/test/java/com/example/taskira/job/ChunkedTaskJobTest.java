@@ -0,0 +1,88 @@
+package com.example.taskira.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ChunkedTaskJobTest {
+
+    private static final Instant BOUNDARY = Instant.parse("2024-03-01T00:00:00Z");
+    private static final int CHUNK_SIZE = 10;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * Тест проверяет, что проход продолжается, пока порции заполняются целиком, а метрики учитывают все порции.
+     */
+    @Test
+    void run__test_until_partial_chunk() {
+        final var chunks = new ArrayDeque<>(List.of(10, 10, 3, 10));
+        final var job = job((boundary, chunkSize) -> chunks.poll(), boundary -> Optional.empty());
+
+        assertEquals(23, job.run(BOUNDARY));
+
+        assertEquals(1, chunks.size());
+        assertEquals(23, meterRegistry.get("taskira.test.processed").counter().count());
+        assertEquals(3, meterRegistry.get("taskira.test.chunk").timer().count());
+    }
+
+    /**
+     * Тест проверяет, что ошибка порции прерывает проход без исключения, а обработанное до нее учитывается.
+     */
+    @Test
+    void run__test_failure_stops_run() {
+        final var chunks = new ArrayDeque<>(List.of(10));
+        final var job = job((boundary, chunkSize) -> {
+            if (chunks.isEmpty()) {
+                throw new IllegalStateException("connection lost");
+            }
+            return chunks.poll();
+        }, boundary -> Optional.empty());
+
+        assertEquals(10, job.run(BOUNDARY));
+        assertEquals(10, meterRegistry.get("taskira.test.processed").counter().count());
+    }
+
+    /**
+     * Тест проверяет, что после остановки следующая порция не начинается.
+     */
+    @Test
+    void stop__test_no_next_chunk() {
+        final var job = new ChunkedTaskJob[1];
+        job[0] = job((boundary, chunkSize) -> {
+            job[0].stop();
+            return chunkSize;
+        }, boundary -> Optional.empty());
+
+        assertEquals(CHUNK_SIZE, job[0].run(BOUNDARY));
+    }
+
+    /**
+     * Тест проверяет, что отставание считается от границы прохода до срока самой старой ожидающей Задачи.
+     */
+    @Test
+    void run__test_lag() {
+        final var job = job((boundary, chunkSize) -> 0, boundary -> Optional.of(boundary.minus(Duration.ofHours(2))));
+
+        job.run(BOUNDARY);
+
+        assertEquals(Duration.ofHours(2).toMillis(),
+                meterRegistry.get("taskira.test.lag").timeGauge().value(TimeUnit.MILLISECONDS));
+    }
+
+    private ChunkedTaskJob job(ChunkedTaskJob.ChunkAction action,
+            Function<Instant, Optional<Instant>> oldestPending) {
+        return new ChunkedTaskJob("taskira.test", "processed", CHUNK_SIZE, action, oldestPending, meterRegistry);
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.example.taskira.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConcurrencyLimitFilterTest {
+
+    private static final long BULK_MILLIS = 100;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new ConcurrencyLimitProperties(true, 4, 4,
+            4, 50, 100, 2.0, 0.2, 0.9, 0.75, 0.5), meterRegistry);
+
+    /**
+     * Тест проверяет, что чтение и изменение одной Задачи используют весь лимит, а сверх него получают 503.
+     */
+    @Test
+    void doFilter__test_critical_full_limit() throws Exception {
+        final var responses = nested(request("GET", "/tasks/1"), request("GET", "/tasks/2"),
+                request("PUT", "/tasks/3"), request("POST", "/tasks"), request("GET", "/tasks/4"));
+
+        assertEquals(List.of(200, 200, 200, 200, 503), statuses(responses));
+        assertNull(responses.get(3).getHeader("Retry-After"));
+        assertEquals("1", responses.get(4).getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("taskira.concurrency.rejected").tag("priority", "critical")
+                .counter().count());
+    }
+
+    /**
+     * Тест проверяет, что массовые операции и списки отклоняются раньше чтения одной Задачи.
+     */
+    @Test
+    void doFilter__test_shed_by_priority() throws Exception {
+        final var responses = nested(request("GET", "/tasks/1"), request("GET", "/tasks/2"),
+                request("POST", "/tasks/bulk/complete"), request("GET", "/tasks/export"), request("GET", "/tasks"),
+                request("GET", "/tasks/search"), request("DELETE", "/tasks/3"));
+
+        assertEquals(List.of(200, 200, 503, 503, 200, 503, 200), statuses(responses));
+        assertEquals(2.0, meterRegistry.get("taskira.concurrency.rejected").tag("priority", "bulk")
+                .counter().count());
+        assertEquals(1.0, meterRegistry.get("taskira.concurrency.rejected").tag("priority", "normal")
+                .counter().count());
+    }
+
+    /**
+     * Тест проверяет, что после завершения запросов лимит снова свободен.
+     */
+    @Test
+    void doFilter__test_release() throws Exception {
+        nested(request("GET", "/tasks/1"), request("GET", "/tasks/2"), request("GET", "/tasks/3"),
+                request("GET", "/tasks/4"));
+
+        assertEquals(0.0, meterRegistry.get("taskira.concurrency.in-flight").gauge().value());
+        assertEquals(List.of(200, 200, 200, 200), statuses(nested(request("GET", "/tasks/1"),
+                request("GET", "/tasks/2"), request("GET", "/tasks/3"), request("GET", "/tasks/4"))));
+    }
+
+    /**
+     * Тест проверяет, что запросы вне /tasks не ограничиваются.
+     */
+    @Test
+    void doFilter__test_other_paths() throws Exception {
+        final var responses = nested(request("GET", "/tasks/1"), request("GET", "/tasks/2"),
+                request("GET", "/tasks/3"), request("GET", "/tasks/4"), request("GET", "/actuator/prometheus"));
+
+        assertEquals(List.of(200, 200, 200, 200, 200), statuses(responses));
+    }
+
+    /**
+     * Тест проверяет, что долгая асинхронная выгрузка и массовая операция держат место в лимите до завершения,
+     * но не сдвигают базовую задержку, которая считается по коротким чтениям.
+     */
+    @Test
+    void doFilter__test_bulk_not_sampled() throws Exception {
+        final var registry = new SimpleMeterRegistry();
+        final var sampling = new ConcurrencyLimitFilter(new ConcurrencyLimitProperties(true, 4, 4, 4, 2, 1, 2.0, 0.2,
+                0.9, 0.75, 0.5), registry);
+        final var export = request("GET", "/tasks/export");
+        export.setAsyncSupported(true);
+        sampling.doFilter(export, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertEquals(1.0, registry.get("taskira.concurrency.in-flight").gauge().value());
+
+        for (var i = 0; i < 4; i++) {
+            sampling.doFilter(request("GET", "/tasks/" + i), new MockHttpServletResponse(), (req, res) -> {
+            });
+        }
+        sampling.doFilter(request("POST", "/tasks/bulk/complete"), new MockHttpServletResponse(),
+                (req, res) -> sleep(BULK_MILLIS));
+        sleep(BULK_MILLIS);
+        export.getAsyncContext().complete();
+
+        assertEquals(0.0, registry.get("taskira.concurrency.in-flight").gauge().value());
+        assertTrue(registry.get("taskira.concurrency.rtt").timeGauge().value(TimeUnit.MILLISECONDS) < BULK_MILLIS / 2);
+    }
+
+    /**
+     * Выполняет запросы вложенно: каждый следующий начинается, пока все предыдущие пропущенные еще выполняются.
+     */
+    private List<MockHttpServletResponse> nested(MockHttpServletRequest... requests) throws Exception {
+        final var responses = new ArrayList<MockHttpServletResponse>();
+        for (var ignored : requests) {
+            responses.add(new MockHttpServletResponse());
+        }
+        nested(List.of(requests), responses, 0);
+        return responses;
+    }
+
+    private void nested(List<MockHttpServletRequest> requests, List<MockHttpServletResponse> responses, int index)
+            throws Exception {
+        if (index == requests.size()) {
+            return;
+        }
+        final var passed = new boolean[1];
+        filter.doFilter(requests.get(index), responses.get(index), (req, res) -> {
+            passed[0] = true;
+            try {
+                nested(requests, responses, index + 1);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        if (!passed[0]) {
+            nested(requests, responses, index + 1);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<Integer> statuses(List<MockHttpServletResponse> responses) {
+        return responses.stream().map(MockHttpServletResponse::getStatus).toList();
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        return new MockHttpServletRequest(method, path);
+    }
+
+}
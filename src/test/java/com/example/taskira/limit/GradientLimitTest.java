@@ -0,0 +1,79 @@
+package com.example.taskira.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class GradientLimitTest {
+
+    private static final int WINDOW_SIZE = 10;
+
+    private final GradientLimit limit = new GradientLimit(new ConcurrencyLimitProperties(true, 20, 4, 100,
+            WINDOW_SIZE, 1000, 2.0, 0.5, 0.9, 0.8, 0.5));
+
+    /**
+     * Тест проверяет рост лимита, пока задержка не растет, и остановку роста на верхней границе.
+     */
+    @Test
+    void onSample__test_grows_with_stable_latency() {
+        window(10, 20);
+        final var grown = limit.getLimit();
+
+        assertTrue(grown > 20);
+        for (var i = 0; i < 200; i++) {
+            window(10, limit.getLimit());
+        }
+        assertEquals(100, limit.getLimit());
+    }
+
+    /**
+     * Тест проверяет снижение лимита до нижней границы, когда задержка растет вместе с параллельностью.
+     */
+    @Test
+    void onSample__test_shrinks_when_latency_grows() {
+        window(10, 20);
+        final var before = limit.getLimit();
+
+        window(100, before);
+
+        assertTrue(limit.getLimit() < before);
+        for (var i = 0; i < 50; i++) {
+            window(1000, limit.getLimit());
+        }
+        assertEquals(4, limit.getLimit());
+    }
+
+    /**
+     * Тест проверяет, что лимит не меняется, пока используется меньше половины лимита.
+     */
+    @Test
+    void onSample__test_application_limited() {
+        window(10, 20);
+        final var before = limit.getLimit();
+
+        window(10, 1);
+        window(1000, 1);
+
+        assertEquals(before, limit.getLimit());
+    }
+
+    /**
+     * Тест проверяет мгновенное снижение лимита при отказе нижележащего ресурса.
+     */
+    @Test
+    void onDropped__test_backoff() {
+        limit.onDropped();
+
+        assertEquals(18, limit.getLimit());
+    }
+
+    private void window(long rttMillis, int inFlight) {
+        for (var i = 0; i < WINDOW_SIZE; i++) {
+            limit.onSample(TimeUnit.MILLISECONDS.toNanos(rttMillis), inFlight);
+        }
+    }
+
+}
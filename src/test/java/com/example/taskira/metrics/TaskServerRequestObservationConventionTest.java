@@ -0,0 +1,38 @@
+package com.example.taskira.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.taskira.repository.TaskSortProperty;
+
+class TaskServerRequestObservationConventionTest {
+
+    private final TaskServerRequestObservationConvention convention = new TaskServerRequestObservationConvention();
+
+    /**
+     * Тест проверяет, что каждое поле сортировки попадает в тег как есть, а неизвестное - как other.
+     */
+    @Test
+    void getLowCardinalityKeyValues__test_sort_property() {
+        for (var property : TaskSortProperty.values()) {
+            assertEquals(property.getAttribute(), sortProperty(property.getAttribute()));
+        }
+        assertEquals("other", sortProperty("description"));
+    }
+
+    private String sortProperty(String property) {
+        final var request = new MockHttpServletRequest("GET", "/tasks");
+        request.setParameter("property", property);
+        final var context = new ServerRequestObservationContext(request, new MockHttpServletResponse());
+        return convention.getLowCardinalityKeyValues(context).stream()
+                .filter(keyValue -> keyValue.getKey().equals("sort.property"))
+                .findFirst()
+                .orElseThrow()
+                .getValue();
+    }
+
+}
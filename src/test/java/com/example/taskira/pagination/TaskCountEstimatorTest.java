@@ -0,0 +1,46 @@
+package com.example.taskira.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class TaskCountEstimatorTest {
+
+    private final JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+    private final TaskCountEstimator estimator = new TaskCountEstimator(jdbcTemplate,
+            new PagingProperties(Duration.ofMinutes(1)));
+
+    /**
+     * Тест проверяет, что оценка читается только при первом обращении, а в пределах времени жизни берется из кэша.
+     */
+    @Test
+    void estimate__test_lazy_cached() {
+        when(jdbcTemplate.queryForObject(contains("reltuples"), eq(Long.class))).thenReturn(42L);
+        Mockito.verifyNoInteractions(jdbcTemplate);
+
+        assertEquals(42L, estimator.estimate());
+        assertEquals(42L, estimator.estimate());
+
+        Mockito.verify(jdbcTemplate, Mockito.times(1)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    /**
+     * Тест проверяет подсчет count(*), если статистики по таблице еще нет.
+     */
+    @Test
+    void estimate__test_count_without_statistics() {
+        when(jdbcTemplate.queryForObject(contains("reltuples"), eq(Long.class))).thenReturn(-1L);
+        when(jdbcTemplate.queryForObject(contains("count(*)"), eq(Long.class))).thenReturn(7L);
+
+        assertEquals(7L, estimator.estimate());
+    }
+
+}
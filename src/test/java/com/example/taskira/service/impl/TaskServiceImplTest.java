@@ -2,20 +2,48 @@ package com.example.taskira.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.example.taskira.cache.TaskCache;
+import com.example.taskira.cache.TaskCacheProperties;
+import com.example.taskira.cache.TaskInvalidationPublisher;
+import com.example.taskira.exception.ArchivedTaskException;
 import com.example.taskira.exception.EntityNotFoundException;
+import com.example.taskira.exception.InvalidRequestParamException;
+import com.example.taskira.exception.VersionConflictException;
+import com.example.taskira.pagination.TaskCountEstimator;
+import com.example.taskira.pagination.TaskCursor;
+import com.example.taskira.pagination.TotalMode;
+import com.example.taskira.repository.TaskFilter;
 import com.example.taskira.repository.TaskRepository;
+import com.example.taskira.repository.TaskSortProperty;
 import com.example.taskira.repository.entity.TaskEntity;
 import com.example.taskira.service.TaskService;
 import com.example.taskira.utils.TaskDataUtils;
@@ -24,10 +52,23 @@ class TaskServiceImplTest {
 
     private final TaskService taskService;
     private final TaskRepository taskRepository;
+    private final TaskCountEstimator taskCountEstimator;
+    private final TaskInvalidationPublisher invalidationPublisher;
 
     public TaskServiceImplTest() {
         taskRepository = Mockito.mock(TaskRepository.class);
-        taskService = new TaskServiceImpl(taskRepository);
+        taskCountEstimator = Mockito.mock(TaskCountEstimator.class);
+        invalidationPublisher = Mockito.mock(TaskInvalidationPublisher.class);
+        taskService = new TaskServiceImpl(taskRepository, taskCountEstimator,
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)),
+                new TaskCache(new TaskCacheProperties(true, 100, Duration.ofMinutes(5), Duration.ofSeconds(30), null),
+                        new SimpleMeterRegistry(), Optional.of(invalidationPublisher)));
+
+        when(taskRepository.save(any(TaskEntity.class))).then(invocation -> {
+            TaskEntity task = invocation.getArgument(0);
+            task.setId(1L);
+            return task;
+        });
     }
 
     /**
@@ -36,7 +77,7 @@ class TaskServiceImplTest {
     @Test
     void findTasks__test_usage_count() {
         taskService.findTasks(TaskDataUtils.testParam());
-        Mockito.verify(taskRepository, Mockito.times(1)).findAll(any(Pageable.class));
+        Mockito.verify(taskRepository, Mockito.times(1)).findPage(any(TaskFilter.class), any(Pageable.class));
     }
 
     /**
@@ -44,7 +85,7 @@ class TaskServiceImplTest {
      */
     @Test
     void findTasks__test_no_mutation_result_page() {
-        when(taskRepository.findAll(any(Pageable.class))).thenReturn(TaskDataUtils.testPage());
+        when(taskRepository.findPage(any(TaskFilter.class), any(Pageable.class))).thenReturn(TaskDataUtils.testPage());
 
         final var actualPage = taskService.findTasks(TaskDataUtils.testParam());
         final var expectedPage = TaskDataUtils.testPage();
@@ -71,15 +112,247 @@ class TaskServiceImplTest {
         taskService.findTasks(pageRequestParam);
 
         final var pageableParamsArgCaptor = ArgumentCaptor.forClass(Pageable.class);
-        Mockito.verify(taskRepository).findAll(pageableParamsArgCaptor.capture());
+        Mockito.verify(taskRepository).findPage(eq(TaskFilter.NONE), pageableParamsArgCaptor.capture());
 
         final var pageableParamsArg = pageableParamsArgCaptor.getValue();
         assertEquals(expectedPage, pageableParamsArg.getPageNumber());
         assertEquals(expectedSize, pageableParamsArg.getPageSize());
-        final var sortFromPageRequestParam = Sort.by(expectedDirection, expectedProperty);
+        final var sortFromPageRequestParam = Sort.by(expectedDirection, expectedProperty)
+                .and(Sort.by(expectedDirection, "id"));
         assertEquals(sortFromPageRequestParam, pageableParamsArg.getSort());
     }
 
+    /**
+     * Тест проверяет, что без подсчета общего кол-ва не выполняется count-запрос.
+     */
+    @Test
+    void findTasks__test_total_mode_none() {
+        when(taskRepository.findSlice(any(TaskFilter.class), any(Pageable.class))).thenReturn(TaskDataUtils.testSlice());
+
+        final var slice = taskService.findTasks(TaskDataUtils.createPageRequestParam(0, 10, "title",
+                Sort.Direction.ASC, TotalMode.NONE));
+
+        Mockito.verify(taskRepository, Mockito.never()).findPage(any(), any());
+        Mockito.verifyNoInteractions(taskCountEstimator);
+        assertFalse(slice instanceof Page);
+        assertTrue(slice.hasNext());
+    }
+
+    /**
+     * Тест проверяет, что с archived = true Задачи читаются из архива.
+     */
+    @Test
+    void findTasks__test_archived() {
+        final var param = TaskDataUtils.createPageRequestParam(0, 10, "dueDate", Sort.Direction.ASC, TotalMode.NONE);
+        param.setArchived(true);
+        when(taskRepository.findArchived(any(TaskFilter.class), any(Pageable.class), eq(false)))
+                .thenReturn(TaskDataUtils.testSlice());
+
+        final var slice = taskService.findTasks(param);
+
+        Mockito.verify(taskRepository, Mockito.never()).findSlice(any(), any());
+        Mockito.verify(taskRepository, Mockito.never()).findPage(any(), any());
+        assertTrue(slice.hasNext());
+    }
+
+    /**
+     * Тест проверяет, что без явного totalMode общее кол-во архивных Задач не считается.
+     */
+    @Test
+    void findTasks__test_archived_default_total_mode_none() {
+        final var param = TaskDataUtils.createPageRequestParam(0, 10, "dueDate", Sort.Direction.ASC, null);
+        param.setArchived(true);
+        when(taskRepository.findArchived(any(TaskFilter.class), any(Pageable.class), eq(false)))
+                .thenReturn(TaskDataUtils.testSlice());
+
+        taskService.findTasks(param);
+
+        assertEquals(TotalMode.NONE, param.getTotalMode());
+        Mockito.verify(taskRepository).findArchived(any(TaskFilter.class), any(Pageable.class), eq(false));
+    }
+
+    /**
+     * Тест проверяет, что для архива отклоняются сочетания фильтра и сортировки без индекса в task_archive.
+     */
+    @Test
+    void findTasks__test_archived_unsupported_plan() {
+        final var param = TaskDataUtils.createPageRequestParam(0, 10, "id", Sort.Direction.ASC, TotalMode.NONE);
+        param.setArchived(true);
+        param.setCompleted(false);
+
+        final var exception = assertThrows(InvalidRequestParamException.class, () -> taskService.findTasks(param));
+        assertTrue(exception.getMessage().contains("for archived tasks"));
+        Mockito.verifyNoInteractions(taskRepository);
+    }
+
+    /**
+     * Тест проверяет, что оценка общего кол-ва для архива не поддерживается.
+     */
+    @Test
+    void findTasks__test_archived_total_mode_estimated() {
+        final var param = TaskDataUtils.createPageRequestParam(0, 10, "dueDate", Sort.Direction.ASC,
+                TotalMode.ESTIMATED);
+        param.setArchived(true);
+
+        assertThrows(InvalidRequestParamException.class, () -> taskService.findTasks(param));
+        Mockito.verifyNoInteractions(taskRepository);
+    }
+
+    /**
+     * Тест проверяет, что оценка общего кол-ва берется из кэша статистики.
+     */
+    @Test
+    void findTasks__test_total_mode_estimated() {
+        when(taskRepository.findSlice(any(TaskFilter.class), any(Pageable.class))).thenReturn(TaskDataUtils.testSlice());
+        when(taskCountEstimator.estimate()).thenReturn(1000L);
+
+        final var slice = taskService.findTasks(TaskDataUtils.createPageRequestParam(0, 10, "title",
+                Sort.Direction.ASC, TotalMode.ESTIMATED));
+
+        Mockito.verify(taskRepository, Mockito.never()).findPage(any(), any());
+        assertEquals(1000L, ((Page<TaskEntity>) slice).getTotalElements());
+    }
+
+    /**
+     * Тест проверяет, что устаревшая оценка не противоречит прочитанной странице.
+     */
+    @Test
+    void findTasks__test_total_mode_estimated_stale() {
+        when(taskRepository.findSlice(any(TaskFilter.class), any(Pageable.class))).thenReturn(TaskDataUtils.testSlice());
+        when(taskCountEstimator.estimate()).thenReturn(0L);
+
+        final var page = (Page<TaskEntity>) taskService.findTasks(TaskDataUtils.createPageRequestParam(0, 10,
+                "title", Sort.Direction.ASC, TotalMode.ESTIMATED));
+
+        assertEquals(4L, page.getTotalElements());
+        assertTrue(page.hasNext());
+    }
+
+    /**
+     * Тест проверяет передачу фильтра в репозиторий.
+     */
+    @Test
+    void findTasks__test_filter_passed() {
+        when(taskRepository.findPage(any(TaskFilter.class), any(Pageable.class))).thenReturn(TaskDataUtils.testPage());
+        final var param = TaskDataUtils.createPageRequestParam(0, 10, "dueDate", Sort.Direction.ASC);
+        param.setCompleted(false);
+        param.setDueAfter(Instant.parse("2024-01-01T00:00:00.00Z"));
+        param.setDueBefore(Instant.parse("2024-02-01T00:00:00.00Z"));
+
+        taskService.findTasks(param);
+
+        Mockito.verify(taskRepository).findPage(eq(new TaskFilter(false, Instant.parse("2024-01-01T00:00:00.00Z"),
+                Instant.parse("2024-02-01T00:00:00.00Z"), null)), any(Pageable.class));
+    }
+
+    /**
+     * Тест проверяет исключение для сочетания фильтра и сортировки, не обслуживаемого индексом.
+     */
+    @Test
+    void findTasks__test_unsupported_filter_sort() {
+        final var param = TaskDataUtils.createPageRequestParam(0, 10, "dueDate", Sort.Direction.ASC);
+        param.setTitlePrefix("title");
+
+        assertThrows(InvalidRequestParamException.class, () -> taskService.findTasks(param));
+        Mockito.verifyNoInteractions(taskRepository);
+    }
+
+    /**
+     * Тест проверяет исключение, если граница срока задана в обратном порядке.
+     */
+    @Test
+    void findTasks__test_invalid_due_range() {
+        final var param = TaskDataUtils.createPageRequestParam(0, 10, "dueDate", Sort.Direction.ASC);
+        param.setDueAfter(Instant.parse("2024-02-01T00:00:00.00Z"));
+        param.setDueBefore(Instant.parse("2024-01-01T00:00:00.00Z"));
+
+        assertThrows(InvalidRequestParamException.class, () -> taskService.findTasks(param));
+    }
+
+    /**
+     * Тест проверяет, что оценка общего кол-ва не применяется вместе с фильтром.
+     */
+    @Test
+    void findTasks__test_total_mode_estimated_with_filter() {
+        final var param = TaskDataUtils.createPageRequestParam(0, 10, "id", Sort.Direction.ASC,
+                TotalMode.ESTIMATED);
+        param.setCompleted(true);
+
+        assertThrows(InvalidRequestParamException.class, () -> taskService.findTasks(param));
+        Mockito.verifyNoInteractions(taskCountEstimator);
+    }
+
+    /**
+     * Тест проверяет передачу запроса, ограничения кандидатов и страницы в репозиторий.
+     */
+    @Test
+    void searchTasks__test_query_passed() {
+        when(taskRepository.search(any(), anyInt(), any(Pageable.class))).thenReturn(TaskDataUtils.testSearchSlice(false));
+
+        taskService.searchTasks(TaskDataUtils.createTaskSearchParam("  title -done ", 2, 20));
+
+        Mockito.verify(taskRepository).search("title -done", TaskServiceImpl.SEARCH_MAX_CANDIDATES,
+                PageRequest.of(2, 20));
+    }
+
+    /**
+     * Тест проверяет запрос первой страницы по курсору: лишняя запись отбрасывается и означает наличие следующей.
+     */
+    @Test
+    void findTasksByCursor__test_first_page_has_next() {
+        when(taskRepository.findAfter(eq(TaskFilter.NONE), eq(TaskSortProperty.TITLE), eq(Sort.Direction.ASC), isNull(),
+                isNull(), eq(3)))
+                .thenReturn(TaskDataUtils.testList());
+
+        final var slice = taskService.findTasks(TaskDataUtils.createCursorPageRequestParam(null, 2, "title",
+                Sort.Direction.ASC));
+
+        assertTrue(slice.hasNext());
+        assertEquals(2, slice.getNumberOfElements());
+        assertEquals(2L, slice.getContent().get(1).getId());
+    }
+
+    /**
+     * Тест проверяет передачу ключа из курсора в репозиторий.
+     */
+    @Test
+    void findTasksByCursor__test_cursor_key_passed() {
+        final var last = TaskDataUtils.createTaskResponse(2L, "title2", "description2", "2024-02-18T18:35:24.00Z",
+                false);
+        final var cursor = TaskCursor.after(TaskSortProperty.DUE_DATE, Sort.Direction.DESC, last).encode();
+        when(taskRepository.findAfter(any(), any(), any(), any(), any(), anyInt())).thenReturn(TaskDataUtils.testList());
+
+        final var slice = taskService.findTasks(TaskDataUtils.createCursorPageRequestParam(cursor, 10, "dueDate",
+                Sort.Direction.DESC));
+
+        Mockito.verify(taskRepository).findAfter(TaskFilter.NONE, TaskSortProperty.DUE_DATE, Sort.Direction.DESC,
+                Instant.parse("2024-02-18T18:35:24.00Z"), 2L, 11);
+        assertFalse(slice.hasNext());
+        assertEquals(3, slice.getNumberOfElements());
+    }
+
+    /**
+     * Тест проверяет исключение, если курсор выдан для другой сортировки.
+     */
+    @Test
+    void findTasksByCursor__test_cursor_sort_mismatch() {
+        final var cursor = TaskCursor.after(TaskSortProperty.TITLE, Sort.Direction.ASC,
+                TaskDataUtils.testTaskResponse()).encode();
+        final var param = TaskDataUtils.createCursorPageRequestParam(cursor, 10, "dueDate", Sort.Direction.ASC);
+
+        assertThrows(InvalidRequestParamException.class, () -> taskService.findTasks(param));
+    }
+
+    /**
+     * Тест проверяет исключение в случае поврежденного курсора.
+     */
+    @Test
+    void findTasksByCursor__test_malformed_cursor() {
+        final var param = TaskDataUtils.createCursorPageRequestParam("not-a-cursor", 10, "title", Sort.Direction.ASC);
+
+        assertThrows(InvalidRequestParamException.class, () -> taskService.findTasks(param));
+    }
+
     /**
      * Тест проверяет кол-во вызовов репозитория.
      */
@@ -123,6 +396,47 @@ class TaskServiceImplTest {
         assertEqualsTaskEntity(expectedTask, actualTask);
     }
 
+    /**
+     * Тест проверяет, что пакет Задач вставляется одним вызовом репозитория в исходном порядке.
+     */
+    @Test
+    void createAll__test_single_insert_in_order() {
+        final var params = List.of(
+                TaskDataUtils.createTaskCreateParam("title1", "description1", Instant.parse("2024-02-18T18:35:24.00Z")),
+                TaskDataUtils.createTaskCreateParam("title2", "description2", Instant.parse("2024-02-19T18:35:24.00Z")));
+        when(taskRepository.insertAll(anyList())).then(invocation -> invocation.getArgument(0));
+
+        final var created = taskService.createAll(params);
+
+        Mockito.verify(taskRepository, Mockito.times(1)).insertAll(anyList());
+        Mockito.verify(taskRepository, Mockito.never()).save(any(TaskEntity.class));
+        assertEquals(2, created.size());
+        assertEquals("title1", created.get(0).getTitle());
+        assertEquals("title2", created.get(1).getTitle());
+        assertFalse(created.get(1).isCompleted());
+    }
+
+    /**
+     * Тест проверяет, что порция загрузки уходит в COPY целиком и сохраняет признак завершенности.
+     */
+    @Test
+    void importChunk__test_single_copy() {
+        final var params = List.of(
+                TaskDataUtils.createTaskUpdateParam("title1", "description1", Instant.parse("2024-02-18T18:35:24.00Z"),
+                        true),
+                TaskDataUtils.createTaskUpdateParam("title2", "description2", Instant.parse("2024-02-19T18:35:24.00Z"),
+                        false));
+        final ArgumentCaptor<List<TaskEntity>> tasksCaptor = ArgumentCaptor.forClass(List.class);
+        when(taskRepository.copyAll(tasksCaptor.capture())).then(invocation -> invocation.getArgument(0));
+
+        final var imported = taskService.importChunk(params);
+
+        assertEquals(2, imported);
+        Mockito.verify(taskRepository, Mockito.never()).insertAll(anyList());
+        assertTrue(tasksCaptor.getValue().get(0).isCompleted());
+        assertFalse(tasksCaptor.getValue().get(1).isCompleted());
+    }
+
     /**
      * Тест проверяет кол-во вызовов репозитория.
      */
@@ -144,6 +458,20 @@ class TaskServiceImplTest {
         assertEquals("Task with id = 3 not found", exception.getMessage());
     }
 
+    /**
+     * Тест проверяет, что при промахе Задача ищется в архиве.
+     */
+    @Test
+    void findById__test_archived() {
+        final Long testTaskId = 3L;
+        when(taskRepository.findArchivedById(testTaskId)).thenReturn(Optional.of(TaskDataUtils.testTaskEntity()));
+
+        final var actualTask = taskService.findById(testTaskId);
+
+        Mockito.verify(taskRepository, Mockito.times(1)).findById(testTaskId);
+        assertEqualsTaskEntity(TaskDataUtils.testTaskEntity(), actualTask);
+    }
+
     /**
      * Тест проверяет отсутствие мутаций у результата.
      */
@@ -159,17 +487,34 @@ class TaskServiceImplTest {
     }
 
     /**
-     * Тест проверяет кол-во вызовов репозитория.
+     * Тест проверяет, что удаление выполняется одним запросом без предварительного чтения.
      */
     @Test
     void delete__test_usage_count() {
         final Long testTaskId = 3L;
 
-        when(taskRepository.findById(testTaskId)).thenReturn(Optional.of(TaskDataUtils.testTaskEntity()));
-        taskService.delete(testTaskId);
+        when(taskRepository.deleteTaskById(testTaskId)).thenReturn(1);
+        taskService.delete(testTaskId, null);
 
-        Mockito.verify(taskRepository, Mockito.times(1)).findById(testTaskId);
-        Mockito.verify(taskRepository, Mockito.times(1)).delete(any(TaskEntity.class));
+        Mockito.verify(taskRepository, Mockito.times(1)).deleteTaskById(testTaskId);
+        Mockito.verify(taskRepository, Mockito.never()).findById(any());
+        Mockito.verify(taskRepository, Mockito.never()).delete(any(TaskEntity.class));
+        Mockito.verify(invalidationPublisher).publishDeleted(List.of(testTaskId));
+    }
+
+    /**
+     * Тест проверяет, что Задача, не найденная среди активных, удаляется из архива.
+     */
+    @Test
+    void delete__test_archived() {
+        final Long testTaskId = 3L;
+        when(taskRepository.deleteArchivedById(testTaskId)).thenReturn(1);
+
+        taskService.delete(testTaskId, null);
+
+        Mockito.verify(taskRepository, Mockito.times(1)).deleteTaskById(testTaskId);
+        Mockito.verify(taskRepository, Mockito.times(1)).deleteArchivedById(testTaskId);
+        Mockito.verify(invalidationPublisher).publishDeleted(List.of(testTaskId));
     }
 
     /**
@@ -178,52 +523,86 @@ class TaskServiceImplTest {
     @Test
     void delete__test_entity_not_found_exception() {
         final Long testTaskId = 3L;
-        final var exception = assertThrows(EntityNotFoundException.class, () -> taskService.delete(testTaskId));
+        final var exception = assertThrows(EntityNotFoundException.class, () -> taskService.delete(testTaskId, null));
         assertEquals("Task with id = 3 not found", exception.getMessage());
     }
 
     /**
-     * Тест проверяет отсутствие мутаций.
+     * Тест проверяет, что обновление выполняется одним запросом без предварительного чтения.
      */
     @Test
-    void delete__test_no_mutation_on_task_for_delete() {
+    void update__test_usage_count() {
         final Long testTaskId = 3L;
-        when(taskRepository.findById(testTaskId)).thenReturn(Optional.of(TaskDataUtils.testTaskEntity()));
 
-        taskService.delete(testTaskId);
+        when(taskRepository.updateReturning(any(TaskEntity.class), isNull())).thenReturn(Optional.of(TaskDataUtils.testTaskEntity()));
+        taskService.update(testTaskId, TaskDataUtils.testTaskUpdateParam(), null);
 
-        final var taskEntityToDeleteArgCaptor = ArgumentCaptor.forClass(TaskEntity.class);
-        Mockito.verify(taskRepository).delete(taskEntityToDeleteArgCaptor.capture());
+        Mockito.verify(taskRepository, Mockito.times(1)).updateReturning(any(TaskEntity.class), isNull());
+        Mockito.verify(taskRepository, Mockito.never()).findById(any());
+        Mockito.verify(taskRepository, Mockito.never()).save(any(TaskEntity.class));
+    }
 
-        final var expectedTaskEntity = TaskDataUtils.testTaskEntity();
-        final var actualTaskEntityArg = taskEntityToDeleteArgCaptor.getValue();
+    /**
+     * Тест проверяет исключение в случае отсутствия Задачи.
+     */
+    @Test
+    void update__test_entity_not_found_exception() {
+        final Long testTaskId = 3L;
+        final var exception = assertThrows(EntityNotFoundException.class, () -> taskService.update(testTaskId,
+                TaskDataUtils.testTaskUpdateParam(), null));
+        assertEquals("Task with id = 3 not found", exception.getMessage());
+    }
 
-        assertEqualsTaskEntity(expectedTaskEntity, actualTaskEntityArg);
+    /**
+     * Тест проверяет конфликт версий, если Задача существует, но версия устарела.
+     */
+    @Test
+    void update__test_version_conflict_exception() {
+        final Long testTaskId = 3L;
+        when(taskRepository.existsById(testTaskId)).thenReturn(true);
+
+        final var exception = assertThrows(VersionConflictException.class, () -> taskService.update(testTaskId,
+                TaskDataUtils.testTaskUpdateParam(), List.of(4L)));
+        assertEquals("Task with id = 3 has version other than [4]", exception.getMessage());
+        Mockito.verify(taskRepository).updateReturning(any(TaskEntity.class), eq(List.of(4L)));
     }
 
     /**
-     * Тест проверяет кол-во вызовов репозитория.
+     * Тест проверяет, что изменение архивной Задачи - конфликт, а не отсутствие Задачи.
      */
     @Test
-    void update__test_usage_count() {
+    void update__test_archived_conflict_exception() {
         final Long testTaskId = 3L;
+        when(taskRepository.findArchivedVersionById(testTaskId)).thenReturn(Optional.of(4L));
 
-        when(taskRepository.findById(testTaskId)).thenReturn(Optional.of(TaskDataUtils.testTaskEntity()));
-        taskService.update(testTaskId, TaskDataUtils.testTaskUpdateParam());
+        final var exception = assertThrows(ArchivedTaskException.class, () -> taskService.update(testTaskId,
+                TaskDataUtils.testTaskUpdateParam(), List.of(4L)));
+        assertEquals("Task with id = 3 is archived, archived tasks are read-only", exception.getMessage());
+    }
 
-        Mockito.verify(taskRepository, Mockito.times(1)).findById(testTaskId);
-        Mockito.verify(taskRepository, Mockito.times(1)).save(any(TaskEntity.class));
+    /**
+     * Тест проверяет, что удаление архивной Задачи по устаревшей версии - конфликт версий, а не отсутствие Задачи.
+     */
+    @Test
+    void delete__test_archived_version_conflict_exception() {
+        final Long testTaskId = 3L;
+        when(taskRepository.findArchivedVersionById(testTaskId)).thenReturn(Optional.of(5L));
+
+        assertThrows(VersionConflictException.class, () -> taskService.delete(testTaskId, List.of(4L)));
+        Mockito.verify(taskRepository).deleteArchivedByIdAndVersionIn(testTaskId, List.of(4L));
     }
 
     /**
-     * Тест проверяет исключение в случае отсутствия Задачи.
+     * Тест проверяет удаление с проверкой версии.
      */
     @Test
-    void update__test_entity_not_found_exception() {
+    void delete__test_version_conflict_exception() {
         final Long testTaskId = 3L;
-        final var exception = assertThrows(EntityNotFoundException.class, () -> taskService.update(testTaskId,
-                TaskDataUtils.testTaskUpdateParam()));
-        assertEquals("Task with id = 3 not found", exception.getMessage());
+        when(taskRepository.existsById(testTaskId)).thenReturn(true);
+
+        assertThrows(VersionConflictException.class, () -> taskService.delete(testTaskId, List.of(4L)));
+        Mockito.verify(taskRepository).deleteTaskByIdAndVersionIn(testTaskId, List.of(4L));
+        Mockito.verify(taskRepository, Mockito.never()).deleteTaskById(any());
     }
 
     /**
@@ -237,14 +616,14 @@ class TaskServiceImplTest {
         final Instant expectedDueDate = Instant.parse("2024-02-19T00:00:00.00Z");
         final boolean expectedCompleted = true;
 
-        when(taskRepository.findById(testTaskId)).thenReturn(Optional.of(TaskDataUtils.testTaskEntity()));
+        when(taskRepository.updateReturning(any(TaskEntity.class), isNull())).thenReturn(Optional.of(TaskDataUtils.testTaskEntity()));
 
         final var updateParam = TaskDataUtils.createTaskUpdateParam(expectedTitle, expectedDescription,
                 expectedDueDate, expectedCompleted);
-        taskService.update(testTaskId, updateParam);
+        taskService.update(testTaskId, updateParam, null);
 
         final var updTaskEntityArgCaptor = ArgumentCaptor.forClass(TaskEntity.class);
-        Mockito.verify(taskRepository).save(updTaskEntityArgCaptor.capture());
+        Mockito.verify(taskRepository).updateReturning(updTaskEntityArgCaptor.capture(), isNull());
 
         final var updTaskEntityArg = updTaskEntityArgCaptor.getValue();
         assertEquals(testTaskId, updTaskEntityArg.getId());
@@ -265,13 +644,12 @@ class TaskServiceImplTest {
         final Instant expectedDueDate = Instant.parse("2024-02-19T00:00:00.00Z");
         final boolean expectedCompleted = true;
 
-        var testTaskEntity = TaskDataUtils.testTaskEntity();
-        when(taskRepository.findById(testTaskId)).thenReturn(Optional.of(testTaskEntity));
-        when(taskRepository.save(any(TaskEntity.class))).thenReturn(testTaskEntity);
+        when(taskRepository.updateReturning(any(TaskEntity.class), isNull()))
+                .then(invocation -> Optional.of(invocation.getArgument(0)));
 
         final var updateParam = TaskDataUtils.createTaskUpdateParam(expectedTitle, expectedDescription,
                 expectedDueDate, expectedCompleted);
-        final var actualTaskEntity = taskService.update(testTaskId, updateParam);
+        final var actualTaskEntity = taskService.update(testTaskId, updateParam, null);
 
         assertEquals(testTaskId, actualTaskEntity.getId());
         assertEquals(expectedTitle, actualTaskEntity.getTitle());
@@ -280,6 +658,85 @@ class TaskServiceImplTest {
         assertEquals(expectedCompleted, actualTaskEntity.isCompleted());
     }
 
+    /**
+     * Тест проверяет разбиение большого списка идентификаторов на порции и суммирование затронутых строк.
+     */
+    @Test
+    void completeAll__test_chunked() {
+        final var ids = LongStream.rangeClosed(1, TaskServiceImpl.BULK_CHUNK_SIZE * 2L + 1).boxed().toList();
+        when(taskRepository.completeByIds(anyList())).then(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        final var affected = taskService.completeAll(ids);
+
+        Mockito.verify(taskRepository, Mockito.times(3)).completeByIds(anyList());
+        assertEquals(ids.size(), affected);
+    }
+
+    /**
+     * Тест проверяет передачу сдвига в секундах и отбрасывание повторяющихся идентификаторов.
+     */
+    @Test
+    void shiftDueDate__test_seconds_and_distinct_ids() {
+        when(taskRepository.shiftDueDateByIds(anyList(), anyDouble())).thenReturn(2);
+
+        final var affected = taskService.shiftDueDate(List.of(1L, 2L, 1L), Duration.ofHours(-36));
+
+        Mockito.verify(taskRepository).shiftDueDateByIds(List.of(1L, 2L), -129600d);
+        assertEquals(2L, affected);
+    }
+
+    /**
+     * Тест проверяет удаление порциями до первой неполной порции.
+     */
+    @Test
+    void deleteCompleted__test_chunked_until_partial_chunk() {
+        final var dueBefore = Instant.parse("2024-01-01T00:00:00.00Z");
+        when(taskRepository.deleteCompletedDueBefore(dueBefore, TaskServiceImpl.BULK_CHUNK_SIZE))
+                .thenReturn(TaskServiceImpl.BULK_CHUNK_SIZE, TaskServiceImpl.BULK_CHUNK_SIZE, 7);
+        when(taskRepository.deleteArchivedDueBefore(dueBefore, TaskServiceImpl.BULK_CHUNK_SIZE)).thenReturn(3);
+
+        final var affected = taskService.deleteCompleted(dueBefore);
+
+        Mockito.verify(taskRepository, Mockito.times(3)).deleteCompletedDueBefore(dueBefore,
+                TaskServiceImpl.BULK_CHUNK_SIZE);
+        Mockito.verify(taskRepository, Mockito.times(1)).deleteArchivedDueBefore(dueBefore,
+                TaskServiceImpl.BULK_CHUNK_SIZE);
+        assertEquals(TaskServiceImpl.BULK_CHUNK_SIZE * 2L + 7 + 3, affected);
+        Mockito.verify(invalidationPublisher, Mockito.times(4)).publishAll();
+    }
+
+    /**
+     * Тест проверяет, что захваченные просроченные Задачи отмечаются одним запросом и вытесняются из кэша.
+     */
+    @Test
+    void processOverdue__test_claimed_marked() {
+        final var now = Instant.parse("2024-04-01T00:00:00.00Z");
+        when(taskRepository.claimOverdue(now, 10)).thenReturn(TaskDataUtils.testList());
+
+        final var tasks = taskService.processOverdue(now, 10);
+
+        Mockito.verify(taskRepository).markOverdueByIds(List.of(1L, 2L, 3L), now);
+        Mockito.verify(invalidationPublisher).publishDeleted(List.of(1L, 2L, 3L));
+        assertEquals(3, tasks.size());
+        tasks.forEach(task -> {
+            assertEquals(now, task.getOverdueAt());
+            assertEquals(1L, task.getVersion());
+        });
+    }
+
+    /**
+     * Тест проверяет, что без захваченных Задач ничего не обновляется.
+     */
+    @Test
+    void processOverdue__test_nothing_claimed() {
+        final var now = Instant.parse("2024-04-01T00:00:00.00Z");
+        when(taskRepository.claimOverdue(now, 10)).thenReturn(List.of());
+
+        assertTrue(taskService.processOverdue(now, 10).isEmpty());
+        Mockito.verify(taskRepository, Mockito.never()).markOverdueByIds(anyList(), any());
+        Mockito.verifyNoInteractions(invalidationPublisher);
+    }
+
     private void assertEqualsTaskEntity(TaskEntity expected, TaskEntity actual) {
         assertEquals(expected.getId(), actual.getId());
         assertEquals(expected.getTitle(), actual.getTitle());
@@ -288,4 +745,4 @@ class TaskServiceImplTest {
         assertEquals(expected.isCompleted(), actual.isCompleted());
     }
 
-}
\ No newline at end of file
+}
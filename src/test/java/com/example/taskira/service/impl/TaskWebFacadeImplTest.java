@@ -1,37 +1,77 @@
 package com.example.taskira.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
 import com.example.taskira.dto.in.PageRequestParam;
 import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.in.TaskExportParam;
+import com.example.taskira.dto.in.TaskSearchParam;
 import com.example.taskira.dto.in.TaskUpdateParam;
 import com.example.taskira.dto.out.TaskResponse;
 import com.example.taskira.exception.EntityNotFoundException;
+import com.example.taskira.exception.InvalidRequestParamException;
+import com.example.taskira.export.TaskExportFormat;
+import com.example.taskira.importer.TaskImportFormat;
+import com.example.taskira.importer.TaskImportProperties;
+import com.example.taskira.importer.TaskImporter;
+import com.example.taskira.pagination.TotalMode;
+import com.example.taskira.repository.TaskSortProperty;
 import com.example.taskira.repository.entity.TaskEntity;
 import com.example.taskira.service.TaskService;
 import com.example.taskira.service.TaskWebFacade;
 import com.example.taskira.utils.TaskDataUtils;
+import com.example.taskira.writebehind.TaskWriteBehind;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.validation.Validation;
 
 class TaskWebFacadeImplTest {
 
     private final TaskWebFacade taskWebFacade;
     private final TaskService taskService;
+    private final TaskWriteBehind taskWriteBehind;
 
     public TaskWebFacadeImplTest() {
         taskService = Mockito.mock(TaskService.class);
-        taskWebFacade = new TaskWebFacadeImpl(taskService);
+        final var validator = Validation.buildDefaultValidatorFactory().getValidator();
+        final var objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        final var taskImporter = new TaskImporter(taskService, validator, objectMapper,
+                new TaskImportProperties(null, null, null, 2, Duration.ofSeconds(10)));
+        taskWriteBehind = Mockito.mock(TaskWriteBehind.class);
+        taskWebFacade = new TaskWebFacadeImpl(taskService, validator, objectMapper, taskImporter,
+                new StaticListableBeanFactory(Map.of("taskWriteBehind", taskWriteBehind))
+                        .getBeanProvider(TaskWriteBehind.class));
     }
 
     /**
@@ -85,6 +125,82 @@ class TaskWebFacadeImplTest {
         }
     }
 
+    /**
+     * Тест проверяет, что пустая страница отдается с пустым, а не отсутствующим списком.
+     */
+    @Test
+    void findTasks__test_empty_page() {
+        when(taskService.findTasks(any(PageRequestParam.class)))
+                .thenReturn(Page.empty(TaskDataUtils.testPageRequest()));
+
+        final var actualResponsePage = taskWebFacade.findTasks(TaskDataUtils.testParam());
+
+        assertEquals(List.of(), actualResponsePage.getContent());
+        assertEquals(0L, actualResponsePage.getTotalElements());
+    }
+
+    /**
+     * Тест проверяет, что результат поиска отдается без общих кол-в в порядке релевантности.
+     */
+    @Test
+    void searchTasks__test_total_mode_none() {
+        when(taskService.searchTasks(any(TaskSearchParam.class))).thenReturn(TaskDataUtils.testSearchSlice(false));
+
+        final var actualResponsePage = taskWebFacade.searchTasks(TaskDataUtils.createTaskSearchParam("title", 0, 3));
+
+        assertEquals(TotalMode.NONE, actualResponsePage.getTotalMode());
+        assertNull(actualResponsePage.getTotalElements());
+        assertTrue(actualResponsePage.isHasNext());
+        assertFalse(actualResponsePage.getTruncated());
+        assertEquals(List.of(1L, 2L, 3L), actualResponsePage.getContent().stream().map(TaskResponse::getId).toList());
+    }
+
+    /**
+     * Тест проверяет, что клиенту сообщается об усечении множества ранжируемых совпадений.
+     */
+    @Test
+    void searchTasks__test_truncated() {
+        when(taskService.searchTasks(any(TaskSearchParam.class))).thenReturn(TaskDataUtils.testSearchSlice(true));
+
+        final var actualResponsePage = taskWebFacade.searchTasks(TaskDataUtils.createTaskSearchParam("title", 0, 3));
+
+        assertTrue(actualResponsePage.getTruncated());
+    }
+
+    /**
+     * Тест проверяет, что страница без подсчета не содержит общих кол-в.
+     */
+    @Test
+    void findTasks__test_total_mode_none() {
+        when(taskService.findTasks(any(PageRequestParam.class)))
+                .thenReturn(TaskDataUtils.testSlice());
+
+        final var actualResponsePage = taskWebFacade.findTasks(TaskDataUtils.createPageRequestParam(0, 10, "title",
+                Sort.Direction.ASC, TotalMode.NONE));
+
+        assertEquals(TotalMode.NONE, actualResponsePage.getTotalMode());
+        assertNull(actualResponsePage.getTotalElements());
+        assertNull(actualResponsePage.getTotalPages());
+        assertTrue(actualResponsePage.isHasNext());
+        assertEquals(3, actualResponsePage.getContent().size());
+    }
+
+    /**
+     * Тест проверяет, что оценочная страница помечена соответствующим способом подсчета.
+     */
+    @Test
+    void findTasks__test_total_mode_estimated() {
+        when(taskService.findTasks(any(PageRequestParam.class)))
+                .thenReturn(TaskDataUtils.testPage());
+
+        final var actualResponsePage = taskWebFacade.findTasks(TaskDataUtils.createPageRequestParam(0, 10, "title",
+                Sort.Direction.ASC, TotalMode.ESTIMATED));
+
+        assertEquals(TotalMode.ESTIMATED, actualResponsePage.getTotalMode());
+        assertEquals(100L, actualResponsePage.getTotalElements());
+        assertEquals(10L, actualResponsePage.getTotalPages());
+    }
+
     /**
      * Тест проверяет кол-во вызовов сервиса.
      */
@@ -129,6 +245,170 @@ class TaskWebFacadeImplTest {
         assertEqualsTaskEntityWithTaskResponse(expectedTask, actualTaskResponse);
     }
 
+    /**
+     * Тест проверяет, что Задача ставится в очередь отложенной записи, а не создается сервисом.
+     */
+    @Test
+    void createAsync__test_enqueue() {
+        when(taskWriteBehind.enqueue(any(TaskCreateParam.class))).thenReturn(TaskDataUtils.testTaskEntity());
+
+        final var actualTaskResponse = taskWebFacade.createAsync(TaskDataUtils.testTaskCreateParam());
+
+        assertEqualsTaskEntityWithTaskResponse(TaskDataUtils.testTaskEntity(), actualTaskResponse.orElseThrow());
+        Mockito.verify(taskService, Mockito.never()).create(any(TaskCreateParam.class));
+    }
+
+    /**
+     * Тест проверяет пустой результат при выключенной отложенной записи.
+     */
+    @Test
+    void createAsync__test_disabled() {
+        final var objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        final var validator = Validation.buildDefaultValidatorFactory().getValidator();
+        final var facade = new TaskWebFacadeImpl(taskService, validator, objectMapper,
+                Mockito.mock(TaskImporter.class), new StaticListableBeanFactory().getBeanProvider(TaskWriteBehind.class));
+
+        assertTrue(facade.createAsync(TaskDataUtils.testTaskCreateParam()).isEmpty());
+    }
+
+    /**
+     * Тест проверяет выгрузку в NDJSON: по одной Задаче на строку в порядке чтения.
+     */
+    @Test
+    void exportTasks__test_ndjson_line_per_task() throws IOException {
+        mockExport(TaskDataUtils.testList());
+
+        final var output = export(TaskDataUtils.createTaskExportParam(TaskExportFormat.NDJSON, "id",
+                Sort.Direction.ASC));
+
+        final var lines = output.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"title\":\"title1\""));
+        assertTrue(lines[1].startsWith("{\"id\":2,"));
+        assertTrue(lines[2].contains("\"dueDate\":\"2024-03-30T18:35:24Z\""));
+        Mockito.verify(taskService).exportTasks(eq(TaskSortProperty.ID), eq(Sort.Direction.ASC), any());
+    }
+
+    /**
+     * Тест проверяет заголовок и экранирование полей CSV.
+     */
+    @Test
+    void exportTasks__test_csv_escaping() throws IOException {
+        mockExport(List.of(TaskDataUtils.createTaskEntity(7L, "a, \"b\"", "line1\nline2", "2024-01-30T18:35:24.00Z",
+                true)));
+
+        final var output = export(TaskDataUtils.createTaskExportParam(TaskExportFormat.CSV, "dueDate",
+                Sort.Direction.DESC));
+
+        assertEquals("id,title,description,dueDate,completed,overdueAt,version\r\n"
+                + "7,\"a, \"\"b\"\"\",\"line1\nline2\",2024-01-30T18:35:24Z,true,,0\r\n", output);
+        Mockito.verify(taskService).exportTasks(eq(TaskSortProperty.DUE_DATE), eq(Sort.Direction.DESC), any());
+    }
+
+    /**
+     * Тест проверяет, что неподдерживаемое поле сортировки отклоняется до начала записи ответа.
+     */
+    @Test
+    void exportTasks__test_unsupported_property() {
+        final var param = TaskDataUtils.createTaskExportParam(TaskExportFormat.CSV, "unknown", Sort.Direction.ASC);
+
+        assertThrows(InvalidRequestParamException.class, () -> taskWebFacade.exportTasks(param));
+        Mockito.verify(taskService, Mockito.never()).exportTasks(any(), any(), any());
+    }
+
+    /**
+     * Тест проверяет загрузку CSV порциями и отклонение некорректных записей с номерами строк.
+     */
+    @Test
+    void importTasks__test_csv_chunks_and_rejects() throws IOException {
+        when(taskService.importChunk(anyList())).then(invocation -> invocation.<List<?>>getArgument(0).size());
+        final var csv = """
+                id,title,description,dueDate,completed,version
+                1,t1,"multi
+                line",2024-01-30T18:35:24Z,true,0
+                2,t2,d2,not-a-date,false,0
+                3,,d3,2024-01-30T18:35:24Z,false,0
+                4,t4,d4,2024-01-30T18:35:24Z,false,0
+                5,t5,d5,2024-01-30T18:35:24Z,,0
+                """;
+
+        final var response = taskWebFacade.importTasks(TaskImportFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, response.getImported());
+        assertEquals(2, response.getRejected());
+        assertEquals(4, response.getRejects().get(0).getLine());
+        assertEquals(5, response.getRejects().get(1).getLine());
+
+        final ArgumentCaptor<List<TaskUpdateParam>> chunkCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(taskService, Mockito.times(2)).importChunk(chunkCaptor.capture());
+        final var firstChunk = chunkCaptor.getAllValues().get(0);
+        assertEquals("multi\nline", firstChunk.get(0).getDescription());
+        assertTrue(firstChunk.get(0).isCompleted());
+    }
+
+    /**
+     * Тест проверяет, что строка NDJSON, которая не разбирается, отклоняется без прерывания загрузки.
+     */
+    @Test
+    void importTasks__test_ndjson_malformed_line() throws IOException {
+        when(taskService.importChunk(anyList())).then(invocation -> invocation.<List<?>>getArgument(0).size());
+        final var ndjson = """
+                {"title":"t1","description":"d1","dueDate":"2024-01-30T18:35:24Z"}
+                {"title":"t2",
+                {"title":"t3","description":"d3","dueDate":"2024-01-30T18:35:24Z","completed":true}
+                """;
+
+        final var response = taskWebFacade.importTasks(TaskImportFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, response.getImported());
+        assertEquals(1, response.getRejected());
+        assertEquals(2, response.getRejects().get(0).getLine());
+    }
+
+    /**
+     * Тест проверяет, что в сервис передаются только корректные элементы, а результат сохраняет входной порядок.
+     */
+    @Test
+    void createAll__test_per_item_errors_in_input_order() {
+        final var valid1 = TaskDataUtils.createTaskCreateParam("title1", "description1",
+                Instant.parse("2024-02-18T18:35:24.00Z"));
+        final var invalid = TaskDataUtils.createTaskCreateParam(null, "description2", null);
+        final var valid2 = TaskDataUtils.createTaskCreateParam("title3", "description3",
+                Instant.parse("2024-03-30T18:35:24.00Z"));
+        final var created = TaskDataUtils.testList();
+        when(taskService.createAll(anyList())).thenReturn(List.of(created.get(0), created.get(2)));
+
+        final var response = taskWebFacade.createAll(List.of(valid1, invalid, valid2));
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<List<TaskCreateParam>> paramsArgCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(taskService).createAll(paramsArgCaptor.capture());
+        assertEquals(List.of(valid1, valid2), paramsArgCaptor.getValue());
+
+        assertEquals(2, response.getCreated());
+        assertEquals(1, response.getRejected());
+        assertEquals(1L, response.getItems().get(0).getTask().getId());
+        assertNull(response.getItems().get(1).getTask());
+        assertEquals(List.of("dueDate: must not be null", "title: must not be null"),
+                response.getItems().get(1).getErrors());
+        assertEquals(3L, response.getItems().get(2).getTask().getId());
+        assertTrue(response.getItems().get(2).getErrors().isEmpty());
+    }
+
+    /**
+     * Тест проверяет ограничение на размер пакета.
+     */
+    @Test
+    void createAll__test_max_batch_size() {
+        final var params = Collections.nCopies(TaskWebFacadeImpl.MAX_BATCH_SIZE + 1,
+                TaskDataUtils.testTaskCreateParam());
+
+        assertThrows(InvalidRequestParamException.class, () -> taskWebFacade.createAll(params));
+        Mockito.verifyNoInteractions(taskService);
+    }
+
     /**
      * Тест проверяет кол-во вызовов сервиса.
      */
@@ -170,8 +450,8 @@ class TaskWebFacadeImplTest {
     @Test
     void updateTask__test_usage_count() {
         final Long testTaskId = 3L;
-        taskWebFacade.update(testTaskId, TaskDataUtils.testTaskUpdateParam());
-        Mockito.verify(taskService, Mockito.times(1)).update(eq(testTaskId), any(TaskUpdateParam.class));
+        taskWebFacade.update(testTaskId, TaskDataUtils.testTaskUpdateParam(), null);
+        Mockito.verify(taskService, Mockito.times(1)).update(eq(testTaskId), any(TaskUpdateParam.class), isNull());
     }
 
     /**
@@ -180,11 +460,11 @@ class TaskWebFacadeImplTest {
     @Test
     void updateTask__test_entity_not_found_exception() {
         final Long testTaskId = 3L;
-        when(taskService.update(eq(testTaskId), any(TaskUpdateParam.class)))
+        when(taskService.update(eq(testTaskId), any(TaskUpdateParam.class), isNull()))
                 .thenThrow(EntityNotFoundException.class);
 
         assertThrows(EntityNotFoundException.class, () -> taskWebFacade.update(testTaskId,
-                TaskDataUtils.testTaskUpdateParam()));
+                TaskDataUtils.testTaskUpdateParam(), null));
     }
 
     /**
@@ -200,10 +480,10 @@ class TaskWebFacadeImplTest {
 
         final var updateParam = TaskDataUtils.createTaskUpdateParam(expectedTitle, expectedDescription,
                 expectedDueDate, expectedCompleted);
-        taskWebFacade.update(testTaskId, updateParam);
+        taskWebFacade.update(testTaskId, updateParam, null);
 
         final var updateParamArgCaptor = ArgumentCaptor.forClass(TaskUpdateParam.class);
-        Mockito.verify(taskService).update(eq(testTaskId), updateParamArgCaptor.capture());
+        Mockito.verify(taskService).update(eq(testTaskId), updateParamArgCaptor.capture(), isNull());
 
         final var updateParamArg = updateParamArgCaptor.getValue();
         assertEquals(expectedTitle, updateParamArg.getTitle());
@@ -219,10 +499,10 @@ class TaskWebFacadeImplTest {
     void updateTask__test_no_mutation_result() {
         final Long testTaskId = 3L;
 
-        when(taskService.update(eq(testTaskId), any(TaskUpdateParam.class)))
+        when(taskService.update(eq(testTaskId), any(TaskUpdateParam.class), isNull()))
                 .thenReturn(TaskDataUtils.testTaskEntity());
 
-        final var actualTaskResponse = taskWebFacade.update(testTaskId, TaskDataUtils.testTaskUpdateParam());
+        final var actualTaskResponse = taskWebFacade.update(testTaskId, TaskDataUtils.testTaskUpdateParam(), null);
         final var expectedTask = TaskDataUtils.testTaskEntity();
 
         assertEquals(expectedTask.getId(), actualTaskResponse.getId());
@@ -238,8 +518,8 @@ class TaskWebFacadeImplTest {
     @Test
     void deleteTask__test_usage_count() {
         final Long testTaskId = 3L;
-        taskWebFacade.delete(testTaskId);
-        Mockito.verify(taskService, Mockito.times(1)).delete(testTaskId);
+        taskWebFacade.delete(testTaskId, null);
+        Mockito.verify(taskService, Mockito.times(1)).delete(testTaskId, null);
     }
 
     /**
@@ -248,9 +528,23 @@ class TaskWebFacadeImplTest {
     @Test
     void deleteTask__test_entity_not_found_exception() {
         final Long testTaskId = 3L;
-        doThrow(EntityNotFoundException.class).when(taskService).delete(testTaskId);
+        doThrow(EntityNotFoundException.class).when(taskService).delete(testTaskId, null);
+
+        assertThrows(EntityNotFoundException.class, () -> taskWebFacade.delete(testTaskId, null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockExport(List<TaskEntity> tasks) {
+        Mockito.doAnswer(invocation -> {
+            tasks.forEach(invocation.<Consumer<TaskEntity>>getArgument(2));
+            return null;
+        }).when(taskService).exportTasks(any(), any(), any(Consumer.class));
+    }
 
-        assertThrows(EntityNotFoundException.class, () -> taskWebFacade.delete(testTaskId));
+    private String export(TaskExportParam param) throws IOException {
+        final var out = new ByteArrayOutputStream();
+        taskWebFacade.exportTasks(param).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
     }
 
     private void assertEqualsTaskEntityWithTaskResponse(TaskEntity expected, TaskResponse actual) {
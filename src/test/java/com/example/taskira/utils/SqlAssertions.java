@@ -0,0 +1,45 @@
+package com.example.taskira.utils;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.example.taskira.sql.SqlStatement;
+import com.example.taskira.sql.SqlStatementRecorder;
+
+/**
+ * Проверки кол-ва SQL-запросов, выполненных действием в текущем потоке (например, запросом через MockMvc).
+ */
+public class SqlAssertions {
+
+    private SqlAssertions() {
+    }
+
+    /**
+     * Выполняет действие и проверяет, что оно выполнило не больше max запросов.
+     * При превышении в сообщении перечисляются все выполненные запросы.
+     *
+     * @return выполненные запросы
+     */
+    public static List<SqlStatement> assertMaxStatements(int max, SqlAction action) throws Exception {
+        List<SqlStatement> statements;
+        try (var recording = SqlStatementRecorder.start()) {
+            action.run();
+            statements = List.copyOf(recording.statements());
+        }
+        if (statements.size() > max) {
+            fail(String.format("Expected at most %d SQL statements, but %d were executed:%n%s", max, statements.size(),
+                    statements.stream().map(SqlStatement::shape).collect(Collectors.joining(System.lineSeparator()))));
+        }
+        return statements;
+    }
+
+    @FunctionalInterface
+    public interface SqlAction {
+
+        void run() throws Exception;
+
+    }
+
+}
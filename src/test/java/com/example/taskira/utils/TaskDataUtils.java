@@ -6,13 +6,21 @@ import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
+import com.example.taskira.dto.in.CursorPageRequestParam;
 import com.example.taskira.dto.in.PageRequestParam;
 import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.in.TaskExportParam;
+import com.example.taskira.dto.in.TaskSearchParam;
 import com.example.taskira.dto.in.TaskUpdateParam;
 import com.example.taskira.dto.out.PageResponse;
+import com.example.taskira.export.TaskExportFormat;
 import com.example.taskira.dto.out.TaskResponse;
+import com.example.taskira.pagination.TotalMode;
+import com.example.taskira.repository.TaskSearchSlice;
 import com.example.taskira.repository.entity.TaskEntity;
 
 public class TaskDataUtils {
@@ -46,13 +54,21 @@ public class TaskDataUtils {
     }
 
     public static PageResponse<TaskResponse> testPageResponse() {
-        return new PageResponse<>(testResponseList(), 5L, 15L, 0L);
+        return new PageResponse<>(testResponseList(), 5L, 15L, 0L, true, TotalMode.EXACT, null);
     }
 
     public static Page<TaskEntity> testPage() {
         return new PageImpl<>(testList(), testPageRequest(), 100);
     }
 
+    public static Slice<TaskEntity> testSlice() {
+        return new SliceImpl<>(testList(), PageRequest.of(0, 3, Sort.Direction.ASC, "title"), true);
+    }
+
+    public static TaskSearchSlice<TaskEntity> testSearchSlice(boolean truncated) {
+        return new TaskSearchSlice<>(testList(), PageRequest.of(0, 3), true, truncated);
+    }
+
     public static List<TaskResponse> testResponseList() {
         var task1 = createTaskResponse(1L, "title1", "description1", "2024-01-30T18:35:24.00Z", true);
         var task2 = createTaskResponse(2L, "title2", "description2", "2024-02-18T18:35:24.00Z", false);
@@ -106,9 +122,42 @@ public class TaskDataUtils {
     }
 
     public static PageRequestParam createPageRequestParam(int page, int size, String property, Sort.Direction direction) {
+        return createPageRequestParam(page, size, property, direction, TotalMode.EXACT);
+    }
+
+    public static PageRequestParam createPageRequestParam(int page, int size, String property, Sort.Direction direction,
+            TotalMode totalMode) {
         var p = new PageRequestParam();
+        p.setTotalMode(totalMode);
+        p.setPage(page);
+        p.setSize(size);
+        p.setProperty(property);
+        p.setDirection(direction);
+        return p;
+    }
+
+    public static CursorPageRequestParam createCursorPageRequestParam(String cursor, int size, String property,
+            Sort.Direction direction) {
+        var p = new CursorPageRequestParam();
+        p.setCursor(cursor);
+        p.setSize(size);
+        p.setProperty(property);
+        p.setDirection(direction);
+        return p;
+    }
+
+    public static TaskSearchParam createTaskSearchParam(String q, int page, int size) {
+        var p = new TaskSearchParam();
+        p.setQ(q);
         p.setPage(page);
         p.setSize(size);
+        return p;
+    }
+
+    public static TaskExportParam createTaskExportParam(TaskExportFormat format, String property,
+            Sort.Direction direction) {
+        var p = new TaskExportParam();
+        p.setFormat(format);
         p.setProperty(property);
         p.setDirection(direction);
         return p;
@@ -0,0 +1,192 @@
+package com.example.taskira.writebehind;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import com.example.taskira.exception.DatabaseBusyException;
+import com.example.taskira.repository.entity.TaskEntity;
+import com.example.taskira.service.TaskService;
+import com.example.taskira.utils.TaskDataUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TaskWriteBehindTest {
+
+    private final TaskService taskService = Mockito.mock(TaskService.class);
+    private final List<Long> written = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TaskWriteBehind taskWriteBehind;
+
+    public TaskWriteBehindTest() {
+        when(taskService.allocateIds(anyInt())).thenReturn(List.of(1L, 2L), List.of(3L, 4L));
+        doAnswer(invocation -> {
+            List<TaskEntity> tasks = invocation.getArgument(0);
+            tasks.forEach(task -> written.add(task.getId()));
+            return null;
+        }).when(taskService).insertAll(anyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (taskWriteBehind != null && taskWriteBehind.isRunning()) {
+            taskWriteBehind.stop();
+        }
+    }
+
+    /**
+     * Тест проверяет, что id выдаются из выделенного блока и блок запрашивается заново, когда закончился.
+     */
+    @Test
+    void enqueue__test_ids_from_block() {
+        start(10);
+
+        final var ids = List.of(enqueue(), enqueue(), enqueue());
+
+        assertEquals(List.of(1L, 2L, 3L), ids);
+        Mockito.verify(taskService, Mockito.times(2)).allocateIds(2);
+    }
+
+    /**
+     * Тест проверяет, что при остановке записываются все Задачи из очереди.
+     */
+    @Test
+    void stop__test_flush_queue() {
+        start(10);
+        enqueue();
+        enqueue();
+        enqueue();
+
+        taskWriteBehind.stop();
+
+        assertEquals(List.of(1L, 2L, 3L), written);
+    }
+
+    /**
+     * Тест проверяет отказ при заполненной очереди, пока запись в БД не успевает.
+     */
+    @Test
+    void enqueue__test_queue_full() throws InterruptedException {
+        final var flushing = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            flushing.countDown();
+            release.await();
+            return null;
+        }).when(taskService).insertAll(anyList());
+        start(1);
+
+        enqueue();
+        flushing.await();
+        enqueue();
+
+        assertThrows(DatabaseBusyException.class, this::enqueue);
+        release.countDown();
+    }
+
+    /**
+     * Тест проверяет, что пакет после временной ошибки записывается повторно целиком.
+     */
+    @Test
+    void flush__test_transient_failure_retried() {
+        final var failures = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (failures.getAndIncrement() == 0) {
+                throw new QueryTimeoutException("canceling statement due to statement timeout");
+            }
+            List<TaskEntity> tasks = invocation.getArgument(0);
+            tasks.forEach(task -> written.add(task.getId()));
+            return null;
+        }).when(taskService).insertAll(anyList());
+        start(10);
+        enqueue();
+
+        taskWriteBehind.stop();
+
+        assertEquals(List.of(1L), written);
+        assertEquals(2, failures.get());
+        assertEquals(0, meterRegistry.get("taskira.write-behind.dropped").counter().count());
+    }
+
+    /**
+     * Тест проверяет, что Задача, которую нельзя записать, отбрасывается без повторов,
+     * а остальные Задачи пакета записываются.
+     */
+    @Test
+    void flush__test_permanent_failure_drops_task() {
+        final var attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            attempts.incrementAndGet();
+            List<TaskEntity> tasks = invocation.getArgument(0);
+            if (tasks.stream().anyMatch(task -> task.getId() == 2L)) {
+                throw new DataIntegrityViolationException("invalid byte sequence for encoding \"UTF8\": 0x00");
+            }
+            tasks.forEach(task -> written.add(task.getId()));
+            return null;
+        }).when(taskService).insertAll(anyList());
+        start(10);
+        enqueue();
+        enqueue();
+        enqueue();
+
+        taskWriteBehind.stop();
+
+        assertEquals(List.of(1L, 3L), written.stream().sorted().toList());
+        assertEquals(1, meterRegistry.get("taskira.write-behind.dropped").counter().count());
+        assertTrue(attempts.get() <= 5);
+    }
+
+    /**
+     * Тест проверяет, что повторяются только ошибки, после которых запись может пройти.
+     */
+    @Test
+    void isTransient__test_classification() {
+        assertTrue(TaskWriteBehind.isTransient(new CannotGetJdbcConnectionException("connection refused")));
+        assertTrue(TaskWriteBehind.isTransient(new PessimisticLockingFailureException("deadlock detected")));
+        assertTrue(TaskWriteBehind.isTransient(new DatabaseBusyException("pool is busy")));
+        assertFalse(TaskWriteBehind.isTransient(new DuplicateKeyException("duplicate key")));
+        assertFalse(TaskWriteBehind.isTransient(new DataIntegrityViolationException("timestamp out of range")));
+    }
+
+    /**
+     * Тест проверяет отказ после остановки.
+     */
+    @Test
+    void enqueue__test_stopped() {
+        start(10);
+        taskWriteBehind.stop();
+
+        assertThrows(DatabaseBusyException.class, this::enqueue);
+    }
+
+    private void start(int queueCapacity) {
+        taskWriteBehind = new TaskWriteBehind(taskService, new WriteBehindProperties(true, queueCapacity, 100, 2,
+                Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofSeconds(5)), meterRegistry);
+        taskWriteBehind.start();
+    }
+
+    private long enqueue() {
+        return taskWriteBehind.enqueue(TaskDataUtils.testTaskCreateParam()).getId();
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.example.taskira.dto.in;
+
+import org.springframework.data.domain.Sort;
+
+import com.example.taskira.pagination.TotalMode;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Schema(description = "Параметры для пагинации")
+public class PageRequestParam extends TaskFilterParam {
+
+    /**
+     * Для выгрузки всех Задач предназначен потоковый GET /tasks/export.
+     */
+    public static final int MAX_SIZE = 1000;
+
+    @NotNull
+    @PositiveOrZero
+    @Schema(description = "Номер страницы")
+    private int page;
+
+    @NotNull
+    @PositiveOrZero
+    @Max(MAX_SIZE)
+    @Schema(description = "Размер")
+    private int size;
+
+    @NotBlank
+    @Schema(description = "Поле для сортировки", allowableValues = {"id", "title", "dueDate", "completed"})
+    private String property;
+
+    @NotNull
+    @Schema(description = "Направление сортировки")
+    private Sort.Direction direction;
+
+    @Schema(description = "Способ подсчета общего кол-ва элементов, по умолчанию EXACT, а для архива NONE")
+    private TotalMode totalMode;
+
+    @Schema(description = "Искать среди архивных Задач вместо активных", defaultValue = "false")
+    private boolean archived;
+
+    /**
+     * Точный подсчет архива читает всю task_archive, поэтому без явного запроса кол-во архивных Задач не считается.
+     */
+    public TotalMode getTotalMode() {
+        if (totalMode != null) {
+            return totalMode;
+        }
+        return archived ? TotalMode.NONE : TotalMode.EXACT;
+    }
+}
@@ -4,6 +4,7 @@ import java.time.Instant;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,10 +14,12 @@ import lombok.Setter;
 public class TaskCreateParam {
 
     @NotNull
+    @Size(max = 255)
     @Schema(description = "Заголовок")
     private String title;
 
     @NotNull
+    @Size(max = 512)
     @Schema(description = "Описание")
     private String description;
 
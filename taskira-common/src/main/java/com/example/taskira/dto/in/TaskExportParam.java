@@ -0,0 +1,29 @@
+package com.example.taskira.dto.in;
+
+import org.springframework.data.domain.Sort;
+
+import com.example.taskira.export.TaskExportFormat;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Schema(description = "Параметры выгрузки Задач")
+public class TaskExportParam {
+
+    @NotNull
+    @Schema(description = "Формат выгрузки", defaultValue = "NDJSON")
+    private TaskExportFormat format = TaskExportFormat.NDJSON;
+
+    @NotBlank
+    @Schema(description = "Поле для сортировки", defaultValue = "id")
+    private String property = "id";
+
+    @NotNull
+    @Schema(description = "Направление сортировки", defaultValue = "ASC")
+    private Sort.Direction direction = Sort.Direction.ASC;
+}
@@ -0,0 +1,27 @@
+package com.example.taskira.dto.in;
+
+import java.time.Instant;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Schema(description = "Фильтр Задач, незаданные поля не участвуют в отборе")
+public class TaskFilterParam {
+
+    @Schema(description = "Завершена")
+    private Boolean completed;
+
+    @Schema(description = "Дата завершения не раньше, включительно")
+    private Instant dueAfter;
+
+    @Schema(description = "Дата завершения раньше, не включительно")
+    private Instant dueBefore;
+
+    @Size(min = 1, max = 255)
+    @Schema(description = "Начало заголовка с учетом регистра")
+    private String titlePrefix;
+}
@@ -0,0 +1,35 @@
+package com.example.taskira.dto.in;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Schema(description = "Параметры полнотекстового поиска Задач")
+public class TaskSearchParam {
+
+    public static final int MAX_SIZE = 100;
+
+    @NotBlank
+    @Size(max = 255)
+    @Schema(description = "Поисковый запрос: слова, \"фраза в кавычках\", or, -исключение")
+    private String q;
+
+    @NotNull
+    @PositiveOrZero
+    @Schema(description = "Номер страницы")
+    private int page;
+
+    @NotNull
+    @Positive
+    @Max(MAX_SIZE)
+    @Schema(description = "Размер", defaultValue = "20")
+    private int size = 20;
+}
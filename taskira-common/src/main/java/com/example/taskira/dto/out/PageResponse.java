@@ -0,0 +1,47 @@
+package com.example.taskira.dto.out;
+
+import java.util.List;
+
+import com.example.taskira.pagination.TotalMode;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Страница")
+public class PageResponse<T> {
+
+    @NotNull
+    @Schema(description = "Контент")
+    private List<T> content;
+
+    @Schema(description = "Общее кол-во страниц, отсутствует при totalMode = NONE")
+    private Long totalPages;
+
+    @Schema(description = "Общее кол-во элементов, отсутствует при totalMode = NONE")
+    private Long totalElements;
+
+    @NotNull
+    @Schema(description = "Номер страницы")
+    private long number;
+
+    @NotNull
+    @Schema(description = "Есть ли следующая страница")
+    private boolean hasNext;
+
+    @NotNull
+    @Schema(description = "Способ, которым получены общие кол-ва")
+    private TotalMode totalMode;
+
+    @Schema(description = "Только для поиска: совпадений больше, чем ранжируется, поиск шел среди самых новых Задач, "
+            + "и более старые совпадения в результат не попали")
+    private Boolean truncated;
+
+}
@@ -32,4 +32,11 @@ public class TaskResponse {
     @Schema(description = "Завершена")
     private boolean completed;
 
+    @Schema(description = "Когда Задача отмечена просроченной, отсутствует, если не отмечена")
+    private Instant overdueAt;
+
+    @NotNull
+    @Schema(description = "Версия, совпадает со значением ETag")
+    private long version;
+
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.example.taskira.etag;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
+
+import com.example.taskira.dto.out.TaskResponse;
+import com.example.taskira.exception.InvalidRequestParamException;
+import com.example.taskira.exception.VersionConflictException;
+
+/**
+ * Сильные ETag для Задач. Для одной Задачи ETag - ее версия, для списка - хэш идентификаторов и версий.
+ */
+public final class TaskETags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private TaskETags() {
+    }
+
+    public static String of(long version) {
+        return quote(String.valueOf(version));
+    }
+
+    public static String of(List<TaskResponse> content, Object... pageState) {
+        var source = new StringBuilder();
+        for (var task : content) {
+            source.append(task.getId()).append(':').append(task.getVersion()).append(',');
+        }
+        for (var state : pageState) {
+            source.append('|').append(state);
+        }
+        return quote(DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Слабое сравнение для If-None-Match: префикс W/ игнорируется.
+     */
+    public static boolean matchesNoneMatch(String ifNoneMatch, String etag) {
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag)
+                .anyMatch(tag -> tag.equals(ANY) || tag.equals(etag));
+    }
+
+    /**
+     * Версии из If-Match - списка ETag через запятую, как и If-None-Match. Для отсутствующего заголовка
+     * и {@code *} версия не проверяется. Слабый ETag и ETag, не являющийся версией, по RFC 9110 никогда
+     * не совпадают при сильном сравнении: если других нет, это 412, а не 400. 400 - только для ETag
+     * с неверным синтаксисом.
+     *
+     * @return версии, с одной из которых должна совпасть текущая версия Задачи
+     */
+    @Nullable
+    public static List<Long> expectedVersions(@Nullable String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        var tags = Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty())
+                .toList();
+        if (tags.contains(ANY)) {
+            return null;
+        }
+        if (tags.isEmpty()) {
+            throw notEntityTags(ifMatch);
+        }
+        var versions = new ArrayList<Long>();
+        for (var tag : tags) {
+            var weak = tag.startsWith(WEAK_PREFIX);
+            var opaque = weak ? tag.substring(WEAK_PREFIX.length()) : tag;
+            if (opaque.length() < 2 || !opaque.startsWith("\"") || !opaque.endsWith("\"")) {
+                throw notEntityTags(ifMatch);
+            }
+            var version = weak ? null : parseVersion(opaque.substring(1, opaque.length() - 1));
+            if (version != null) {
+                versions.add(version);
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new VersionConflictException(String.format("If-Match = %s never matches a task version",
+                    ifMatch));
+        }
+        return versions;
+    }
+
+    private static InvalidRequestParamException notEntityTags(String ifMatch) {
+        return new InvalidRequestParamException(String.format("If-Match = %s is not a list of entity tags", ifMatch));
+    }
+
+    @Nullable
+    private static Long parseVersion(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.example.taskira.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ArchivedTaskException extends RuntimeException {
+    public ArchivedTaskException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.taskira.export;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import com.example.taskira.dto.out.TaskResponse;
+
+/**
+ * Строки CSV выгрузки Задач: RFC 4180, перевод строки CRLF.
+ */
+public final class TaskCsv {
+
+    public static final String HEADER = "id,title,description,dueDate,completed,overdueAt,version\r\n";
+
+    private TaskCsv() {
+    }
+
+    public static String line(TaskResponse task) {
+        var line = new StringBuilder(128);
+        try {
+            write(line, task);
+        } catch (IOException e) {
+            // StringBuilder не бросает IOException
+            throw new UncheckedIOException(e);
+        }
+        return line.toString();
+    }
+
+    /**
+     * Пишет строку Задачи сразу в out, без промежуточной строки.
+     */
+    public static void write(Appendable out, TaskResponse task) throws IOException {
+        out.append(String.valueOf(task.getId())).append(',');
+        appendEscaped(out, task.getTitle()).append(',');
+        appendEscaped(out, task.getDescription()).append(',');
+        out.append(String.valueOf(task.getDueDate())).append(',');
+        out.append(String.valueOf(task.isCompleted())).append(',');
+        if (task.getOverdueAt() != null) {
+            out.append(String.valueOf(task.getOverdueAt()));
+        }
+        out.append(',');
+        out.append(String.valueOf(task.getVersion())).append("\r\n");
+    }
+
+    /**
+     * Поле с разделителем, кавычкой или переводом строки берется в кавычки.
+     */
+    private static Appendable appendEscaped(Appendable out, String value) throws IOException {
+        if (value == null) {
+            return out;
+        }
+        if (value.chars().noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) {
+            return out.append(value);
+        }
+        return out.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.example.taskira.export;
+
+import org.springframework.http.MediaType;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+@Schema(description = "Формат выгрузки Задач")
+public enum TaskExportFormat {
+
+    @Schema(description = "JSON-объект Задачи на каждой строке")
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+
+    @Schema(description = "CSV с заголовком")
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+}
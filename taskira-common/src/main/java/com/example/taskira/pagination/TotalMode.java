@@ -0,0 +1,17 @@
+package com.example.taskira.pagination;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Способ подсчета общего кол-ва элементов")
+public enum TotalMode {
+
+    @Schema(description = "Точный подсчет через count(*)")
+    EXACT,
+
+    @Schema(description = "Без подсчета, только признак наличия следующей страницы")
+    NONE,
+
+    @Schema(description = "Оценка по статистике планировщика, обновляется периодически")
+    ESTIMATED
+
+}
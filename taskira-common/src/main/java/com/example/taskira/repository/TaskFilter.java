@@ -0,0 +1,49 @@
+package com.example.taskira.repository;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Условия отбора Задач. Незаданные (null) поля не участвуют в запросе.
+ *
+ * @param completed   признак завершенности
+ * @param dueAfter    нижняя граница даты завершения, включительно
+ * @param dueBefore   верхняя граница даты завершения, не включительно
+ * @param titlePrefix начало заголовка с учетом регистра
+ */
+public record TaskFilter(
+        @Nullable Boolean completed,
+        @Nullable Instant dueAfter,
+        @Nullable Instant dueBefore,
+        @Nullable String titlePrefix) {
+
+    public static final TaskFilter NONE = new TaskFilter(null, null, null, null);
+
+    public enum Criterion {
+        COMPLETED,
+        DUE_RANGE,
+        TITLE_PREFIX
+    }
+
+    public Set<Criterion> criteria() {
+        var criteria = EnumSet.noneOf(Criterion.class);
+        if (completed != null) {
+            criteria.add(Criterion.COMPLETED);
+        }
+        if (dueAfter != null || dueBefore != null) {
+            criteria.add(Criterion.DUE_RANGE);
+        }
+        if (titlePrefix != null) {
+            criteria.add(Criterion.TITLE_PREFIX);
+        }
+        return criteria;
+    }
+
+    public boolean isEmpty() {
+        return criteria().isEmpty();
+    }
+
+}
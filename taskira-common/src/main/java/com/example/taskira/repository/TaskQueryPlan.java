@@ -0,0 +1,78 @@
+package com.example.taskira.repository;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.example.taskira.exception.InvalidRequestParamException;
+import com.example.taskira.repository.TaskFilter.Criterion;
+
+import lombok.Getter;
+
+/**
+ * Разрешенные сочетания фильтра и сортировки. Каждое обслуживается индексом из db.changelog-master.xml
+ * по (условия равенства, поле сортировки, id), поэтому страница читается диапазоном индекса без сортировки
+ * всей таблицы. Остальные сочетания отклоняются до обращения к БД.
+ * <p>
+ * В task_archive только завершенные Задачи и индексы по id, заголовку и сроку, поэтому для архива
+ * разрешены только планы с archiveSupported.
+ */
+@Getter
+public enum TaskQueryPlan {
+
+    ALL_BY_ID(EnumSet.noneOf(Criterion.class), TaskSortProperty.ID, true),
+    ALL_BY_TITLE(EnumSet.noneOf(Criterion.class), TaskSortProperty.TITLE, true),
+    ALL_BY_DUE_DATE(EnumSet.noneOf(Criterion.class), TaskSortProperty.DUE_DATE, true),
+    ALL_BY_COMPLETED(EnumSet.noneOf(Criterion.class), TaskSortProperty.COMPLETED, false),
+
+    COMPLETED_BY_ID(EnumSet.of(Criterion.COMPLETED), TaskSortProperty.ID, false),
+    COMPLETED_BY_DUE_DATE(EnumSet.of(Criterion.COMPLETED), TaskSortProperty.DUE_DATE, false),
+
+    DUE_RANGE_BY_DUE_DATE(EnumSet.of(Criterion.DUE_RANGE), TaskSortProperty.DUE_DATE, true),
+    COMPLETED_DUE_RANGE_BY_DUE_DATE(EnumSet.of(Criterion.COMPLETED, Criterion.DUE_RANGE), TaskSortProperty.DUE_DATE,
+            false),
+
+    // LIKE 'prefix%' обслуживается индексом с text_pattern_ops, сортируются только совпавшие строки
+    TITLE_PREFIX_BY_TITLE(EnumSet.of(Criterion.TITLE_PREFIX), TaskSortProperty.TITLE, true);
+
+    private final Set<Criterion> criteria;
+    private final TaskSortProperty property;
+    private final boolean archiveSupported;
+
+    TaskQueryPlan(Set<Criterion> criteria, TaskSortProperty property, boolean archiveSupported) {
+        this.criteria = criteria;
+        this.property = property;
+        this.archiveSupported = archiveSupported;
+    }
+
+    public static TaskQueryPlan of(TaskFilter filter, TaskSortProperty property) {
+        return of(filter, property, false);
+    }
+
+    /**
+     * @param archived план для чтения из task_archive
+     */
+    public static TaskQueryPlan of(TaskFilter filter, TaskSortProperty property, boolean archived) {
+        var criteria = filter.criteria();
+        return Arrays.stream(values())
+                .filter(plan -> plan.supports(criteria, archived) && plan.property == property)
+                .findFirst()
+                .orElseThrow(() -> new InvalidRequestParamException(String.format(
+                        "Sorting by property = %s with filters %s is not supported%s, supported properties: %s",
+                        property.getAttribute(), criteria, archived ? " for archived tasks" : "",
+                        supportedProperties(criteria, archived))));
+    }
+
+    private boolean supports(Set<Criterion> criteria, boolean archived) {
+        return this.criteria.equals(criteria) && (!archived || archiveSupported);
+    }
+
+    private static String supportedProperties(Set<Criterion> criteria, boolean archived) {
+        return Arrays.stream(values())
+                .filter(plan -> plan.supports(criteria, archived))
+                .map(plan -> plan.property.getAttribute())
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+}
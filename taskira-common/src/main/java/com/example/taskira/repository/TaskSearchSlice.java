@@ -0,0 +1,27 @@
+package com.example.taskira.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * Страница результатов поиска с признаком того, что совпадений больше, чем ранжируется.
+ */
+public class TaskSearchSlice<T> extends SliceImpl<T> {
+
+    private final boolean truncated;
+
+    public TaskSearchSlice(List<T> content, Pageable pageable, boolean hasNext, boolean truncated) {
+        super(content, pageable, hasNext);
+        this.truncated = truncated;
+    }
+
+    /**
+     * @return ранжировались только maxCandidates самых новых совпадений, более релевантные старые могли не попасть
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+}
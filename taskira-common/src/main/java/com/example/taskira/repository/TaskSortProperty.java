@@ -0,0 +1,57 @@
+package com.example.taskira.repository;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+
+import com.example.taskira.dto.out.TaskResponse;
+import com.example.taskira.exception.InvalidRequestParamException;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Поля Задачи, по которым возможна сортировка, - только проиндексированные вместе с id.
+ * Каждое поле знает, как достать значение из Задачи и как перевести его в строку курсора и обратно.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TaskSortProperty {
+
+    ID("id", "id", TaskResponse::getId, Long::valueOf),
+    TITLE("title", "title", TaskResponse::getTitle, value -> value),
+    DUE_DATE("dueDate", "due_date", TaskResponse::getDueDate, Instant::parse),
+    COMPLETED("completed", "completed", TaskResponse::isCompleted, Boolean::valueOf);
+
+    private final String attribute;
+    private final String column;
+    private final Function<TaskResponse, Object> extractor;
+    private final Function<String, Object> parser;
+
+    public Object extract(TaskResponse task) {
+        return extractor.apply(task);
+    }
+
+    public Object parse(String value) {
+        return parser.apply(value);
+    }
+
+    /**
+     * Сортировка по полю с id вторым ключом: порядок однозначен и совпадает с индексом (поле, id).
+     */
+    public Sort sort(Sort.Direction direction) {
+        var sort = Sort.by(direction, attribute);
+        return this == ID ? sort : sort.and(Sort.by(direction, ID.attribute));
+    }
+
+    public static TaskSortProperty of(String attribute) {
+        return Arrays.stream(values())
+                .filter(p -> p.attribute.equals(attribute))
+                .findFirst()
+                .orElseThrow(() -> new InvalidRequestParamException(
+                        String.format("Sorting by property = %s is not supported", attribute)));
+    }
+
+}
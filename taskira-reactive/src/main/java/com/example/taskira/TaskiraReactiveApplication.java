@@ -0,0 +1,15 @@
+package com.example.taskira;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+@SpringBootApplication
+@ConfigurationPropertiesScan
+public class TaskiraReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(TaskiraReactiveApplication.class, args);
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.example.taskira.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Собственного кэша Задач у реактивного варианта нет, но его изменения должны сбрасывать кэши узлов
+ * основного приложения, работающих с той же БД.
+ *
+ * @param enabled публиковать инвалидации
+ * @param channel канал NOTIFY, тот же, что слушает основное приложение
+ */
+@ConfigurationProperties(prefix = "taskira.cache.invalidation")
+public record TaskInvalidationProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("task_invalidation") String channel) {
+}
@@ -0,0 +1,36 @@
+package com.example.taskira.cache;
+
+import org.springframework.stereotype.Component;
+
+import com.example.taskira.repository.TaskR2dbcRepository;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Публикует инвалидации через {@code pg_notify} в текущей транзакции в формате сообщений основного приложения:
+ * {@code id:version} - Задача изменена, {@code id} - Задача удалена.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskInvalidationPublisher {
+
+    private final TaskR2dbcRepository taskRepository;
+    private final TaskInvalidationProperties properties;
+
+    public Mono<Void> publishUpdated(Long id, long version) {
+        return notify(id + ":" + version);
+    }
+
+    public Mono<Void> publishDeleted(Long id) {
+        return notify(String.valueOf(id));
+    }
+
+    private Mono<Void> notify(String payload) {
+        if (!properties.enabled()) {
+            return Mono.empty();
+        }
+        return taskRepository.notify(properties.channel(), payload);
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.example.taskira.export;
+
+import com.example.taskira.dto.out.TaskResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+/**
+ * Потоковая выгрузка Задач в формате {@link TaskExportFormat}.
+ */
+public final class TaskExportEncoder {
+
+    private TaskExportEncoder() {
+    }
+
+    /**
+     * Кодирует Задачи в строки формата и склеивает их по chunkSize: порция уходит в сокет одной записью,
+     * а не записью и переключением event loop на каждую Задачу.
+     */
+    public static Flux<String> encode(TaskExportFormat format, Flux<TaskResponse> tasks, ObjectMapper objectMapper,
+            int chunkSize) {
+        var lines = switch (format) {
+            case NDJSON -> tasks.map(task -> toJsonLine(task, objectMapper));
+            case CSV -> Flux.concat(Flux.just(TaskCsv.HEADER), tasks.map(TaskCsv::line));
+        };
+        return lines.buffer(chunkSize)
+                .map(chunk -> String.join("", chunk));
+    }
+
+    private static String toJsonLine(TaskResponse task, ObjectMapper objectMapper) {
+        try {
+            return objectMapper.writeValueAsString(task) + "\n";
+        } catch (JsonProcessingException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.example.taskira.mapper;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.factory.Mappers;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.in.TaskUpdateParam;
+import com.example.taskira.dto.out.PageResponse;
+import com.example.taskira.dto.out.TaskResponse;
+import com.example.taskira.pagination.TotalMode;
+import com.example.taskira.repository.entity.TaskEntity;
+
+@Mapper(unmappedTargetPolicy = org.mapstruct.ReportingPolicy.ERROR)
+public interface TaskMapper {
+
+    TaskMapper INSTANCE = Mappers.getMapper(TaskMapper.class);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "completed", ignore = true)
+    @Mapping(target = "overdueAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    TaskEntity toEntity(TaskCreateParam param);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "overdueAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void update(@MappingTarget TaskEntity task, TaskUpdateParam param);
+
+    TaskResponse toTaskResponse(TaskEntity entity);
+
+    List<TaskResponse> toTaskResponses(List<TaskEntity> entities);
+
+    @Mapping(target = "content", expression = "java(toTaskResponses(page.getContent()))")
+    @Mapping(target = "hasNext", expression = "java(page.hasNext())")
+    @Mapping(target = "totalMode", constant = "EXACT")
+    @Mapping(target = "truncated", ignore = true)
+    PageResponse<TaskResponse> toPageResponse(Page<TaskEntity> page);
+
+    default PageResponse<TaskResponse> toPageResponse(Slice<TaskEntity> slice, TotalMode totalMode) {
+        if (slice == null) {
+            return null;
+        }
+        if (totalMode != TotalMode.NONE && slice instanceof Page<TaskEntity> page) {
+            var response = toPageResponse(page);
+            response.setTotalMode(totalMode);
+            return response;
+        }
+        return new PageResponse<>(toTaskResponses(slice.getContent()), null, null, slice.getNumber(),
+                slice.hasNext(), TotalMode.NONE, null);
+    }
+
+}
@@ -0,0 +1,331 @@
+package com.example.taskira.repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import com.example.taskira.repository.entity.TaskEntity;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Доступ к таблице task через R2DBC. Запросы повторяют запросы TaskRepositoryCustomImpl основного приложения,
+ * чтобы оба варианта API использовали одни и те же индексы и одинаково меняли версию Задачи.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskR2dbcRepository {
+
+    private static final Pattern LIKE_SPECIAL_CHARACTERS = Pattern.compile("[\\\\%_]");
+    private static final String COLUMNS = "id, title, description, due_date, completed, overdue_at, version";
+    private static final String SELECT_SQL = "SELECT " + COLUMNS + " FROM task";
+    private static final String SELECT_ARCHIVED_SQL = "SELECT " + COLUMNS + " FROM task_archive";
+    private static final String RETURNING_SQL = " RETURNING " + COLUMNS;
+    private static final String ESTIMATE_SQL = "SELECT reltuples::bigint FROM pg_class WHERE oid = 'task'::regclass";
+    private static final String SEARCH_CANDIDATES_SQL = "SELECT * FROM task "
+            + "WHERE search_vector @@ websearch_to_tsquery('simple', :query) ORDER BY id DESC LIMIT :max";
+    private static final String SEARCH_SQL = "SELECT " + COLUMNS + ", count(*) OVER () AS candidates "
+            + "FROM (" + SEARCH_CANDIDATES_SQL + ") c "
+            + "ORDER BY ts_rank_cd(search_vector, websearch_to_tsquery('simple', :query)) DESC, id "
+            + "LIMIT :limit OFFSET :offset";
+    private static final String COUNT_SEARCH_CANDIDATES_SQL = "SELECT count(*) FROM (" + SEARCH_CANDIDATES_SQL + ") c";
+    private static final String INSERT_SQL = "INSERT INTO task (title, description, due_date, completed, version) "
+            + "VALUES (:title, :description, :dueDate, false, 0)" + RETURNING_SQL;
+    // Отметка о просрочке снимается, только если сдвинута дата завершения
+    private static final String UPDATE_SQL = "UPDATE task SET title = :title, description = :description, "
+            + "overdue_at = CASE WHEN due_date = :dueDate THEN overdue_at END, due_date = :dueDate, "
+            + "completed = :completed, version = version + 1 WHERE id = :id";
+    private static final String NOTIFY_SQL = "SELECT pg_notify(:channel, :payload)";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Страница Задач по фильтру. Сочетание фильтра и сортировки должно быть проверено через {@link TaskQueryPlan}.
+     */
+    public Flux<TaskEntity> findAll(TaskFilter filter, TaskSortProperty property, Sort.Direction direction,
+            long offset, int limit) {
+        return findAll(SELECT_SQL, filter, property, direction, offset, limit);
+    }
+
+    /**
+     * Страница Задач из task_archive, см. {@link #findAll(TaskFilter, TaskSortProperty, Sort.Direction, long, int)}.
+     */
+    public Flux<TaskEntity> findArchived(TaskFilter filter, TaskSortProperty property, Sort.Direction direction,
+            long offset, int limit) {
+        return findAll(SELECT_ARCHIVED_SQL, filter, property, direction, offset, limit);
+    }
+
+    public Mono<Long> count(TaskFilter filter) {
+        return count("task", filter);
+    }
+
+    public Mono<Long> countArchived(TaskFilter filter) {
+        return count("task_archive", filter);
+    }
+
+    private Flux<TaskEntity> findAll(String select, TaskFilter filter, TaskSortProperty property,
+            Sort.Direction direction, long offset, int limit) {
+        var sql = new StringBuilder(select);
+        appendWhere(sql, filter);
+        sql.append(" ORDER BY ").append(orderBy(property, direction)).append(" LIMIT :limit OFFSET :offset");
+        return bindFilter(databaseClient.sql(sql.toString()), filter)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(TaskR2dbcRepository::toEntity)
+                .all();
+    }
+
+    private Mono<Long> count(String table, TaskFilter filter) {
+        var sql = new StringBuilder("SELECT count(*) FROM ").append(table);
+        appendWhere(sql, filter);
+        return bindFilter(databaseClient.sql(sql.toString()), filter)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Оценка кол-ва строк по статистике планировщика, пустой результат - таблица еще не анализировалась.
+     */
+    public Mono<Long> estimateCount() {
+        return databaseClient.sql(ESTIMATE_SQL)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .filter(estimate -> estimate >= 0);
+    }
+
+    /**
+     * Полнотекстовый поиск по заголовку и описанию, упорядоченный по релевантности, затем по id; ранжируются
+     * не более maxCandidates самых новых по id совпадений, см. {@link TaskSearchSlice#isTruncated()}.
+     */
+    public Mono<TaskSearchSlice<TaskEntity>> search(String query, int maxCandidates, Pageable pageable) {
+        return databaseClient.sql(SEARCH_SQL)
+                .bind("query", query)
+                .bind("max", maxCandidates)
+                .bind("limit", pageable.getPageSize() + 1)
+                .bind("offset", pageable.getOffset())
+                .map(row -> new SearchHit(toEntity(row), row.get("candidates", Long.class)))
+                .all()
+                .collectList()
+                .flatMap(hits -> searchCandidates(hits, query, maxCandidates, pageable).map(candidates -> {
+                    var tasks = hits.stream().map(SearchHit::task).toList();
+                    var hasNext = tasks.size() > pageable.getPageSize();
+                    return new TaskSearchSlice<>(hasNext ? tasks.subList(0, pageable.getPageSize()) : tasks, pageable,
+                            hasNext, candidates >= maxCandidates);
+                }));
+    }
+
+    /**
+     * За последней страницей строк нет, и кол-во кандидатов приходится считать отдельно.
+     */
+    private Mono<Long> searchCandidates(List<SearchHit> hits, String query, int maxCandidates, Pageable pageable) {
+        if (!hits.isEmpty()) {
+            return Mono.just(hits.get(0).candidates());
+        }
+        if (pageable.getOffset() == 0) {
+            return Mono.just(0L);
+        }
+        return databaseClient.sql(COUNT_SEARCH_CANDIDATES_SQL)
+                .bind("query", query)
+                .bind("max", maxCandidates)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Все Задачи в порядке сортировки. Строки запрашиваются у сервера порциями по fetchSize по мере того,
+     * как подписчик их потребляет, поэтому медленный клиент не заставляет держать выгрузку в памяти.
+     */
+    public Flux<TaskEntity> streamAll(TaskSortProperty property, Sort.Direction direction, int fetchSize) {
+        return databaseClient.sql(SELECT_SQL + " ORDER BY " + orderBy(property, direction))
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(TaskR2dbcRepository::toEntity)
+                .all();
+    }
+
+    public Mono<TaskEntity> findById(Long id) {
+        return databaseClient.sql(SELECT_SQL + " WHERE id = :id")
+                .bind("id", id)
+                .map(TaskR2dbcRepository::toEntity)
+                .one();
+    }
+
+    public Mono<Long> findVersionById(Long id) {
+        return databaseClient.sql("SELECT version FROM task WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Задача из task_archive, куда основное приложение переносит старые завершенные Задачи.
+     */
+    public Mono<TaskEntity> findArchivedById(Long id) {
+        return databaseClient.sql(SELECT_ARCHIVED_SQL + " WHERE id = :id")
+                .bind("id", id)
+                .map(TaskR2dbcRepository::toEntity)
+                .one();
+    }
+
+    public Mono<Long> findArchivedVersionById(Long id) {
+        return databaseClient.sql("SELECT version FROM task_archive WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Вставляет Задачу, id выдается из task_sequence значением по умолчанию столбца.
+     */
+    public Mono<TaskEntity> insert(TaskEntity task) {
+        return databaseClient.sql(INSERT_SQL)
+                .bind("title", task.getTitle())
+                .bind("description", task.getDescription())
+                .bind("dueDate", toDbTimestamp(task.getDueDate()))
+                .map(TaskR2dbcRepository::toEntity)
+                .one();
+    }
+
+    /**
+     * Обновляет Задачу одним запросом {@code UPDATE ... RETURNING} и увеличивает ее версию.
+     *
+     * @param expectedVersions если заданы, обновление выполняется только при совпадении версии с одной из них
+     * @return обновленное состояние или пустой результат, если Задачи с таким id (и версией) нет
+     */
+    public Mono<TaskEntity> updateReturning(TaskEntity task, @Nullable List<Long> expectedVersions) {
+        var spec = databaseClient.sql(UPDATE_SQL + (expectedVersions == null ? "" : " AND version IN (:versions)")
+                        + RETURNING_SQL)
+                .bind("title", task.getTitle())
+                .bind("description", task.getDescription())
+                .bind("dueDate", toDbTimestamp(task.getDueDate()))
+                .bind("completed", task.isCompleted())
+                .bind("id", task.getId());
+        if (expectedVersions != null) {
+            spec = spec.bind("versions", expectedVersions);
+        }
+        return spec.map(TaskR2dbcRepository::toEntity).one();
+    }
+
+    /**
+     * @param expectedVersions если заданы, удаление выполняется только при совпадении версии с одной из них
+     * @return кол-во удаленных строк
+     */
+    public Mono<Long> deleteById(Long id, @Nullable List<Long> expectedVersions) {
+        return delete("task", id, expectedVersions);
+    }
+
+    /**
+     * @see #deleteById(Long, List)
+     */
+    public Mono<Long> deleteArchivedById(Long id, @Nullable List<Long> expectedVersions) {
+        return delete("task_archive", id, expectedVersions);
+    }
+
+    private Mono<Long> delete(String table, Long id, @Nullable List<Long> expectedVersions) {
+        var spec = databaseClient.sql("DELETE FROM " + table + " WHERE id = :id"
+                        + (expectedVersions == null ? "" : " AND version IN (:versions)"))
+                .bind("id", id);
+        if (expectedVersions != null) {
+            spec = spec.bind("versions", expectedVersions);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * {@code pg_notify} в текущей транзакции: слушатели получат сообщение только после ее фиксации.
+     */
+    public Mono<Void> notify(String channel, String payload) {
+        return databaseClient.sql(NOTIFY_SQL)
+                .bind("channel", channel)
+                .bind("payload", payload)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    /**
+     * Имена столбцов приходят только из {@link TaskSortProperty}, поэтому подставляются в запрос напрямую.
+     */
+    private static String orderBy(TaskSortProperty property, Sort.Direction direction) {
+        var order = direction.isAscending() ? " ASC" : " DESC";
+        return property == TaskSortProperty.ID
+                ? property.getColumn() + order
+                : property.getColumn() + order + ", id" + order;
+    }
+
+    private static void appendWhere(StringBuilder sql, TaskFilter filter) {
+        var conditions = new ArrayList<String>();
+        if (filter.completed() != null) {
+            conditions.add("completed = :completed");
+        }
+        if (filter.dueAfter() != null) {
+            conditions.add("due_date >= :dueAfter");
+        }
+        if (filter.dueBefore() != null) {
+            conditions.add("due_date < :dueBefore");
+        }
+        if (filter.titlePrefix() != null) {
+            conditions.add("title LIKE :titlePrefix ESCAPE '\\'");
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+    }
+
+    private static GenericExecuteSpec bindFilter(GenericExecuteSpec spec, TaskFilter filter) {
+        if (filter.completed() != null) {
+            spec = spec.bind("completed", filter.completed());
+        }
+        if (filter.dueAfter() != null) {
+            spec = spec.bind("dueAfter", toDbTimestamp(filter.dueAfter()));
+        }
+        if (filter.dueBefore() != null) {
+            spec = spec.bind("dueBefore", toDbTimestamp(filter.dueBefore()));
+        }
+        if (filter.titlePrefix() != null) {
+            spec = spec.bind("titlePrefix", LIKE_SPECIAL_CHARACTERS.matcher(filter.titlePrefix())
+                    .replaceAll("\\\\$0") + "%");
+        }
+        return spec;
+    }
+
+    private static TaskEntity toEntity(Readable row) {
+        var task = new TaskEntity();
+        task.setId(row.get("id", Long.class));
+        task.setTitle(row.get("title", String.class));
+        task.setDescription(row.get("description", String.class));
+        task.setDueDate(fromDbTimestamp(row.get("due_date", LocalDateTime.class)));
+        task.setCompleted(Boolean.TRUE.equals(row.get("completed", Boolean.class)));
+        task.setOverdueAt(fromDbTimestamp(row.get("overdue_at", LocalDateTime.class)));
+        task.setVersion(row.get("version", Long.class));
+        return task;
+    }
+
+    /**
+     * due_date и overdue_at хранятся как TIMESTAMP WITHOUT TIME ZONE в UTC, так же как их пишет основное приложение.
+     */
+    static LocalDateTime toDbTimestamp(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    @Nullable
+    static Instant fromDbTimestamp(@Nullable LocalDateTime timestamp) {
+        return timestamp == null ? null : timestamp.toInstant(ZoneOffset.UTC);
+    }
+
+    private record SearchHit(TaskEntity task, long candidates) {
+    }
+
+}
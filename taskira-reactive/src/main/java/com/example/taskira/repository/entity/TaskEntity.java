@@ -0,0 +1,30 @@
+package com.example.taskira.repository.entity;
+
+import java.time.Instant;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Строка таблицы task. Читается и пишется запросами {@link com.example.taskira.repository.TaskR2dbcRepository},
+ * схемой по-прежнему управляет Liquibase основного приложения.
+ */
+@Getter
+@Setter
+public class TaskEntity {
+
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    private Instant dueDate;
+
+    private boolean completed;
+
+    private Instant overdueAt;
+
+    private long version;
+
+}
@@ -0,0 +1,169 @@
+package com.example.taskira.router;
+
+import java.util.stream.Collectors;
+
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindException;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+
+import com.example.taskira.dto.in.PageRequestParam;
+import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.in.TaskExportParam;
+import com.example.taskira.dto.in.TaskSearchParam;
+import com.example.taskira.dto.in.TaskUpdateParam;
+import com.example.taskira.etag.TaskETags;
+import com.example.taskira.exception.InvalidRequestParamException;
+import com.example.taskira.export.TaskExportEncoder;
+import com.example.taskira.service.TaskWebFacade;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Обработчики маршрутов {@link TaskRouter}. Параметры запроса связываются с теми же DTO, что и в основном
+ * приложении, и проверяются тем же Bean Validation; ошибки связывания и проверки дают 400.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskHandler {
+
+    static final int EXPORT_CHUNK_SIZE = 500;
+
+    private final TaskWebFacade webFacade;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    public Mono<ServerResponse> findTasks(ServerRequest request) {
+        return bindQuery(request, PageRequestParam.class)
+                .flatMap(webFacade::findTasks)
+                .flatMap(page -> ok(request,
+                        TaskETags.of(page.getContent(), page.getNumber(), page.getTotalElements(), page.isHasNext()),
+                        page));
+    }
+
+    public Mono<ServerResponse> searchTasks(ServerRequest request) {
+        return bindQuery(request, TaskSearchParam.class)
+                .flatMap(webFacade::searchTasks)
+                .flatMap(page -> ok(request, TaskETags.of(page.getContent(), page.getNumber(), page.isHasNext(),
+                        page.getTruncated()), page));
+    }
+
+    /**
+     * Ответ пишется по мере чтения Задач из БД; при медленном клиенте чтение приостанавливается
+     * обратным давлением, а не накапливается в памяти.
+     */
+    public Mono<ServerResponse> exportTasks(ServerRequest request) {
+        return bindQuery(request, TaskExportParam.class)
+                .flatMap(param -> {
+                    var format = param.getFormat();
+                    var tasks = webFacade.exportTasks(param);
+                    var response = ServerResponse.ok()
+                            .contentType(format.getMediaType())
+                            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                    .filename("tasks." + format.getExtension())
+                                    .build()
+                                    .toString());
+                    return response.body(TaskExportEncoder.encode(format, tasks, objectMapper, EXPORT_CHUNK_SIZE),
+                            String.class);
+                });
+    }
+
+    public Mono<ServerResponse> createTask(ServerRequest request) {
+        return bindBody(request, TaskCreateParam.class)
+                .flatMap(webFacade::create)
+                .flatMap(task -> ServerResponse.ok().eTag(TaskETags.of(task.getVersion())).bodyValue(task));
+    }
+
+    public Mono<ServerResponse> findById(ServerRequest request) {
+        return Mono.defer(() -> {
+            var id = pathId(request);
+            var ifNoneMatch = request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch == null) {
+                return findById(id);
+            }
+            // Проверка по одной версии, без чтения, маппинга и сериализации Задачи
+            return webFacade.findVersion(id)
+                    .map(TaskETags::of)
+                    .flatMap(etag -> TaskETags.matchesNoneMatch(ifNoneMatch, etag)
+                            ? ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build()
+                            : findById(id));
+        });
+    }
+
+    public Mono<ServerResponse> updateTask(ServerRequest request) {
+        return Mono.defer(() -> {
+            var id = pathId(request);
+            var expectedVersions = TaskETags.expectedVersions(request.headers().firstHeader(HttpHeaders.IF_MATCH));
+            return bindBody(request, TaskUpdateParam.class)
+                    .flatMap(param -> webFacade.update(id, param, expectedVersions))
+                    .flatMap(task -> ServerResponse.ok().eTag(TaskETags.of(task.getVersion())).bodyValue(task));
+        });
+    }
+
+    public Mono<ServerResponse> deleteTask(ServerRequest request) {
+        return Mono.defer(() -> {
+            var id = pathId(request);
+            var expectedVersions = TaskETags.expectedVersions(request.headers().firstHeader(HttpHeaders.IF_MATCH));
+            return webFacade.delete(id, expectedVersions)
+                    .then(ServerResponse.ok().build());
+        });
+    }
+
+    private Mono<ServerResponse> findById(Long id) {
+        return webFacade.findById(id)
+                .flatMap(task -> ServerResponse.ok().eTag(TaskETags.of(task.getVersion())).bodyValue(task));
+    }
+
+    /**
+     * При совпадении If-None-Match ответ 304 формируется без сериализации тела.
+     */
+    private static Mono<ServerResponse> ok(ServerRequest request, String etag, Object body) {
+        return request.checkNotModified(etag)
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.ok().eTag(etag).bodyValue(body)));
+    }
+
+    private <T> Mono<T> bindQuery(ServerRequest request, Class<T> type) {
+        return request.bind(type,
+                        binder -> binder.setConversionService(ApplicationConversionService.getSharedInstance()))
+                .onErrorMap(BindException.class, e -> new InvalidRequestParamException(e.getFieldErrors().stream()
+                        .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                        .collect(Collectors.joining("; "))))
+                .map(this::validate);
+    }
+
+    private <T> Mono<T> bindBody(ServerRequest request, Class<T> type) {
+        return request.bodyToMono(type)
+                .onErrorMap(ServerWebInputException.class, e -> new InvalidRequestParamException(e.getReason()))
+                .switchIfEmpty(Mono.error(() -> new InvalidRequestParamException("Request body is required")))
+                .map(this::validate);
+    }
+
+    private <T> T validate(T param) {
+        var violations = validator.validate(param);
+        if (!violations.isEmpty()) {
+            throw new InvalidRequestParamException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return param;
+    }
+
+    private static Long pathId(ServerRequest request) {
+        var id = request.pathVariable("id");
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestParamException(String.format("Task id = %s is not a number", id));
+        }
+    }
+
+}
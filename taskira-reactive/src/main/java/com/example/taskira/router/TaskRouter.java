@@ -0,0 +1,29 @@
+package com.example.taskira.router;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Те же пути и параметры /tasks, что у TaskController основного приложения.
+ */
+@Configuration(proxyBeanMethods = false)
+public class TaskRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> taskRoutes(TaskHandler handler) {
+        return RouterFunctions.route()
+                .path("/tasks", builder -> builder
+                        .GET("", handler::findTasks)
+                        .GET("/search", handler::searchTasks)
+                        .GET("/export", handler::exportTasks)
+                        .POST("", handler::createTask)
+                        .GET("/{id}", handler::findById)
+                        .PUT("/{id}", handler::updateTask)
+                        .DELETE("/{id}", handler::deleteTask))
+                .build();
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.example.taskira.service;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+
+import com.example.taskira.dto.in.PageRequestParam;
+import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.in.TaskSearchParam;
+import com.example.taskira.dto.in.TaskUpdateParam;
+import com.example.taskira.repository.TaskSearchSlice;
+import com.example.taskira.repository.TaskSortProperty;
+import com.example.taskira.repository.entity.TaskEntity;
+
+import jakarta.validation.constraints.NotNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Реактивный аналог TaskService основного приложения: ни один метод не блокирует вызывающий поток,
+ * результат и ошибки передаются через возвращаемый Mono/Flux.
+ */
+public interface TaskService {
+
+    /**
+     * Для totalMode = EXACT и ESTIMATED возвращает Page, для NONE - Slice без общего кол-ва.
+     */
+    @NotNull
+    Mono<Slice<TaskEntity>> findTasks(@NotNull PageRequestParam param);
+
+    @NotNull
+    Mono<TaskSearchSlice<TaskEntity>> searchTasks(@NotNull TaskSearchParam param);
+
+    /**
+     * Все Задачи в порядке сортировки; строки читаются из БД по мере запроса подписчиком.
+     */
+    @NotNull
+    Flux<TaskEntity> exportTasks(@NotNull TaskSortProperty property, @NotNull Sort.Direction direction);
+
+    @NotNull
+    Mono<TaskEntity> create(@NotNull TaskCreateParam param);
+
+    /**
+     * Находит Задачу, в том числе архивную.
+     */
+    @NotNull
+    Mono<TaskEntity> findById(@NotNull Long id);
+
+    @NotNull
+    Mono<Long> findVersion(@NotNull Long id);
+
+    /**
+     * Изменяет активную Задачу, для архивной возвращает {@link com.example.taskira.exception.ArchivedTaskException}.
+     *
+     * @param expectedVersions если заданы, Задача обновляется только при совпадении версии с одной из них
+     */
+    @NotNull
+    Mono<TaskEntity> update(@NotNull Long id, @NotNull TaskUpdateParam param, @Nullable List<Long> expectedVersions);
+
+    /**
+     * Удаляет Задачу, в том числе архивную.
+     *
+     * @param expectedVersions если заданы, Задача удаляется только при совпадении версии с одной из них
+     */
+    @NotNull
+    Mono<Void> delete(@NotNull Long id, @Nullable List<Long> expectedVersions);
+
+}
@@ -0,0 +1,49 @@
+package com.example.taskira.service;
+
+import java.util.List;
+
+import org.springframework.lang.Nullable;
+
+import com.example.taskira.dto.in.PageRequestParam;
+import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.in.TaskExportParam;
+import com.example.taskira.dto.in.TaskSearchParam;
+import com.example.taskira.dto.in.TaskUpdateParam;
+import com.example.taskira.dto.out.PageResponse;
+import com.example.taskira.dto.out.TaskResponse;
+
+import jakarta.validation.constraints.NotNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface TaskWebFacade {
+
+    @NotNull
+    Mono<PageResponse<TaskResponse>> findTasks(@NotNull PageRequestParam param);
+
+    @NotNull
+    Mono<PageResponse<TaskResponse>> searchTasks(@NotNull TaskSearchParam param);
+
+    /**
+     * Проверяет параметры при подписке, до первого обращения к БД. Задачи читаются в read-only транзакции
+     * по мере того, как клиент принимает ответ.
+     */
+    @NotNull
+    Flux<TaskResponse> exportTasks(@NotNull TaskExportParam param);
+
+    @NotNull
+    Mono<TaskResponse> create(@NotNull TaskCreateParam param);
+
+    @NotNull
+    Mono<TaskResponse> findById(@NotNull Long id);
+
+    @NotNull
+    Mono<Long> findVersion(@NotNull Long id);
+
+    @NotNull
+    Mono<TaskResponse> update(@NotNull Long id, @NotNull TaskUpdateParam param, @Nullable List<Long> expectedVersions);
+
+    @NotNull
+    Mono<Void> delete(@NotNull Long id, @Nullable List<Long> expectedVersions);
+
+}
@@ -0,0 +1,233 @@
+package com.example.taskira.service.impl;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+import com.example.taskira.cache.TaskInvalidationPublisher;
+import com.example.taskira.dto.in.PageRequestParam;
+import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.in.TaskFilterParam;
+import com.example.taskira.dto.in.TaskSearchParam;
+import com.example.taskira.dto.in.TaskUpdateParam;
+import com.example.taskira.exception.ArchivedTaskException;
+import com.example.taskira.exception.EntityNotFoundException;
+import com.example.taskira.exception.InvalidRequestParamException;
+import com.example.taskira.exception.VersionConflictException;
+import com.example.taskira.mapper.TaskMapper;
+import com.example.taskira.pagination.TotalMode;
+import com.example.taskira.repository.TaskFilter;
+import com.example.taskira.repository.TaskQueryPlan;
+import com.example.taskira.repository.TaskR2dbcRepository;
+import com.example.taskira.repository.TaskSearchSlice;
+import com.example.taskira.repository.TaskSortProperty;
+import com.example.taskira.repository.entity.TaskEntity;
+import com.example.taskira.service.TaskService;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Validated
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class TaskServiceImpl implements TaskService {
+
+    static final int EXPORT_FETCH_SIZE = 1000;
+    static final int SEARCH_MAX_CANDIDATES = 1000;
+
+    private final TaskR2dbcRepository taskRepository;
+    private final TaskInvalidationPublisher invalidationPublisher;
+
+    @NotNull
+    @Override
+    public Mono<Slice<TaskEntity>> findTasks(@NotNull PageRequestParam param) {
+        return Mono.defer(() -> {
+            var property = TaskSortProperty.of(param.getProperty());
+            var filter = toFilter(param);
+            var archived = param.isArchived();
+            TaskQueryPlan.of(filter, property, archived);
+            if (param.getTotalMode() == TotalMode.ESTIMATED && !filter.isEmpty()) {
+                // Оценка по статистике относится ко всей таблице и не учитывает фильтр
+                return Mono.error(new InvalidRequestParamException(
+                        "totalMode = ESTIMATED is supported only without filters"));
+            }
+            if (archived && param.getTotalMode() == TotalMode.ESTIMATED) {
+                return Mono.error(new InvalidRequestParamException(
+                        "totalMode = ESTIMATED is not supported for archived tasks"));
+            }
+
+            var pageable = PageRequest.of(param.getPage(), param.getSize(), property.sort(param.getDirection()));
+            return switch (param.getTotalMode()) {
+                case EXACT -> findPage(filter, property, param.getDirection(), pageable, archived);
+                case NONE -> findSlice(filter, property, param.getDirection(), pageable, archived);
+                case ESTIMATED -> findSlice(filter, property, param.getDirection(), pageable, false)
+                        .flatMap(this::withEstimatedTotal);
+            };
+        });
+    }
+
+    @NotNull
+    @Override
+    public Mono<TaskSearchSlice<TaskEntity>> searchTasks(@NotNull TaskSearchParam param) {
+        return taskRepository.search(param.getQ().strip(), SEARCH_MAX_CANDIDATES,
+                PageRequest.of(param.getPage(), param.getSize()));
+    }
+
+    @NotNull
+    @Override
+    public Flux<TaskEntity> exportTasks(@NotNull TaskSortProperty property, @NotNull Sort.Direction direction) {
+        return taskRepository.streamAll(property, direction, EXPORT_FETCH_SIZE);
+    }
+
+    @NotNull
+    @Override
+    @Transactional
+    public Mono<TaskEntity> create(@NotNull TaskCreateParam param) {
+        var newTask = TaskMapper.INSTANCE.toEntity(param);
+        return taskRepository.insert(newTask);
+    }
+
+    @NotNull
+    @Override
+    public Mono<TaskEntity> findById(@NotNull Long id) {
+        // Архив читается только при промахе: запрос активной Задачи по-прежнему один
+        return taskRepository.findById(id)
+                .switchIfEmpty(Mono.defer(() -> taskRepository.findArchivedById(id)))
+                .switchIfEmpty(Mono.error(() -> entityNotFoundException(id)));
+    }
+
+    @NotNull
+    @Override
+    public Mono<Long> findVersion(@NotNull Long id) {
+        return findAnyVersion(id)
+                .switchIfEmpty(Mono.error(() -> entityNotFoundException(id)));
+    }
+
+    @NotNull
+    @Override
+    @Transactional
+    public Mono<TaskEntity> update(@NotNull Long id, @NotNull TaskUpdateParam param,
+            @Nullable List<Long> expectedVersions) {
+        var task = new TaskEntity();
+        task.setId(id);
+        TaskMapper.INSTANCE.update(task, param);
+        return taskRepository.updateReturning(task, expectedVersions)
+                .switchIfEmpty(Mono.defer(() -> notUpdatedOrArchivedException(id, expectedVersions)))
+                .flatMap(updatedTask -> invalidationPublisher.publishUpdated(id, updatedTask.getVersion())
+                        .thenReturn(updatedTask));
+    }
+
+    @NotNull
+    @Override
+    @Transactional
+    public Mono<Void> delete(@NotNull Long id, @Nullable List<Long> expectedVersions) {
+        return taskRepository.deleteById(id, expectedVersions)
+                .flatMap(deleted -> deleted == 0 ? taskRepository.deleteArchivedById(id, expectedVersions)
+                        : Mono.just(deleted))
+                .flatMap(deleted -> deleted == 0
+                        ? notUpdatedException(id, expectedVersions)
+                        : invalidationPublisher.publishDeleted(id));
+    }
+
+    private Mono<Slice<TaskEntity>> findPage(TaskFilter filter, TaskSortProperty property,
+            Sort.Direction direction, Pageable pageable, boolean archived) {
+        return findAll(filter, property, direction, pageable.getOffset(), pageable.getPageSize(), archived)
+                .collectList()
+                .flatMap(tasks -> {
+                    // Как PageableExecutionUtils: count(*) не нужен, если кол-во следует из неполной страницы
+                    if (tasks.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !tasks.isEmpty())) {
+                        return Mono.just(new PageImpl<>(tasks, pageable, pageable.getOffset() + tasks.size()));
+                    }
+                    return (archived ? taskRepository.countArchived(filter) : taskRepository.count(filter))
+                            .map(total -> new PageImpl<>(tasks, pageable, total));
+                });
+    }
+
+    private Mono<Slice<TaskEntity>> findSlice(TaskFilter filter, TaskSortProperty property,
+            Sort.Direction direction, Pageable pageable, boolean archived) {
+        return findAll(filter, property, direction, pageable.getOffset(), pageable.getPageSize() + 1, archived)
+                .collectList()
+                .map(tasks -> toSlice(tasks, pageable));
+    }
+
+    private Flux<TaskEntity> findAll(TaskFilter filter, TaskSortProperty property, Sort.Direction direction,
+            long offset, int limit, boolean archived) {
+        return archived
+                ? taskRepository.findArchived(filter, property, direction, offset, limit)
+                : taskRepository.findAll(filter, property, direction, offset, limit);
+    }
+
+    private Mono<Slice<TaskEntity>> withEstimatedTotal(Slice<TaskEntity> slice) {
+        // Оценка может отставать от реального кол-ва, но не должна противоречить уже прочитанной странице
+        var seen = slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        return taskRepository.estimateCount()
+                .switchIfEmpty(Mono.defer(() -> taskRepository.count(TaskFilter.NONE)))
+                .map(estimate -> new PageImpl<>(slice.getContent(), slice.getPageable(), Math.max(estimate, seen)));
+    }
+
+    /**
+     * Читается size + 1 строка, чтобы определить наличие следующей страницы.
+     */
+    private static Slice<TaskEntity> toSlice(List<TaskEntity> tasks, Pageable pageable) {
+        var hasNext = tasks.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? tasks.subList(0, pageable.getPageSize()) : tasks, pageable, hasNext);
+    }
+
+    private static TaskFilter toFilter(TaskFilterParam param) {
+        if (param.getDueAfter() != null && param.getDueBefore() != null
+                && !param.getDueAfter().isBefore(param.getDueBefore())) {
+            throw new InvalidRequestParamException("dueAfter must be before dueBefore");
+        }
+        return new TaskFilter(param.getCompleted(), param.getDueAfter(), param.getDueBefore(),
+                param.getTitlePrefix());
+    }
+
+    /**
+     * Архивная Задача не изменяется: это конфликт с ее состоянием, а не отсутствие Задачи.
+     */
+    private <T> Mono<T> notUpdatedOrArchivedException(Long id, @Nullable List<Long> expectedVersions) {
+        return taskRepository.findVersionById(id)
+                .hasElement()
+                .flatMap(active -> active ? Mono.just(false) : taskRepository.findArchivedVersionById(id).hasElement())
+                .flatMap(archived -> archived
+                        ? Mono.error(new ArchivedTaskException(
+                                String.format("Task with id = %s is archived, archived tasks are read-only", id)))
+                        : notUpdatedException(id, expectedVersions));
+    }
+
+    /**
+     * Различает отсутствие Задачи и устаревшую версию, в том числе архивной Задачи. Дополнительные запросы
+     * выполняются только на пути ошибки.
+     */
+    private <T> Mono<T> notUpdatedException(Long id, @Nullable List<Long> expectedVersions) {
+        if (expectedVersions == null) {
+            return Mono.error(entityNotFoundException(id));
+        }
+        return findAnyVersion(id)
+                .flatMap(version -> Mono.<T>error(new VersionConflictException(
+                        String.format("Task with id = %s has version other than %s", id, expectedVersions))))
+                .switchIfEmpty(Mono.error(() -> entityNotFoundException(id)));
+    }
+
+    private Mono<Long> findAnyVersion(Long id) {
+        return taskRepository.findVersionById(id)
+                .switchIfEmpty(Mono.defer(() -> taskRepository.findArchivedVersionById(id)));
+    }
+
+    private static EntityNotFoundException entityNotFoundException(Long id) {
+        return new EntityNotFoundException(String.format("Task with id = %s not found", id));
+    }
+
+}
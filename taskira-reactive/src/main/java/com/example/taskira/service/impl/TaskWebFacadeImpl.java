@@ -0,0 +1,98 @@
+package com.example.taskira.service.impl;
+
+import java.util.List;
+
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import com.example.taskira.dto.in.PageRequestParam;
+import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.in.TaskExportParam;
+import com.example.taskira.dto.in.TaskSearchParam;
+import com.example.taskira.dto.in.TaskUpdateParam;
+import com.example.taskira.dto.out.PageResponse;
+import com.example.taskira.dto.out.TaskResponse;
+import com.example.taskira.mapper.TaskMapper;
+import com.example.taskira.pagination.TotalMode;
+import com.example.taskira.repository.TaskSortProperty;
+import com.example.taskira.service.TaskService;
+import com.example.taskira.service.TaskWebFacade;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Транзакции открываются в {@link TaskService}: реактивная транзакция привязана к подписке,
+ * а не к потоку, поэтому фасаду достаточно передать Mono/Flux сервиса дальше.
+ */
+@Service
+@Validated
+@RequiredArgsConstructor
+public class TaskWebFacadeImpl implements TaskWebFacade {
+
+    private final TaskService taskService;
+
+    @NotNull
+    @Override
+    public Mono<PageResponse<TaskResponse>> findTasks(@NotNull PageRequestParam param) {
+        return taskService.findTasks(param)
+                .map(page -> TaskMapper.INSTANCE.toPageResponse(page, param.getTotalMode()));
+    }
+
+    @NotNull
+    @Override
+    public Mono<PageResponse<TaskResponse>> searchTasks(@NotNull TaskSearchParam param) {
+        return taskService.searchTasks(param)
+                .map(slice -> {
+                    var response = TaskMapper.INSTANCE.toPageResponse(slice, TotalMode.NONE);
+                    response.setTruncated(slice.isTruncated());
+                    return response;
+                });
+    }
+
+    @NotNull
+    @Override
+    public Flux<TaskResponse> exportTasks(@NotNull TaskExportParam param) {
+        return Flux.defer(() -> taskService.exportTasks(TaskSortProperty.of(param.getProperty()),
+                        param.getDirection()))
+                .map(TaskMapper.INSTANCE::toTaskResponse);
+    }
+
+    @NotNull
+    @Override
+    public Mono<TaskResponse> create(@NotNull TaskCreateParam param) {
+        return taskService.create(param)
+                .map(TaskMapper.INSTANCE::toTaskResponse);
+    }
+
+    @NotNull
+    @Override
+    public Mono<TaskResponse> findById(@NotNull Long id) {
+        return taskService.findById(id)
+                .map(TaskMapper.INSTANCE::toTaskResponse);
+    }
+
+    @NotNull
+    @Override
+    public Mono<Long> findVersion(@NotNull Long id) {
+        return taskService.findVersion(id);
+    }
+
+    @NotNull
+    @Override
+    public Mono<TaskResponse> update(@NotNull Long id, @NotNull TaskUpdateParam param,
+            @Nullable List<Long> expectedVersions) {
+        return taskService.update(id, param, expectedVersions)
+                .map(TaskMapper.INSTANCE::toTaskResponse);
+    }
+
+    @NotNull
+    @Override
+    public Mono<Void> delete(@NotNull Long id, @Nullable List<Long> expectedVersions) {
+        return taskService.delete(id, expectedVersions);
+    }
+
+}
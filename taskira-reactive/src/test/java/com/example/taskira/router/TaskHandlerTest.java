@@ -0,0 +1,152 @@
+package com.example.taskira.router;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import com.example.taskira.dto.in.PageRequestParam;
+import com.example.taskira.dto.in.TaskExportParam;
+import com.example.taskira.dto.in.TaskUpdateParam;
+import com.example.taskira.exception.EntityNotFoundException;
+import com.example.taskira.exception.VersionConflictException;
+import com.example.taskira.pagination.TotalMode;
+import com.example.taskira.service.TaskWebFacade;
+import com.example.taskira.utils.TaskDataUtils;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class TaskHandlerTest {
+
+    private final TaskWebFacade taskWebFacade;
+    private final WebTestClient client;
+
+    public TaskHandlerTest() {
+        taskWebFacade = Mockito.mock(TaskWebFacade.class);
+        var validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        var handler = new TaskHandler(taskWebFacade, validator, Jackson2ObjectMapperBuilder.json().build());
+        client = WebTestClient.bindToRouterFunction(new TaskRouter().taskRoutes(handler)).build();
+
+        when(taskWebFacade.findTasks(any(PageRequestParam.class)))
+                .thenReturn(Mono.just(TaskDataUtils.testPageResponse()));
+        when(taskWebFacade.findById(any())).thenReturn(Mono.just(TaskDataUtils.testTaskResponse()));
+    }
+
+    /**
+     * Тест проверяет связывание параметров запроса с PageRequestParam.
+     */
+    @Test
+    void findTasks__test_params_bound() {
+        client.get().uri("/tasks?page=2&size=10&property=dueDate&direction=DESC&totalMode=NONE"
+                        + "&completed=false&dueAfter=2024-01-01T00:00:00Z")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody().jsonPath("$.content[0].id").isEqualTo(1);
+
+        var captor = ArgumentCaptor.forClass(PageRequestParam.class);
+        Mockito.verify(taskWebFacade).findTasks(captor.capture());
+        var param = captor.getValue();
+        assertEquals(2, param.getPage());
+        assertEquals(Sort.Direction.DESC, param.getDirection());
+        assertEquals(TotalMode.NONE, param.getTotalMode());
+        assertEquals(Boolean.FALSE, param.getCompleted());
+    }
+
+    /**
+     * Тест проверяет ответ 400 при нарушении ограничений параметров.
+     */
+    @Test
+    void findTasks__test_invalid_params() {
+        client.get().uri("/tasks?page=0&size=5000&property=id&direction=ASC")
+                .exchange()
+                .expectStatus().isBadRequest();
+        Mockito.verifyNoInteractions(taskWebFacade);
+    }
+
+    /**
+     * Тест проверяет ответ 304 при совпадении If-None-Match с версией Задачи.
+     */
+    @Test
+    void findById__test_not_modified() {
+        when(taskWebFacade.findVersion(1L)).thenReturn(Mono.just(2L));
+
+        client.get().uri("/tasks/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2\"")
+                .exchange()
+                .expectStatus().isNotModified();
+        Mockito.verify(taskWebFacade, Mockito.never()).findById(any());
+    }
+
+    /**
+     * Тест проверяет ответ 404 для несуществующей Задачи.
+     */
+    @Test
+    void findById__test_not_found() {
+        when(taskWebFacade.findById(1L)).thenReturn(Mono.error(new EntityNotFoundException("not found")));
+
+        client.get().uri("/tasks/1")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    /**
+     * Тест проверяет передачу версий из списка If-Match и ответ 412 при конфликте.
+     */
+    @Test
+    void updateTask__test_version_conflict() {
+        when(taskWebFacade.update(eq(1L), any(TaskUpdateParam.class), eq(List.of(3L, 4L))))
+                .thenReturn(Mono.error(new VersionConflictException("conflict")));
+
+        client.put().uri("/tasks/1")
+                .header(HttpHeaders.IF_MATCH, "\"3\", \"4\"")
+                .bodyValue(TaskDataUtils.testTaskUpdateParam())
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    /**
+     * Тест проверяет, что удаление без If-Match не проверяет версию.
+     */
+    @Test
+    void deleteTask__test_without_if_match() {
+        when(taskWebFacade.delete(eq(1L), isNull())).thenReturn(Mono.empty());
+
+        client.delete().uri("/tasks/1")
+                .exchange()
+                .expectStatus().isOk();
+        Mockito.verify(taskWebFacade).delete(eq(1L), isNull());
+    }
+
+    /**
+     * Тест проверяет выгрузку в CSV: заголовок и строка на каждую Задачу.
+     */
+    @Test
+    void exportTasks__test_csv() {
+        when(taskWebFacade.exportTasks(any(TaskExportParam.class)))
+                .thenReturn(Flux.just(TaskDataUtils.testTaskResponse()));
+
+        client.get().uri("/tasks/export?format=CSV")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.parseMediaType("text/csv"))
+                .expectBody(String.class).isEqualTo("id,title,description,dueDate,completed,overdueAt,version\r\n"
+                        + "1,title1,description1,2024-02-18T18:35:24Z,false,,2\r\n");
+    }
+
+}
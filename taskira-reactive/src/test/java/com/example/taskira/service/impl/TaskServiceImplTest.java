@@ -0,0 +1,259 @@
+package com.example.taskira.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+
+import com.example.taskira.cache.TaskInvalidationProperties;
+import com.example.taskira.cache.TaskInvalidationPublisher;
+import com.example.taskira.exception.ArchivedTaskException;
+import com.example.taskira.exception.EntityNotFoundException;
+import com.example.taskira.exception.InvalidRequestParamException;
+import com.example.taskira.exception.VersionConflictException;
+import com.example.taskira.pagination.TotalMode;
+import com.example.taskira.repository.TaskFilter;
+import com.example.taskira.repository.TaskR2dbcRepository;
+import com.example.taskira.repository.TaskSortProperty;
+import com.example.taskira.repository.entity.TaskEntity;
+import com.example.taskira.service.TaskService;
+import com.example.taskira.utils.TaskDataUtils;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class TaskServiceImplTest {
+
+    private final TaskService taskService;
+    private final TaskR2dbcRepository taskRepository;
+
+    public TaskServiceImplTest() {
+        taskRepository = Mockito.mock(TaskR2dbcRepository.class);
+        taskService = new TaskServiceImpl(taskRepository,
+                new TaskInvalidationPublisher(taskRepository, new TaskInvalidationProperties(true, "channel")));
+
+        when(taskRepository.findAll(any(TaskFilter.class), any(TaskSortProperty.class), any(Sort.Direction.class),
+                anyLong(), anyInt())).thenReturn(Flux.fromIterable(TaskDataUtils.testList()));
+        when(taskRepository.count(any(TaskFilter.class))).thenReturn(Mono.just(100L));
+        when(taskRepository.notify(anyString(), anyString())).thenReturn(Mono.empty());
+        when(taskRepository.findVersionById(anyLong())).thenReturn(Mono.empty());
+        when(taskRepository.findArchivedById(anyLong())).thenReturn(Mono.empty());
+        when(taskRepository.findArchivedVersionById(anyLong())).thenReturn(Mono.empty());
+        when(taskRepository.deleteArchivedById(anyLong(), any())).thenReturn(Mono.just(0L));
+    }
+
+    /**
+     * Тест проверяет, что при полной странице общее кол-во берется из count(*).
+     */
+    @Test
+    void findTasks__test_total_mode_exact() {
+        StepVerifier.create(taskService.findTasks(TaskDataUtils.testParam()))
+                .assertNext(page -> {
+                    assertEquals(3, page.getNumberOfElements());
+                    assertEquals(100L, ((Page<TaskEntity>) page).getTotalElements());
+                })
+                .verifyComplete();
+        Mockito.verify(taskRepository, Mockito.times(1)).count(TaskFilter.NONE);
+    }
+
+    /**
+     * Тест проверяет, что без подсчета читается size + 1 строка и по ней определяется наличие следующей страницы.
+     */
+    @Test
+    void findTasks__test_total_mode_none() {
+        var param = TaskDataUtils.createPageRequestParam(0, 2, "id", Sort.Direction.ASC, TotalMode.NONE);
+
+        StepVerifier.create(taskService.findTasks(param))
+                .assertNext(slice -> {
+                    assertEquals(2, slice.getNumberOfElements());
+                    assertTrue(slice.hasNext());
+                    assertFalse(slice instanceof Page);
+                })
+                .verifyComplete();
+        Mockito.verify(taskRepository).findAll(TaskFilter.NONE, TaskSortProperty.ID, Sort.Direction.ASC, 0, 3);
+        Mockito.verify(taskRepository, Mockito.never()).count(any());
+    }
+
+    /**
+     * Тест проверяет, что архивные Задачи читаются из task_archive и по умолчанию без подсчета общего кол-ва.
+     */
+    @Test
+    void findTasks__test_archived() {
+        when(taskRepository.findArchived(any(TaskFilter.class), any(TaskSortProperty.class),
+                any(Sort.Direction.class), anyLong(), anyInt()))
+                .thenReturn(Flux.fromIterable(TaskDataUtils.testList()));
+        var param = TaskDataUtils.createPageRequestParam(0, 2, "id", Sort.Direction.ASC, null);
+        param.setArchived(true);
+
+        StepVerifier.create(taskService.findTasks(param))
+                .assertNext(slice -> {
+                    assertEquals(2, slice.getNumberOfElements());
+                    assertFalse(slice instanceof Page);
+                })
+                .verifyComplete();
+        Mockito.verify(taskRepository).findArchived(TaskFilter.NONE, TaskSortProperty.ID, Sort.Direction.ASC, 0, 3);
+        Mockito.verify(taskRepository, Mockito.never()).findAll(any(), any(), any(), anyLong(), anyInt());
+        Mockito.verify(taskRepository, Mockito.never()).countArchived(any());
+    }
+
+    /**
+     * Тест проверяет, что сортировка без индекса в task_archive отклоняется для архива до обращения к БД.
+     */
+    @Test
+    void findTasks__test_archived_unsupported_sort() {
+        var param = TaskDataUtils.createPageRequestParam(0, 3, "completed", Sort.Direction.ASC, TotalMode.NONE);
+        param.setArchived(true);
+
+        StepVerifier.create(taskService.findTasks(param))
+                .verifyError(InvalidRequestParamException.class);
+        Mockito.verify(taskRepository, Mockito.never()).findArchived(any(), any(), any(), anyLong(), anyInt());
+    }
+
+    /**
+     * Тест проверяет, что неподдерживаемое сочетание фильтра и сортировки отклоняется до обращения к БД.
+     */
+    @Test
+    void findTasks__test_unsupported_filter_sort() {
+        var param = TaskDataUtils.createPageRequestParam(0, 3, "title", Sort.Direction.ASC, TotalMode.EXACT);
+        param.setCompleted(true);
+
+        StepVerifier.create(taskService.findTasks(param))
+                .verifyError(InvalidRequestParamException.class);
+        Mockito.verifyNoInteractions(taskRepository);
+    }
+
+    /**
+     * Тест проверяет ошибку при поиске несуществующей Задачи.
+     */
+    @Test
+    void findById__test_not_found() {
+        when(taskRepository.findById(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(taskService.findById(1L))
+                .verifyError(EntityNotFoundException.class);
+    }
+
+    /**
+     * Тест проверяет, что Задача, которой нет среди активных, ищется в архиве.
+     */
+    @Test
+    void findById__test_archived() {
+        var archived = TaskDataUtils.createTaskEntity(1L, "title1", 5);
+        when(taskRepository.findById(1L)).thenReturn(Mono.empty());
+        when(taskRepository.findArchivedById(1L)).thenReturn(Mono.just(archived));
+
+        StepVerifier.create(taskService.findById(1L))
+                .expectNext(archived)
+                .verifyComplete();
+    }
+
+    /**
+     * Тест проверяет, что изменение архивной Задачи - конфликт, а не отсутствие Задачи.
+     */
+    @Test
+    void update__test_archived_conflict() {
+        when(taskRepository.updateReturning(any(TaskEntity.class), eq(List.of(3L)))).thenReturn(Mono.empty());
+        when(taskRepository.findArchivedVersionById(1L)).thenReturn(Mono.just(3L));
+
+        StepVerifier.create(taskService.update(1L, TaskDataUtils.testTaskUpdateParam(), List.of(3L)))
+                .verifyError(ArchivedTaskException.class);
+    }
+
+    /**
+     * Тест проверяет, что архивная Задача удаляется и об удалении публикуется инвалидация.
+     */
+    @Test
+    void delete__test_archived() {
+        when(taskRepository.deleteById(1L, null)).thenReturn(Mono.just(0L));
+        when(taskRepository.deleteArchivedById(1L, null)).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(taskService.delete(1L, null))
+                .verifyComplete();
+        Mockito.verify(taskRepository).notify(eq("channel"), anyString());
+    }
+
+    /**
+     * Тест проверяет, что удаление архивной Задачи по устаревшей версии - конфликт версий.
+     */
+    @Test
+    void delete__test_archived_version_conflict() {
+        when(taskRepository.deleteById(1L, List.of(3L))).thenReturn(Mono.just(0L));
+        when(taskRepository.findArchivedVersionById(1L)).thenReturn(Mono.just(4L));
+
+        StepVerifier.create(taskService.delete(1L, List.of(3L)))
+                .verifyError(VersionConflictException.class);
+    }
+
+    /**
+     * Тест проверяет, что обновление публикует инвалидацию с новой версией в той же цепочке.
+     */
+    @Test
+    void update__test_invalidation_published() {
+        var updated = TaskDataUtils.createTaskEntity(1L, "title1", 5);
+        when(taskRepository.updateReturning(any(TaskEntity.class), isNull())).thenReturn(Mono.just(updated));
+
+        StepVerifier.create(taskService.update(1L, TaskDataUtils.testTaskUpdateParam(), null))
+                .expectNext(updated)
+                .verifyComplete();
+        Mockito.verify(taskRepository).notify("channel", "1:5");
+    }
+
+    /**
+     * Тест проверяет, что при несовпадении версии существующей Задачи возвращается конфликт версий.
+     */
+    @Test
+    void update__test_version_conflict() {
+        when(taskRepository.updateReturning(any(TaskEntity.class), eq(List.of(3L)))).thenReturn(Mono.empty());
+        when(taskRepository.findVersionById(1L)).thenReturn(Mono.just(4L));
+
+        StepVerifier.create(taskService.update(1L, TaskDataUtils.testTaskUpdateParam(), List.of(3L)))
+                .verifyError(VersionConflictException.class);
+        Mockito.verify(taskRepository, Mockito.never()).notify(anyString(), anyString());
+    }
+
+    /**
+     * Тест проверяет ошибку при удалении несуществующей Задачи без проверки версии.
+     */
+    @Test
+    void delete__test_not_found() {
+        when(taskRepository.deleteById(1L, null)).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(taskService.delete(1L, null))
+                .verifyError(EntityNotFoundException.class);
+    }
+
+    /**
+     * Тест проверяет, что выгрузка не читает строки до подписки и передает их по одной.
+     */
+    @Test
+    void exportTasks__test_lazy() {
+        var emitted = new ArrayList<TaskEntity>();
+        when(taskRepository.streamAll(TaskSortProperty.ID, Sort.Direction.ASC, TaskServiceImpl.EXPORT_FETCH_SIZE))
+                .thenReturn(Flux.fromIterable(TaskDataUtils.testList()).doOnNext(emitted::add));
+
+        var tasks = taskService.exportTasks(TaskSortProperty.ID, Sort.Direction.ASC);
+        assertTrue(emitted.isEmpty());
+
+        StepVerifier.create(tasks, 1)
+                .expectNextCount(1)
+                .thenRequest(2)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.example.taskira.utils;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+
+import com.example.taskira.dto.in.PageRequestParam;
+import com.example.taskira.dto.in.TaskCreateParam;
+import com.example.taskira.dto.in.TaskUpdateParam;
+import com.example.taskira.dto.out.PageResponse;
+import com.example.taskira.dto.out.TaskResponse;
+import com.example.taskira.pagination.TotalMode;
+import com.example.taskira.repository.entity.TaskEntity;
+
+public class TaskDataUtils {
+
+    private TaskDataUtils() {
+    }
+
+    public static TaskUpdateParam testTaskUpdateParam() {
+        var taskUpdateParam = new TaskUpdateParam();
+        taskUpdateParam.setTitle("title1");
+        taskUpdateParam.setDescription("description1");
+        taskUpdateParam.setDueDate(Instant.parse("2024-02-18T18:35:24.00Z"));
+        taskUpdateParam.setCompleted(true);
+        return taskUpdateParam;
+    }
+
+    public static TaskCreateParam testTaskCreateParam() {
+        var taskCreateParam = new TaskCreateParam();
+        taskCreateParam.setTitle("title1");
+        taskCreateParam.setDescription("description1");
+        taskCreateParam.setDueDate(Instant.parse("2024-02-18T18:35:24.00Z"));
+        return taskCreateParam;
+    }
+
+    public static PageRequestParam createPageRequestParam(int page, int size, String property,
+            Sort.Direction direction, TotalMode totalMode) {
+        var param = new PageRequestParam();
+        param.setPage(page);
+        param.setSize(size);
+        param.setProperty(property);
+        param.setDirection(direction);
+        param.setTotalMode(totalMode);
+        return param;
+    }
+
+    public static PageRequestParam testParam() {
+        return createPageRequestParam(0, 3, "id", Sort.Direction.ASC, TotalMode.EXACT);
+    }
+
+    public static TaskEntity createTaskEntity(Long id, String title, long version) {
+        var task = new TaskEntity();
+        task.setId(id);
+        task.setTitle(title);
+        task.setDescription("description" + id);
+        task.setDueDate(Instant.parse("2024-02-18T18:35:24.00Z"));
+        task.setVersion(version);
+        return task;
+    }
+
+    public static List<TaskEntity> testList() {
+        return List.of(createTaskEntity(1L, "title1", 0), createTaskEntity(2L, "title2", 0),
+                createTaskEntity(3L, "title3", 0));
+    }
+
+    public static TaskResponse testTaskResponse() {
+        var response = new TaskResponse();
+        response.setId(1L);
+        response.setTitle("title1");
+        response.setDescription("description1");
+        response.setDueDate(Instant.parse("2024-02-18T18:35:24.00Z"));
+        response.setVersion(2L);
+        return response;
+    }
+
+    public static PageResponse<TaskResponse> testPageResponse() {
+        return new PageResponse<>(List.of(testTaskResponse()), 1L, 1L, 0L, false, TotalMode.EXACT, null);
+    }
+
+}